@@ -2,7 +2,7 @@ CREATE DATABASE orderdb;
 CREATE DATABASE inventorydb;
 
 -- Drop existing table if any (for dev use)
-DROP TABLE IF EXISTS products;
+DROP TABLE IF EXISTS products CASCADE;
 
 -- Create table
 CREATE TABLE products (
@@ -10,25 +10,148 @@ CREATE TABLE products (
     sku_code VARCHAR(50) UNIQUE NOT NULL,
     name VARCHAR(150) NOT NULL,
     price NUMERIC(10,2) NOT NULL,
-    quantity INT NOT NULL,
+    quantity INT NOT NULL CHECK (quantity >= 0),
+    reserved_quantity INT NOT NULL DEFAULT 0 CHECK (reserved_quantity >= 0),
     status VARCHAR(20) DEFAULT 'ACTIVE',
+    stock_shards INT NOT NULL DEFAULT 0,         -- > 0: available stock is split over product_stock_shards
+    ledger_position BIGINT NOT NULL DEFAULT 0,   -- last stock_movements id folded into quantity
     created_at TIMESTAMP DEFAULT NOW(),
     updated_at TIMESTAMP DEFAULT NOW()
 );
 
 -- Indexes
-CREATE INDEX idx_products_sku ON products (sku_code);
-CREATE INDEX idx_products_status ON products (status);
+-- SKU lookups are case-insensitive (lower(sku_code) = lower(?)), so index the expression;
+-- inventory-service creates it on startup where it is missing (ProductSkuIndexMigration)
+CREATE UNIQUE INDEX idx_products_sku_lower ON products (lower(sku_code));
+-- (status, id) serves keyset pages filtered by status
+CREATE INDEX idx_products_status ON products (status, id);
+
+-- Stock shards of hot SKUs: on-hand = products.quantity + SUM(shards); holds stay on products
+DROP TABLE IF EXISTS product_stock_shards;
+
+CREATE TABLE product_stock_shards (
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    shard_no INT NOT NULL,
+    quantity INT NOT NULL CHECK (quantity >= 0),
+    PRIMARY KEY (product_id, shard_no)
+);
+
+-- Stock ledger (ledger mode): append-only quantity changes; products.quantity is the
+-- compacted snapshot up to products.ledger_position, later rows are the unapplied tail
+DROP TABLE IF EXISTS stock_movements;
+
+CREATE TABLE stock_movements (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    sku_code VARCHAR(50) NOT NULL,
+    delta INT NOT NULL,
+    movement_type VARCHAR(20) NOT NULL,
+    reference VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- (product_id, id) serves both the tail sum and the per-SKU history pages
+CREATE INDEX idx_stock_movements_product ON stock_movements (product_id, id);
+
+-- Hot-SKU leases: stock a node holds (inside products.reserved_quantity) for in-memory deductions
+DROP TABLE IF EXISTS hot_stock_leases;
+
+CREATE TABLE hot_stock_leases (
+    lease_id VARCHAR(120) PRIMARY KEY,
+    node_id VARCHAR(64) NOT NULL,
+    sku_code VARCHAR(50) NOT NULL,
+    held INT NOT NULL CHECK (held >= 0),
+    heartbeat_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_hot_stock_leases_node ON hot_stock_leases (node_id);
+CREATE INDEX idx_hot_stock_leases_heartbeat ON hot_stock_leases (heartbeat_at);
+
+-- Stock reservations (holds placed by order-service, confirmed / released / expired later)
+DROP TABLE IF EXISTS stock_reservations;
+
+CREATE TABLE stock_reservations (
+    id BIGSERIAL PRIMARY KEY,
+    reservation_id VARCHAR(64) NOT NULL,
+    sku_code VARCHAR(50) NOT NULL,
+    quantity INT NOT NULL CHECK (quantity > 0),
+    status VARCHAR(20) NOT NULL DEFAULT 'HELD',
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    UNIQUE (reservation_id, sku_code)
+);
+
+CREATE INDEX idx_reservations_id ON stock_reservations (reservation_id);
+-- Sweeper only scans open holds
+CREATE INDEX idx_reservations_held_expiry ON stock_reservations (expires_at) WHERE status = 'HELD';
+
+-- Transactional outbox: events written with the stock change, relayed to Kafka and deleted
+DROP TABLE IF EXISTS outbox_events;
+
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(100) NOT NULL,
+    message_key VARCHAR(100),
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW()
+);
+
+-- Outbox events the relay could not send (unknown type, unreadable payload); kept for replay
+DROP TABLE IF EXISTS outbox_dead_letters;
+
+CREATE TABLE outbox_dead_letters (
+    id BIGSERIAL PRIMARY KEY,
+    outbox_id BIGINT NOT NULL,
+    topic VARCHAR(100) NOT NULL,
+    message_key VARCHAR(100),
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    error TEXT NOT NULL,
+    created_at TIMESTAMP,
+    failed_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Progress of the stock-deduction-commands consumer, committed with each micro-batch
+DROP TABLE IF EXISTS stock_deduction_offsets;
+
+CREATE TABLE stock_deduction_offsets (
+    partition_id INT PRIMARY KEY,
+    last_offset BIGINT NOT NULL
+);
+
+-- Idempotency-Keys of applied /deduct calls, inserted in the deduction's transaction
+DROP TABLE IF EXISTS processed_deductions;
+
+CREATE TABLE processed_deductions (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    sku_code VARCHAR(50) NOT NULL,
+    quantity INT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_processed_deductions_created ON processed_deductions (created_at);
 
 
 DROP TABLE IF EXISTS order_items CASCADE;
 DROP TABLE IF EXISTS orders CASCADE;
+DROP SEQUENCE IF EXISTS order_items_seq;
+DROP SEQUENCE IF EXISTS orders_seq;
+
+-- Ids come from pooled sequences: INCREMENT BY must equal the entity allocationSize (50),
+-- Hibernate then assigns ids in memory and batches the INSERTs of an order and its items.
+-- Existing BIGSERIAL schemas are migrated by order-service on startup
+-- (OrderIdSequenceMigration): it moves each sequence past MAX(id) and drops the id default.
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
 
 -- Orders table
 CREATE TABLE orders (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     order_number VARCHAR(50) UNIQUE NOT NULL,
     status VARCHAR(20) DEFAULT 'PLACED' NOT NULL,
+    import_ref VARCHAR(100) UNIQUE,
     created_at TIMESTAMP DEFAULT NOW() NOT NULL,
     updated_at TIMESTAMP DEFAULT NOW(),
     version INT DEFAULT 0
@@ -36,19 +159,52 @@ CREATE TABLE orders (
 
 -- Optional indexes for faster lookups
 CREATE INDEX idx_orders_number_lower ON orders (LOWER(order_number));
-CREATE INDEX idx_orders_status ON orders (status);
+-- Keyset indexes for GET /api/v1/orders (newest first, seek on created_at + id);
+-- the status one also serves the stale-PENDING sweep, so the plain status index is gone
+CREATE INDEX idx_orders_status_created ON orders (status, created_at DESC, id DESC);
+CREATE INDEX idx_orders_created ON orders (created_at DESC, id DESC);
 
 -- Order Items table (One-to-Many relationship)
 CREATE TABLE order_items (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     order_id BIGINT NOT NULL REFERENCES orders(id) ON DELETE CASCADE,
     sku_code VARCHAR(50) NOT NULL,
     quantity INT NOT NULL CHECK (quantity > 0),
     price NUMERIC(10,2) NOT NULL CHECK (price > 0)
 );
 
--- Index for product lookups
-CREATE INDEX idx_order_items_sku ON order_items (sku_code);
+-- Index for product lookups and the SKU filter of the order search (SKUs compare case-insensitively)
+CREATE INDEX idx_order_items_sku_order ON order_items (LOWER(sku_code), order_id);
+
+-- Idempotency-Keys of POST /orders with the stored response, kept for a retry window
+DROP TABLE IF EXISTS idempotency_keys;
+
+-- idempotency_key is SHA-256 of (user, client key); expires_at is the in-progress lease
+-- while IN_PROGRESS and the replay window once COMPLETED
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    claim_token VARCHAR(36),                   -- owner of the IN_PROGRESS claim
+    http_status INT,
+    response TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expiry ON idempotency_keys (expires_at);
+
+-- Placed orders whose inventory hold is not confirmed yet; deleted once inventory confirms
+DROP TABLE IF EXISTS reservation_confirmations;
+
+CREATE TABLE reservation_confirmations (
+    reservation_id VARCHAR(64) PRIMARY KEY,    -- = orders.order_number
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_reservation_confirmations_due ON reservation_confirmations (next_attempt_at);
 
 
 
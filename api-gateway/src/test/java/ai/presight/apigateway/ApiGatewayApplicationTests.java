@@ -3,7 +3,10 @@ package ai.presight.apigateway;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"jwt.secret=test-jwt-secret-test-jwt-secret-test-jwt-secret",
+		"security.identity.secret=test-identity-secret"
+})
 class ApiGatewayApplicationTests {
 
 	@Test
@@ -0,0 +1,95 @@
+package ai.presight.apigateway.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import reactor.core.publisher.Mono;
+
+class EdgeAuthenticationFilterTest {
+
+    private static final String JWT_SECRET = "edge-test-jwt-secret-edge-test-jwt-secret-0123";
+    private static final String IDENTITY_SECRET = "edge-test-identity-secret";
+
+    private final EdgeAuthenticationFilter filter = new EdgeAuthenticationFilter(JWT_SECRET, IDENTITY_SECRET);
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    @Test
+    void validTokenIsForwardedWithSignedIdentity() {
+        MockServerWebExchange exchange = exchange(token().setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000)));
+
+        filter.filter(exchange, chain).block();
+
+        String identity = forwarded.get().getRequest().getHeaders().getFirst(EdgeAuthenticationFilter.IDENTITY_HEADER);
+        assertThat(identity).startsWith("YWxpY2U.");
+    }
+
+    @Test
+    void tokenWithoutExpiryIsUnauthorized() {
+        MockServerWebExchange exchange = exchange(token().setSubject("alice"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void tokenWithoutSubjectIsUnauthorized() {
+        MockServerWebExchange exchange = exchange(token().setExpiration(new Date(System.currentTimeMillis() + 60_000)));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void clientSuppliedIdentityIsDropped() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders")
+                .header(EdgeAuthenticationFilter.IDENTITY_HEADER, "forged"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(forwarded.get().getRequest().getHeaders().containsKey(EdgeAuthenticationFilter.IDENTITY_HEADER))
+                .isFalse();
+    }
+
+    @Test
+    void secretsMustBeSetAndDiffer() {
+        assertThatThrownBy(() -> new EdgeAuthenticationFilter("", IDENTITY_SECRET))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new EdgeAuthenticationFilter(JWT_SECRET, ""))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new EdgeAuthenticationFilter(JWT_SECRET, JWT_SECRET))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static JwtBuilder token() {
+        return Jwts.builder().signWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes()), SignatureAlgorithm.HS256);
+    }
+
+    private static MockServerWebExchange exchange(JwtBuilder token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.compact()));
+    }
+}
@@ -36,6 +36,7 @@ kubectl apply -f k8s/order-service/order-service.yml -n order-system
 kubectl apply -f k8s/inventory-service/inventory-service.yml -n order-system
 kubectl apply -f k8s/iam-service/configmap.yml -n order-system
 kubectl apply -f k8s/iam-service/iam-jwt-secret.yml -n order-system
+kubectl apply -f k8s/common-lib/gateway-identity-secret.yml -n order-system
 kubectl apply -f /config-server/inventory-configmap.yml -n order-system
 
 :: Step 4: Rollout restart all deployments
@@ -15,13 +15,17 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.common.security.TrustedIdentityVerifier;
 
 @Configuration
 public class FeignConfig {
 
     /**
-     * Propagate JWT token from SecurityContext to Feign requests.
+     * Propagate JWT token from SecurityContext to Feign requests, and the
+     * gateway-signed identity header so downstream services can skip IAM.
      */
     @Bean
     public RequestInterceptor requestTokenBearerInterceptor() {
@@ -31,6 +35,13 @@ public class FeignConfig {
                 String token = auth.getCredentials().toString();
                 template.header("Authorization", "Bearer " + token);
             }
+
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attr) {
+                String identity = attr.getRequest().getHeader(TrustedIdentityVerifier.IDENTITY_HEADER);
+                if (identity != null) {
+                    template.header(TrustedIdentityVerifier.IDENTITY_HEADER, identity);
+                }
+            }
         };
     }
 
@@ -0,0 +1,9 @@
+package ai.presight.common.dto;
+
+import java.util.List;
+
+/**
+ * Request to place a stock hold for a set of SKUs.
+ * A caller-supplied reservationId makes the call idempotent; ttlSeconds is optional.
+ */
+public record ReservationRequest(String reservationId, Integer ttlSeconds, List<StockCheckRequest> items) {}
@@ -0,0 +1,10 @@
+package ai.presight.common.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Current state of a stock reservation (HELD, CONFIRMED, RELEASED or EXPIRED).
+ */
+public record ReservationResponse(String reservationId, String status, LocalDateTime expiresAt,
+                                  List<StockCheckRequest> items) {}
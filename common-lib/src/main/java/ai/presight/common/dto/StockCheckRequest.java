@@ -0,0 +1,6 @@
+package ai.presight.common.dto;
+
+/**
+ * One line of a multi-SKU stock availability check.
+ */
+public record StockCheckRequest(String skuCode, int qty) {}
@@ -0,0 +1,7 @@
+package ai.presight.common.dto;
+
+/**
+ * Availability of a single SKU as returned by the batch stock check.
+ * Quantities for repeated SKUs in the request are summed before checking.
+ */
+public record StockCheckResponse(String skuCode, int requestedQty, int availableQty, boolean inStock) {}
@@ -0,0 +1,21 @@
+package ai.presight.common.event;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Periodic roll-up of SKUs that stayed below the low-stock threshold and kept
+ * being deducted after their first alert.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockSummaryEvent {
+    private long windowEndEpochMs;
+    private List<LowStockEvent> skus;
+    /** Alerts swallowed by hysteresis since the previous summary. */
+    private long suppressedAlerts;
+}
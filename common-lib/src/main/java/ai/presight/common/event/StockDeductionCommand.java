@@ -0,0 +1,17 @@
+package ai.presight.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to deduct stock, sent to stock-deduction-commands keyed by SKU.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDeductionCommand {
+    private String commandId;
+    private String skuCode;
+    private int quantity;
+}
@@ -0,0 +1,22 @@
+package ai.presight.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one {@link StockDeductionCommand}, published to stock-deduction-results.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDeductionResult {
+    private String commandId;
+    private String skuCode;
+    private int quantity;
+    private boolean applied;
+    /** Available quantity of the SKU after its micro-batch was applied; -1 if unknown. */
+    private int availableQty;
+    /** Rejection reason (INSUFFICIENT_STOCK, NOT_FOUND, INVALID_QUANTITY, PROCESSING_ERROR); null when applied. */
+    private String reason;
+}
@@ -0,0 +1,29 @@
+package ai.presight.common.kafka;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of one event type.
+ *
+ * Schema evolution rules:
+ * - typeId is permanent and never reused for another event type
+ * - a new version may only append fields; existing fields are never removed or reordered
+ * - {@link #read} must accept every version up to the current one, defaulting fields
+ *   that older versions did not carry
+ * - readers ignore trailing bytes, so an older reader can consume a newer version
+ */
+public interface EventCodec<T> {
+
+    int typeId();
+
+    /** Version written by {@link #write}. */
+    int version();
+
+    Class<T> type();
+
+    void write(T event, DataOutput out) throws IOException;
+
+    T read(int version, DataInput in) throws IOException;
+}
@@ -0,0 +1,68 @@
+package ai.presight.common.kafka;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry and framing for inventory Kafka events.
+ * Every payload is [magic 0xB1][typeId][version][body], where body is written by the
+ * type's {@link EventCodec}. New event types are added to the static registration below.
+ */
+public final class InventoryEventCodecs {
+
+    public static final byte MAGIC = (byte) 0xB1;
+
+    private static final Map<Integer, EventCodec<?>> BY_ID = new HashMap<>();
+    private static final Map<Class<?>, EventCodec<?>> BY_TYPE = new HashMap<>();
+
+    static {
+        register(new LowStockEventCodec());
+        register(new LowStockSummaryEventCodec());
+        register(new StockDeductionCommandCodec());
+        register(new StockDeductionResultCodec());
+    }
+
+    private InventoryEventCodecs() {
+    }
+
+    private static void register(EventCodec<?> codec) {
+        if (BY_ID.putIfAbsent(codec.typeId(), codec) != null) {
+            throw new IllegalStateException("Duplicate event type id: " + codec.typeId());
+        }
+        BY_TYPE.put(codec.type(), codec);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static byte[] encode(Object event) throws IOException {
+        EventCodec<Object> codec = (EventCodec<Object>) BY_TYPE.get(event.getClass());
+        if (codec == null) {
+            throw new IOException("No codec registered for " + event.getClass().getName());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(MAGIC);
+        out.writeByte(codec.typeId());
+        out.writeByte(codec.version());
+        codec.write(event, out);
+        return bytes.toByteArray();
+    }
+
+    public static Object decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readByte() != MAGIC) {
+            throw new IOException("Not an inventory event payload (bad magic byte)");
+        }
+        int typeId = in.readUnsignedByte();
+        int version = in.readUnsignedByte();
+        EventCodec<?> codec = BY_ID.get(typeId);
+        if (codec == null) {
+            throw new IOException("Unknown event type id: " + typeId);
+        }
+        return codec.read(version, in);
+    }
+}
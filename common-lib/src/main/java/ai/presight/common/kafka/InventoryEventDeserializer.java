@@ -0,0 +1,25 @@
+package ai.presight.common.kafka;
+
+import java.io.IOException;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka value deserializer for events registered in {@link InventoryEventCodecs}.
+ * Only registered types can be produced, unlike a trust-all JSON deserializer.
+ */
+public class InventoryEventDeserializer implements Deserializer<Object> {
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return InventoryEventCodecs.decode(data);
+        } catch (IOException e) {
+            throw new SerializationException("Could not decode event from topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ai.presight.common.kafka;
+
+import java.io.IOException;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer for events registered in {@link InventoryEventCodecs}.
+ */
+public class InventoryEventSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return InventoryEventCodecs.encode(data);
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode event for topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ai.presight.common.kafka;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+/**
+ * The one place producer settings for inventory events are defined.
+ * - String keys (SKU) so every event of a SKU lands on the same partition
+ * - acks=all with idempotence, so per-key order survives retries
+ * - small linger and 64 KB batches with lz4 compression to amortize sends
+ */
+public final class KafkaProducerProfile {
+
+    public static final int LINGER_MS = 10;
+    public static final int BATCH_SIZE_BYTES = 64 * 1024;
+    public static final String COMPRESSION = "lz4";
+
+    private KafkaProducerProfile() {
+    }
+
+    public static Map<String, Object> inventoryEvents(String bootstrapServers) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, InventoryEventSerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, LINGER_MS);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, BATCH_SIZE_BYTES);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, COMPRESSION);
+        return config;
+    }
+}
@@ -0,0 +1,39 @@
+package ai.presight.common.kafka;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import ai.presight.common.event.LowStockEvent;
+
+/**
+ * v1: skuCode (UTF), remainingQty (int)
+ */
+public class LowStockEventCodec implements EventCodec<LowStockEvent> {
+
+    @Override
+    public int typeId() {
+        return 1;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public Class<LowStockEvent> type() {
+        return LowStockEvent.class;
+    }
+
+    @Override
+    public void write(LowStockEvent event, DataOutput out) throws IOException {
+        out.writeUTF(event.getSkuCode());
+        out.writeInt(event.getRemainingQty());
+    }
+
+    @Override
+    public LowStockEvent read(int version, DataInput in) throws IOException {
+        return new LowStockEvent(in.readUTF(), in.readInt());
+    }
+}
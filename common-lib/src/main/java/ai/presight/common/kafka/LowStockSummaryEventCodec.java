@@ -0,0 +1,54 @@
+package ai.presight.common.kafka;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import ai.presight.common.event.LowStockEvent;
+import ai.presight.common.event.LowStockSummaryEvent;
+
+/**
+ * v1: windowEndEpochMs (long), suppressedAlerts (long), count (int), count × [skuCode (UTF), remainingQty (int)]
+ */
+public class LowStockSummaryEventCodec implements EventCodec<LowStockSummaryEvent> {
+
+    @Override
+    public int typeId() {
+        return 2;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public Class<LowStockSummaryEvent> type() {
+        return LowStockSummaryEvent.class;
+    }
+
+    @Override
+    public void write(LowStockSummaryEvent event, DataOutput out) throws IOException {
+        out.writeLong(event.getWindowEndEpochMs());
+        out.writeLong(event.getSuppressedAlerts());
+        out.writeInt(event.getSkus().size());
+        for (LowStockEvent sku : event.getSkus()) {
+            out.writeUTF(sku.getSkuCode());
+            out.writeInt(sku.getRemainingQty());
+        }
+    }
+
+    @Override
+    public LowStockSummaryEvent read(int version, DataInput in) throws IOException {
+        long windowEnd = in.readLong();
+        long suppressed = in.readLong();
+        int count = in.readInt();
+        List<LowStockEvent> skus = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            skus.add(new LowStockEvent(in.readUTF(), in.readInt()));
+        }
+        return new LowStockSummaryEvent(windowEnd, skus, suppressed);
+    }
+}
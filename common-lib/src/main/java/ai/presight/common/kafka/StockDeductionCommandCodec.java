@@ -0,0 +1,40 @@
+package ai.presight.common.kafka;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import ai.presight.common.event.StockDeductionCommand;
+
+/**
+ * v1: commandId (UTF), skuCode (UTF), quantity (int)
+ */
+public class StockDeductionCommandCodec implements EventCodec<StockDeductionCommand> {
+
+    @Override
+    public int typeId() {
+        return 3;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public Class<StockDeductionCommand> type() {
+        return StockDeductionCommand.class;
+    }
+
+    @Override
+    public void write(StockDeductionCommand command, DataOutput out) throws IOException {
+        out.writeUTF(command.getCommandId());
+        out.writeUTF(command.getSkuCode());
+        out.writeInt(command.getQuantity());
+    }
+
+    @Override
+    public StockDeductionCommand read(int version, DataInput in) throws IOException {
+        return new StockDeductionCommand(in.readUTF(), in.readUTF(), in.readInt());
+    }
+}
@@ -0,0 +1,53 @@
+package ai.presight.common.kafka;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import ai.presight.common.event.StockDeductionResult;
+
+/**
+ * v1: commandId (UTF), skuCode (UTF), quantity (int), applied (boolean), availableQty (int),
+ * hasReason (boolean), [reason (UTF)]
+ */
+public class StockDeductionResultCodec implements EventCodec<StockDeductionResult> {
+
+    @Override
+    public int typeId() {
+        return 4;
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public Class<StockDeductionResult> type() {
+        return StockDeductionResult.class;
+    }
+
+    @Override
+    public void write(StockDeductionResult result, DataOutput out) throws IOException {
+        out.writeUTF(result.getCommandId());
+        out.writeUTF(result.getSkuCode());
+        out.writeInt(result.getQuantity());
+        out.writeBoolean(result.isApplied());
+        out.writeInt(result.getAvailableQty());
+        out.writeBoolean(result.getReason() != null);
+        if (result.getReason() != null) {
+            out.writeUTF(result.getReason());
+        }
+    }
+
+    @Override
+    public StockDeductionResult read(int version, DataInput in) throws IOException {
+        String commandId = in.readUTF();
+        String skuCode = in.readUTF();
+        int quantity = in.readInt();
+        boolean applied = in.readBoolean();
+        int availableQty = in.readInt();
+        String reason = in.readBoolean() ? in.readUTF() : null;
+        return new StockDeductionResult(commandId, skuCode, quantity, applied, availableQty, reason);
+    }
+}
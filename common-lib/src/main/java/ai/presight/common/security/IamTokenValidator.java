@@ -0,0 +1,58 @@
+package ai.presight.common.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+
+/**
+ * Validates bearer tokens against the IAM service.
+ * Tokens IAM has already accepted are answered from {@link TokenValidationCache},
+ * so repeat callers do not pay the IAM round trip.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IamTokenValidator {
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final TokenValidationCache tokenCache;
+    private final JwtUtil jwtUtil;
+
+    @Value("${security.iam.validate-url:http://iam-service:8083/api/v1/auth/validate}")
+    private String validateUrl;
+
+    /**
+     * Forged or expired tokens are rejected locally before IAM is called.
+     *
+     * @return the verified token if valid, either from cache or as confirmed by IAM
+     * @throws io.jsonwebtoken.JwtException if the token fails local verification
+     * @throws org.springframework.web.client.RestClientException if IAM rejects the token or is unreachable
+     */
+    public Optional<VerifiedToken> validate(String token) {
+        Optional<VerifiedToken> cached = tokenCache.get(token);
+        if (cached.isPresent()) {
+            log.debug("Token served from validation cache");
+            return cached;
+        }
+
+        VerifiedToken verified = jwtUtil.verify(token);
+        ResponseEntity<Void> validationResponse = restTemplate.postForEntity(
+                validateUrl,
+                new HttpEntity<>(token),
+                Void.class
+        );
+        log.info("IAM validation response: {}", validationResponse.getStatusCode());
+
+        if (validationResponse.getStatusCode().is2xxSuccessful()) {
+            tokenCache.put(token, verified);
+            return Optional.of(verified);
+        }
+        return Optional.empty();
+    }
+}
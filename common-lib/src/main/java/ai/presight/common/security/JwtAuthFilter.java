@@ -21,6 +21,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.Optional;
 
 
 @Component
@@ -29,6 +30,7 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TrustedIdentityVerifier trustedIdentityVerifier;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -45,6 +47,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
+        if (authenticateTrustedIdentity(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         final String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             log.warn(" Missing or invalid Authorization header for {}", path);
@@ -56,25 +63,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         log.debug("Extracted token: {}", token.substring(0, Math.min(token.length(), 20)) + "...");
 
         try {
-            final String username = jwtUtil.extractUsername(token);
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtil.validateToken(token, username)) {
-                    var userDetails = User.withUsername(username)
-                            .password("")
-                            .authorities("ROLE_USER")
-                            .build();
-
-                    var authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    log.info(" JWT validated successfully for user={}", username);
-                } else {
-                    log.warn(" Invalid JWT token for user={}", username);
-                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                    return;
-                }
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                authenticate(jwtUtil.verify(token), request);
             }
         } catch (Exception e) {
             log.error(" JWT processing error: {}", e.getMessage());
@@ -85,4 +75,34 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         log.debug("Continuing request chain for {}", path);
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Authenticates the request from the gateway-signed X-Identity header, if present and valid.
+     *
+     * @return true if the request is now authenticated and no JWT work is needed
+     */
+    protected boolean authenticateTrustedIdentity(HttpServletRequest request) {
+        Optional<VerifiedToken> identity =
+                trustedIdentityVerifier.verify(request.getHeader(TrustedIdentityVerifier.IDENTITY_HEADER));
+        identity.ifPresent(verified -> authenticate(verified, request));
+        return identity.isPresent();
+    }
+
+    /**
+     * Marks the request as authenticated for an already verified token.
+     * Subclasses call this instead of re-parsing the token.
+     */
+    protected void authenticate(VerifiedToken verified, HttpServletRequest request) {
+        var userDetails = User.withUsername(verified.subject())
+                .password("")
+                .authorities("ROLE_USER")
+                .build();
+
+        var authToken = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        log.info(" JWT validated successfully for user={}", verified.subject());
+    }
 }
@@ -15,6 +15,8 @@ public class JwtUtil {
 
     private final Key key;
     private final long expirationTime;
+    /** Immutable and thread-safe, so it is built once and shared by all requests. */
+    private final JwtParser parser;
 
     public JwtUtil(
             @Value("${jwt.secret:${JWT_SECRET:}}") String secret,
@@ -25,6 +27,9 @@ public class JwtUtil {
         }
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationTime = expirationTime;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
         log.info("JwtUtil initialized with expiration={} ms", expirationTime);
     }
 
@@ -39,11 +44,26 @@ public class JwtUtil {
         return token;
     }
 
+    /**
+     * Parses the token and verifies its signature and expiry in a single pass.
+     *
+     * @param token compact JWS
+     * @return the verified claims callers need
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getIssuedAt(), claims.getExpiration());
+        if (verified.subject() == null || verified.isExpired()) {
+            throw new JwtException("Token has no subject or is expired");
+        }
+        log.debug("Verified JWT for user={} exp={}", verified.subject(), verified.expiresAt());
+        return verified;
+    }
+
     public String extractUsername(String token) {
         try {
-            String username = getClaims(token).getSubject();
-            log.debug("Extracted username={} from JWT", username);
-            return username;
+            return verify(token).subject();
         } catch (JwtException e) {
             log.error(" Error extracting username: {}", e.getMessage());
             throw e;
@@ -52,29 +72,13 @@ public class JwtUtil {
 
     public boolean validateToken(String token, String username) {
         try {
-            String extracted = extractUsername(token);
-            boolean expired = isTokenExpired(token);
-            boolean valid = extracted.equals(username) && !expired;
-            log.info("Validating token for user={} → match={} expired={} → valid={}", username, extracted.equals(username), expired, valid);
+            VerifiedToken verified = verify(token);
+            boolean valid = verified.subject().equals(username);
+            log.info("Validating token for user={} → valid={}", username, valid);
             return valid;
         } catch (JwtException e) {
             log.error(" Token validation failed: {}", e.getMessage());
             return false;
         }
     }
-
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private boolean isTokenExpired(String token) {
-        Date exp = getClaims(token).getExpiration();
-        boolean expired = exp.before(new Date());
-        log.debug("Token expires={} (expired={})", exp, expired);
-        return expired;
-    }
 }
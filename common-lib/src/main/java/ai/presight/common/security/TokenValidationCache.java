@@ -0,0 +1,92 @@
+package ai.presight.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of tokens already accepted by IAM.
+ * - Keyed by a SHA-256 digest, so raw tokens are never kept in memory
+ * - Each entry is evicted no later than the token's own exp claim
+ * - maxTtl caps how long a revoked token can still be served from cache
+ */
+@Slf4j
+@Component
+public class TokenValidationCache {
+
+    private final Cache<String, CachedToken> validTokens;
+    private final long maxTtlMillis;
+
+    public TokenValidationCache(
+            @Value("${security.token-cache.max-size:10000}") long maxSize,
+            @Value("${security.token-cache.max-ttl-ms:300000}") long maxTtlMillis
+    ) {
+        this.maxTtlMillis = maxTtlMillis;
+        this.validTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedToken entry, long currentTime) {
+                        long remaining = entry.evictAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedToken entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedToken entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        log.info("TokenValidationCache initialized with maxSize={} maxTtl={} ms", maxSize, maxTtlMillis);
+    }
+
+    /**
+     * @return the verified token if it was validated before and has not expired since
+     */
+    public Optional<VerifiedToken> get(String token) {
+        CachedToken entry = validTokens.getIfPresent(digest(token));
+        if (entry == null || entry.evictAt() <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.token());
+    }
+
+    /**
+     * Remember a validated token until its expiry (or maxTtl, whichever comes first).
+     */
+    public void put(String token, VerifiedToken verified) {
+        long evictAt = System.currentTimeMillis() + maxTtlMillis;
+        if (verified.expiresAt() != null) {
+            evictAt = Math.min(verified.expiresAt().getTime(), evictAt);
+        }
+        if (evictAt > System.currentTimeMillis()) {
+            validTokens.put(digest(token), new CachedToken(verified, evictAt));
+        }
+    }
+
+    private record CachedToken(VerifiedToken token, long evictAt) {}
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ai.presight.common.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Checks the X-Identity header that api-gateway adds after verifying a JWT at the edge.
+ * A valid header lets a service authenticate the request with one HMAC instead of a
+ * full JWT parse plus an IAM round trip.
+ * The HMAC key is separate from jwt.secret; without one the header is ignored.
+ *
+ * Header format (kept in sync with api-gateway EdgeAuthenticationFilter):
+ * base64url(subject) "." expEpochSeconds "." base64url(HMAC-SHA256)
+ */
+@Slf4j
+@Component
+public class TrustedIdentityVerifier {
+
+    public static final String IDENTITY_HEADER = "X-Identity";
+
+    private final SecretKeySpec identityKey;
+    private final boolean enabled;
+
+    public TrustedIdentityVerifier(
+            @Value("${security.identity.secret:${IDENTITY_SECRET:}}") String identitySecret,
+            @Value("${jwt.secret:${JWT_SECRET:}}") String jwtSecret,
+            @Value("${security.identity.trusted:true}") boolean enabled
+    ) {
+        if (enabled && identitySecret != null && identitySecret.equals(jwtSecret)) {
+            throw new IllegalStateException("security.identity.secret must differ from jwt.secret");
+        }
+        this.enabled = enabled && identitySecret != null && !identitySecret.isBlank();
+        this.identityKey = this.enabled
+                ? new SecretKeySpec(identitySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256")
+                : null;
+        log.info("TrustedIdentityVerifier initialized (enabled={})", this.enabled);
+    }
+
+    /**
+     * @param header value of the X-Identity header, may be null
+     * @return the identity if the signature matches and it has not expired
+     */
+    public Optional<VerifiedToken> verify(String header) {
+        if (!enabled || header == null) {
+            return Optional.empty();
+        }
+
+        int lastDot = header.lastIndexOf('.');
+        int firstDot = header.indexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot) {
+            return Optional.empty();
+        }
+
+        try {
+            String payload = header.substring(0, lastDot);
+            byte[] expected = sign(payload);
+            byte[] actual = Base64.getUrlDecoder().decode(header.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                log.warn(" X-Identity signature mismatch");
+                return Optional.empty();
+            }
+
+            Date expiresAt = new Date(Long.parseLong(header.substring(firstDot + 1, lastDot)) * 1000);
+            String subject = new String(Base64.getUrlDecoder().decode(header.substring(0, firstDot)),
+                    StandardCharsets.UTF_8);
+            VerifiedToken identity = new VerifiedToken(subject, null, expiresAt);
+            return identity.isExpired() ? Optional.empty() : Optional.of(identity);
+        } catch (IllegalArgumentException e) {
+            log.warn(" Malformed X-Identity header: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(identityKey);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot verify identity header", e);
+        }
+    }
+}
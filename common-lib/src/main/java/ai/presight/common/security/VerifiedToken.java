@@ -0,0 +1,15 @@
+package ai.presight.common.security;
+
+import java.util.Date;
+
+/**
+ * Immutable result of a successful signature and expiry check on a JWT.
+ * Produced once per request by {@link JwtUtil#verify(String)} and passed along
+ * instead of re-parsing the token.
+ */
+public record VerifiedToken(String subject, Date issuedAt, Date expiresAt) {
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.before(new Date());
+    }
+}
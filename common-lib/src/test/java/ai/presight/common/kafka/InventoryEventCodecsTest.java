@@ -0,0 +1,70 @@
+package ai.presight.common.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import ai.presight.common.event.LowStockEvent;
+import ai.presight.common.event.LowStockSummaryEvent;
+import ai.presight.common.event.StockDeductionCommand;
+import ai.presight.common.event.StockDeductionResult;
+
+class InventoryEventCodecsTest {
+
+    private final InventoryEventSerializer serializer = new InventoryEventSerializer();
+    private final InventoryEventDeserializer deserializer = new InventoryEventDeserializer();
+
+    @Test
+    void everyRegisteredTypeRoundTrips() {
+        List<Object> events = List.of(
+                new LowStockEvent("SKU-1", 3),
+                new LowStockSummaryEvent(1_700_000_000_000L,
+                        List.of(new LowStockEvent("SKU-1", 3), new LowStockEvent("SKU-2", 0)), 7),
+                new StockDeductionCommand("cmd-1", "SKU-1", 2),
+                new StockDeductionResult("cmd-1", "SKU-1", 2, false, -1, "INSUFFICIENT_STOCK"),
+                new StockDeductionResult("cmd-2", "SKU-2", 1, true, 9, null));
+
+        for (Object event : events) {
+            byte[] bytes = serializer.serialize("topic", event);
+            assertThat(bytes[0]).isEqualTo(InventoryEventCodecs.MAGIC);
+            assertThat(deserializer.deserialize("topic", bytes)).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void lowStockEventIsSmallerThanItsJsonForm() {
+        byte[] bytes = serializer.serialize("topic", new LowStockEvent("SKU-123", 4));
+
+        assertThat(bytes).hasSizeLessThan("{\"skuCode\":\"SKU-123\",\"remainingQty\":4}".length());
+    }
+
+    @Test
+    void readersIgnoreTrailingBytesFromNewerWriters() {
+        byte[] bytes = serializer.serialize("topic", new LowStockEvent("SKU-1", 3));
+        byte[] withAppendedField = Arrays.copyOf(bytes, bytes.length + 4);
+
+        assertThat(deserializer.deserialize("topic", withAppendedField)).isEqualTo(new LowStockEvent("SKU-1", 3));
+    }
+
+    @Test
+    void rejectsForeignAndUnknownPayloads() {
+        assertThatThrownBy(() -> deserializer.deserialize("topic", "{\"skuCode\":\"x\"}".getBytes()))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> deserializer.deserialize("topic", new byte[] {InventoryEventCodecs.MAGIC, (byte) 200, 1}))
+                .isInstanceOf(SerializationException.class)
+                .hasRootCauseMessage("Unknown event type id: 200");
+        assertThatThrownBy(() -> serializer.serialize("topic", "not an event"))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void nullPassesThroughForTombstones() {
+        assertThat(serializer.serialize("topic", null)).isNull();
+        assertThat(deserializer.deserialize("topic", null)).isNull();
+    }
+}
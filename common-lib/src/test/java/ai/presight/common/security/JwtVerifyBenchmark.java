@@ -0,0 +1,73 @@
+package ai.presight.common.security;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request cost of token checking: the old filter path (extractUsername, then
+ * validateToken = extractUsername + isTokenExpired, each building a parser and verifying
+ * the HMAC) against one {@link JwtUtil#verify(String)} with the shared parser.
+ *
+ * Run from common-lib with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     "-Dexec.args=-cp %classpath ai.presight.common.security.JwtVerifyBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtUtil jwtUtil;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3_600_000);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        token = jwtUtil.generateToken("alice");
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyClaims().getSubject();
+        return legacyClaims().getSubject().equals(username) && !legacyClaims().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean verifyOnce() {
+        return jwtUtil.verify(token).subject().equals("alice");
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerifyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,48 @@
+package ai.presight.common.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+class TokenValidationCacheTest {
+
+    private final TokenValidationCache cache = new TokenValidationCache(100, 60_000);
+
+    @Test
+    void servesValidatedTokenUntilItExpires() throws InterruptedException {
+        VerifiedToken verified = new VerifiedToken("alice", new Date(), new Date(System.currentTimeMillis() + 200));
+        cache.put("token-a", verified);
+
+        assertThat(cache.get("token-a")).contains(verified);
+        assertThat(cache.get("token-b")).isEmpty();
+
+        Thread.sleep(300);
+        assertThat(cache.get("token-a")).isEmpty();
+    }
+
+    @Test
+    void maxTtlCapsLongLivedTokens() throws InterruptedException {
+        TokenValidationCache shortCache = new TokenValidationCache(100, 100);
+        shortCache.put("token-a", new VerifiedToken("alice", new Date(), new Date(System.currentTimeMillis() + 3_600_000)));
+
+        assertThat(shortCache.get("token-a")).isPresent();
+        Thread.sleep(200);
+        assertThat(shortCache.get("token-a")).isEmpty();
+    }
+
+    @Test
+    void expiredTokensAreNotCached() {
+        cache.put("token-a", new VerifiedToken("alice", new Date(), new Date(System.currentTimeMillis() - 1)));
+
+        assertThat(cache.get("token-a")).isEmpty();
+    }
+
+    @Test
+    void tokenWithoutExpiryIsKeptForMaxTtlOnly() {
+        cache.put("token-a", new VerifiedToken("alice", new Date(), null));
+
+        assertThat(cache.get("token-a")).isPresent();
+    }
+}
@@ -0,0 +1,67 @@
+package ai.presight.common.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+class TrustedIdentityVerifierTest {
+
+    private static final String IDENTITY_SECRET = "identity-test-secret";
+    private static final String JWT_SECRET = "jwt-test-secret";
+
+    private final TrustedIdentityVerifier verifier = new TrustedIdentityVerifier(IDENTITY_SECRET, JWT_SECRET, true);
+
+    @Test
+    void acceptsHeaderSignedWithIdentityKey() {
+        long exp = System.currentTimeMillis() / 1000 + 60;
+
+        assertThat(verifier.verify(sign("alice", exp, IDENTITY_SECRET)))
+                .hasValueSatisfying(identity -> assertThat(identity.subject()).isEqualTo("alice"));
+    }
+
+    @Test
+    void rejectsHeaderSignedWithAnotherKey() {
+        long exp = System.currentTimeMillis() / 1000 + 60;
+
+        assertThat(verifier.verify(sign("alice", exp, JWT_SECRET))).isEmpty();
+    }
+
+    @Test
+    void rejectsExpiredOrMalformedHeader() {
+        assertThat(verifier.verify(sign("alice", System.currentTimeMillis() / 1000 - 1, IDENTITY_SECRET))).isEmpty();
+        assertThat(verifier.verify("not-an-identity")).isEmpty();
+        assertThat(verifier.verify(null)).isEmpty();
+    }
+
+    @Test
+    void ignoresHeaderWhenNoIdentityKeyIsConfigured() {
+        TrustedIdentityVerifier unconfigured = new TrustedIdentityVerifier("", JWT_SECRET, true);
+
+        assertThat(unconfigured.verify(sign("alice", System.currentTimeMillis() / 1000 + 60, ""))).isEmpty();
+    }
+
+    @Test
+    void refusesJwtSecretAsIdentityKey() {
+        assertThatThrownBy(() -> new TrustedIdentityVerifier(JWT_SECRET, JWT_SECRET, true))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String sign(String subject, long expSeconds, String secret) {
+        try {
+            Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+            String payload = base64.encodeToString(subject.getBytes(StandardCharsets.UTF_8)) + "." + expSeconds;
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec((secret.isEmpty() ? "x" : secret).getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return payload + "." + base64.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
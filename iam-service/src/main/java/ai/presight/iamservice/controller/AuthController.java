@@ -39,11 +39,8 @@ public class AuthController {
     @PostMapping("/validate")
     public ResponseEntity<Void> validate(@RequestBody String token) {
         try {
-            String username = jwtUtil.extractUsername(token);
-            if (jwtUtil.validateToken(token, username)) {
-                return ResponseEntity.ok().build();
-            }
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            jwtUtil.verify(token);
+            return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
@@ -13,6 +13,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,6 +21,7 @@ import lombok.extern.slf4j.Slf4j;
 @EntityScan(basePackages = "ai.presight.inventoryservice.model")
 @EnableJpaRepositories(basePackages = "ai.presight.inventoryservice.repository")
 @EnableDiscoveryClient
+@EnableScheduling
 @Slf4j
 public class InventoryServiceApplication {
 
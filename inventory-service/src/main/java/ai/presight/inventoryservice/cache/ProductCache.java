@@ -0,0 +1,114 @@
+package ai.presight.inventoryservice.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ai.presight.inventoryservice.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process near cache of products keyed by lower-cased SKU.
+ * - Size-bounded (W-TinyLFU eviction) with a short write TTL that bounds staleness
+ *   caused by writes on other inventory instances
+ * - Local writes evict entries after their transaction commits, so a rolled-back
+ *   deduction never leaks into the cache. Written rows are never put back: commit
+ *   callbacks of concurrent writers run in any order and an older row could win.
+ *   An eviction also waits out an in-flight load of the same key, so a read that
+ *   started before the commit cannot repopulate the entry with the old row.
+ * - Hit, miss and eviction counts are published as cache.* metrics (cache=products)
+ *
+ * Cached products are shared between threads and must be treated as read-only.
+ */
+@Slf4j
+@Component
+public class ProductCache {
+
+    private final Cache<String, Product> cache;
+
+    public ProductCache(
+            MeterRegistry meterRegistry,
+            @Value("${inventory.cache.max-size:10000}") long maxSize,
+            @Value("${inventory.cache.ttl-ms:30000}") long ttlMillis
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+        log.info("ProductCache initialized with maxSize={} ttl={} ms", maxSize, ttlMillis);
+    }
+
+    public static String key(String skuCode) {
+        return skuCode.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param loader called with the normalized SKU on a miss; may throw to signal not found
+     */
+    public Product get(String skuCode, Function<String, Product> loader) {
+        return cache.get(key(skuCode), loader);
+    }
+
+    /**
+     * Bulk lookup; all misses are resolved with a single loader call.
+     *
+     * @param loader receives the normalized SKUs that missed and returns those it found
+     * @return products keyed by normalized SKU (unknown SKUs are absent)
+     */
+    public Map<String, Product> getAll(Collection<String> skuCodes,
+                                       Function<Set<? extends String>, Map<String, Product>> loader) {
+        return cache.getAll(skuCodes.stream().map(ProductCache::key).toList(), loader);
+    }
+
+    /**
+     * Drop the cached entry once the transaction commits.
+     */
+    public void evictAfterCommit(String skuCode) {
+        afterCommit(() -> cache.invalidate(key(skuCode)));
+    }
+
+    /**
+     * Drop the cached entries of all given SKUs once the transaction commits.
+     */
+    public void evictAfterCommit(Collection<String> skuCodes) {
+        List<String> keys = skuCodes.stream().map(ProductCache::key).toList();
+        afterCommit(() -> cache.invalidateAll(keys));
+    }
+
+    public void evictAllAfterCommit() {
+        afterCommit(cache::invalidateAll);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,35 +1,36 @@
 package ai.presight.inventoryservice.config;
 
+import ai.presight.common.security.IamTokenValidator;
 import ai.presight.common.security.JwtAuthFilter;
 import ai.presight.common.security.JwtUtil;
+import ai.presight.common.security.TrustedIdentityVerifier;
+import ai.presight.common.security.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.Optional;
 
 /**
  *  Custom JWT filter for Inventory Service.
- * - Validates token with IAM service
+ * - Trusts the gateway-signed X-Identity header when present
+ * - Otherwise validates token with IAM service (answered from cache for repeat callers)
  * - Sets SecurityContext so Spring controllers run correctly
  */
 @Slf4j
 @Component
 public class InventoryJwtAuthFilter extends JwtAuthFilter {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final IamTokenValidator iamTokenValidator;
 
-    public InventoryJwtAuthFilter(JwtUtil jwtUtil) {
-        super(jwtUtil);
+    public InventoryJwtAuthFilter(JwtUtil jwtUtil, TrustedIdentityVerifier trustedIdentityVerifier,
+                          IamTokenValidator iamTokenValidator) {
+        super(jwtUtil, trustedIdentityVerifier);
+        this.iamTokenValidator = iamTokenValidator;
     }
 
     @Override
@@ -41,6 +42,12 @@ public class InventoryJwtAuthFilter extends JwtAuthFilter {
         String path = request.getRequestURI();
         log.info(" [InventoryJwtAuthFilter] Incoming request: {}", path);
 
+        if (authenticateTrustedIdentity(request)) {
+            log.debug(" Gateway identity trusted → skipping JWT validation for {}", path);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             log.warn(" No Authorization header found → skipping JWT validation for {}", path);
@@ -52,20 +59,11 @@ public class InventoryJwtAuthFilter extends JwtAuthFilter {
         log.info(" Extracted token: {}...", token.substring(0, Math.min(token.length(), 10)));
 
         try {
-            //  Call IAM service to validate JWT
-            ResponseEntity<Void> validationResponse = restTemplate.postForEntity(
-                    "http://iam-service:8083/api/v1/auth/validate",
-                    new HttpEntity<>(token),
-                    Void.class
-            );
-
-            log.info("IAM validation response: {}", validationResponse.getStatusCode());
-
-            if (validationResponse.getStatusCode().is2xxSuccessful()) {
+            //  Validate JWT with IAM service (or the local validation cache)
+            Optional<VerifiedToken> verified = iamTokenValidator.validate(token);
+            if (verified.isPresent()) {
                 //  Token valid → mark request authenticated
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken("validatedUser", null, Collections.emptyList());
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                authenticate(verified.get(), request);
 
                 log.info(" Token valid → SecurityContext set → proceeding to controller");
                 filterChain.doFilter(request, response);
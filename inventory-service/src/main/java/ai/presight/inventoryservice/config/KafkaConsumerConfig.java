@@ -0,0 +1,78 @@
+package ai.presight.inventoryservice.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import ai.presight.common.kafka.InventoryEventDeserializer;
+import ai.presight.inventoryservice.service.StockDeductionBatchService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Batch consumer for stock deduction commands.
+ * - one listener thread per partition at most (concurrency ≤ partition count)
+ * - offsets are acknowledged after the batch transaction commits
+ * - a failing batch is retried with a fixed backoff, then each record goes to
+ *   {@link StockDeductionBatchService#recover}, which publishes a failure result
+ */
+@EnableKafka
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:kafka-service:9092}")
+    private String bootstrapServers;
+
+    @Value("${inventory.deduction.concurrency:3}")
+    private int concurrency;
+
+    @Value("${inventory.deduction.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${inventory.deduction.retry-interval-ms:1000}")
+    private long retryIntervalMs;
+
+    @Value("${inventory.deduction.retry-attempts:3}")
+    private long retryAttempts;
+
+    @Bean
+    public ConsumerFactory<String, Object> consumerFactory(MeterRegistry meterRegistry) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        DefaultKafkaConsumerFactory<String, Object> factory = new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(new InventoryEventDeserializer()));
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory, StockDeductionBatchService batchService) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(batchService::recover,
+                new FixedBackOff(retryIntervalMs, retryAttempts)));
+        return factory;
+    }
+}
@@ -8,6 +8,7 @@
 package ai.presight.inventoryservice.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
@@ -15,6 +16,9 @@ import org.springframework.kafka.config.TopicBuilder;
 @Configuration
 public class KafkaTopicConfig {
 
+	@Value("${inventory.deduction.partitions:6}")
+	private int deductionPartitions;
+
 	@Bean
 	public NewTopic lowStockTopic() {
 	    return TopicBuilder.name("low-stock-topic")
@@ -22,4 +26,29 @@ public class KafkaTopicConfig {
 	            .replicas(1)
 	            .build();
 	}
+
+	@Bean
+	public NewTopic lowStockSummaryTopic() {
+	    return TopicBuilder.name("low-stock-summary-topic")
+	            .partitions(1)
+	            .replicas(1)
+	            .build();
+	}
+
+	/** Keyed by SKU; partitions bound how many single writers apply deductions in parallel. */
+	@Bean
+	public NewTopic stockDeductionCommandsTopic() {
+	    return TopicBuilder.name("stock-deduction-commands")
+	            .partitions(deductionPartitions)
+	            .replicas(1)
+	            .build();
+	}
+
+	@Bean
+	public NewTopic stockDeductionResultsTopic() {
+	    return TopicBuilder.name("stock-deduction-results")
+	            .partitions(deductionPartitions)
+	            .replicas(1)
+	            .build();
+	}
 }
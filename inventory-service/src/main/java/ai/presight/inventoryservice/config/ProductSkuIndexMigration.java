@@ -0,0 +1,49 @@
+package ai.presight.inventoryservice.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the unique lower(sku_code) index on products when it is missing.
+ * Hibernate's ddl-auto cannot declare expression indexes, and the catalog upsert merges on
+ * ON CONFLICT ((lower(sku_code))), which needs it. Runs once per start, after the schema
+ * update and before traffic; an advisory lock keeps replicas that start together from racing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSkuIndexMigration implements SmartInitializingSingleton {
+
+    static final String INDEX = "idx_products_sku_lower";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("select pg_advisory_xact_lock(hashtext('products-sku-index'))");
+                migrate();
+            });
+        } catch (DataAccessException e) {
+            // Typically SKUs that differ only in case; the catalog upsert fails until they are merged
+            log.error("Could not create {}: {}", INDEX, e.getMessage());
+        }
+    }
+
+    void migrate() {
+        if (jdbcTemplate.queryForObject("select to_regclass('products') is null", Boolean.class)
+                || !jdbcTemplate.queryForObject("select to_regclass(?) is null", Boolean.class, INDEX)) {
+            return;
+        }
+        jdbcTemplate.execute("create unique index " + INDEX + " on products (lower(sku_code))");
+        log.info("Created {}", INDEX);
+    }
+}
@@ -8,7 +8,12 @@
 
 package ai.presight.inventoryservice.controller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,11 +21,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.common.dto.StockCheckResponse;
+import ai.presight.inventoryservice.model.BulkUpsertResult;
 import ai.presight.inventoryservice.model.Product;
+import ai.presight.inventoryservice.model.ProductPage;
+import ai.presight.inventoryservice.model.StockMovementPage;
+import ai.presight.inventoryservice.model.StockMovementRequest;
+import ai.presight.inventoryservice.service.CatalogImportService;
+import ai.presight.inventoryservice.service.HotStockService;
 import ai.presight.inventoryservice.service.ProductService;
+import ai.presight.inventoryservice.service.StockLedgerService;
+import ai.presight.inventoryservice.service.StockShardService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -35,15 +52,50 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ProductController {
 
+    /** Length of processed_deductions.idempotency_key. */
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
     private final ProductService productService;
+    private final CatalogImportService catalogImportService;
+    private final HotStockService hotStockService;
+    private final StockLedgerService stockLedgerService;
+    private final StockShardService stockShardService;
 
+    /**
+     * Full catalog as a JSON array, the response shape existing clients expect. The array is
+     * streamed off a JDBC cursor, so memory stays flat however large the catalog is.
+     */
     @GetMapping
-    public ResponseEntity<List<Product>> getAll(HttpServletRequest request) {
-    	
-    	log.info("Fetching all products...");
-        List<Product> products = productService.findAll();
-        log.info("Total products fetched: {}", products.size());
-        return ResponseEntity.ok(products);
+    public ResponseEntity<StreamingResponseBody> getAll() {
+        log.info("Streaming all products...");
+        StreamingResponseBody body = productService::writeAllAsArray;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Keyset-paginated listing (opt-in). Pass the returned nextCursor as afterId for the next page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ProductPage> getPage(@RequestParam(required = false) Long afterId,
+                                               @RequestParam(required = false) String status,
+                                               @RequestParam(defaultValue = "50") int size) {
+        ProductPage page = productService.findPage(afterId, status, size);
+        log.info("Products fetched: {} (nextCursor={})", page.items().size(), page.nextCursor());
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Streams the full catalog as NDJSON with bounded memory.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export() {
+        log.info("Streaming product export...");
+        StreamingResponseBody body = productService::exportTo;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -58,6 +110,37 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    /**
+     * Split a hot SKU's available stock over {@code count} shard rows; 0 merges it back.
+     */
+    @PutMapping("/sku/{skuCode}/shards")
+    public ResponseEntity<Product> configureShards(@PathVariable String skuCode, @RequestParam int count) {
+        Product product = stockShardService.configure(skuCode, count);
+        log.info("Stock shards of [{}] set to {}", skuCode, product.getStockShards());
+        return ResponseEntity.ok(product);
+    }
+
+    /**
+     * Stock movement history of a SKU (ledger mode), newest first. Pass the returned
+     * nextCursor as beforeId for older movements.
+     */
+    @GetMapping("/sku/{skuCode}/movements")
+    public ResponseEntity<StockMovementPage> getMovements(@PathVariable String skuCode,
+                                                          @RequestParam(required = false) Long beforeId,
+                                                          @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(stockLedgerService.history(skuCode, beforeId, size));
+    }
+
+    /**
+     * Record a RESTOCK or ADJUSTMENT movement (ledger mode).
+     */
+    @PostMapping("/sku/{skuCode}/movements")
+    public ResponseEntity<Product> recordMovement(@PathVariable String skuCode,
+                                                  @RequestBody StockMovementRequest request) {
+        Product updated = productService.recordMovement(skuCode, request);
+        return ResponseEntity.ok(updated);
+    }
+
     @PostMapping
     public ResponseEntity<Product> create(@RequestBody Product product) {
         Product created = productService.create(product);
@@ -65,6 +148,19 @@ public class ProductController {
         return ResponseEntity.ok(created);
     }
 
+    /**
+     * Bulk upsert of a catalog feed: NDJSON products, or CSV with a header and
+     * skuCode,name,price,quantity[,status] rows. Existing SKUs are updated, new ones inserted.
+     */
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" })
+    public ResponseEntity<BulkUpsertResult> bulkUpsert(HttpServletRequest request) throws IOException {
+        boolean csv = request.getContentType().startsWith("text/csv");
+        BufferedReader body = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        BulkUpsertResult result = catalogImportService.upsert(body, csv);
+        log.info("Catalog upsert: inserted={}, updated={}, rejected={}", result.inserted(), result.updated(), result.rejected());
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping
     public ResponseEntity<Product> update(@RequestBody Product product) {
         Product updated = productService.update(product);
@@ -73,8 +169,15 @@ public class ProductController {
     }
 
     @PostMapping("/deduct")
-    public ResponseEntity<Product> deductStock(@RequestParam String skuCode, @RequestParam int qty) {
-        Product updated = productService.deductStock(skuCode, qty);
+    public ResponseEntity<Product> deductStock(@RequestParam String skuCode, @RequestParam int qty,
+                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new IllegalStateException("Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        // Hot SKUs are served from this node's in-memory lease without a row update
+        Product updated = hotStockService.isHot(skuCode)
+                ? hotStockService.deductStock(skuCode, qty, idempotencyKey)
+                : productService.deductStock(skuCode, qty, idempotencyKey);
         log.info("Stock deducted for SKU [{}], remaining quantity: {}", skuCode, updated.getQuantity());
         return ResponseEntity.ok(updated);
     }
@@ -93,5 +196,11 @@ public class ProductController {
         boolean available = productService.isInStock(sku, qty);
         return ResponseEntity.ok(available);
     }
-    
+
+    @PostMapping("/check-batch")
+    public ResponseEntity<List<StockCheckResponse>> checkStockBatch(@RequestBody List<StockCheckRequest> items) {
+        List<StockCheckResponse> result = productService.checkStockBatch(items);
+        return ResponseEntity.ok(result);
+    }
+
 }
@@ -0,0 +1,54 @@
+package ai.presight.inventoryservice.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import ai.presight.common.dto.ReservationRequest;
+import ai.presight.common.dto.ReservationResponse;
+import ai.presight.inventoryservice.service.ReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * REST controller for stock reservations.
+ * Holds stock in one call and confirms or releases it later.
+ */
+@RestController
+@RequestMapping("/api/v1/inventory/reservations")
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    @PostMapping
+    public ResponseEntity<ReservationResponse> reserve(@RequestBody ReservationRequest request) {
+        ReservationResponse response = reservationService.reserve(request);
+        log.info("Reservation {} → {}", response.reservationId(), response.status());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{reservationId}")
+    public ResponseEntity<ReservationResponse> get(@PathVariable String reservationId) {
+        return ResponseEntity.ok(reservationService.find(reservationId));
+    }
+
+    @PostMapping("/{reservationId}/confirm")
+    public ResponseEntity<ReservationResponse> confirm(@PathVariable String reservationId) {
+        ReservationResponse response = reservationService.confirm(reservationId);
+        log.info("Reservation {} confirmed", reservationId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{reservationId}/release")
+    public ResponseEntity<ReservationResponse> release(@PathVariable String reservationId) {
+        ReservationResponse response = reservationService.release(reservationId);
+        log.info("Reservation {} released", reservationId);
+        return ResponseEntity.ok(response);
+    }
+}
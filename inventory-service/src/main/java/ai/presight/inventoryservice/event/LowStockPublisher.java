@@ -10,27 +10,37 @@ package ai.presight.inventoryservice.event;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import ai.presight.common.event.LowStockEvent;
+import ai.presight.common.event.LowStockSummaryEvent;
 
+/**
+ * Records low-stock alerts in the outbox as part of the caller's stock-change
+ * transaction; {@link OutboxRelay} ships them to Kafka after commit.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class LowStockPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    public static final String LOW_STOCK_TOPIC = "low-stock-topic";
+    public static final String LOW_STOCK_SUMMARY_TOPIC = "low-stock-summary-topic";
+
+    private final OutboxWriter outboxWriter;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishLowStock(String sku, int remainingQty) {
-        LowStockEvent event = new LowStockEvent(sku, remainingQty);
-        kafkaTemplate.send("low-stock-topic", event).whenComplete((result, ex) -> {
-            if (ex == null) {
-                log.info(" LowStockEvent sent successfully: {}", event);
-            } else {
-                log.error(" Failed to send LowStockEvent: {}", event, ex);
-            }
-        });
-        log.warn(" LowStockEvent published for SKU={} (remaining={})", sku, remainingQty);
+        outboxWriter.enqueue(LOW_STOCK_TOPIC, sku, new LowStockEvent(sku, remainingQty));
+        log.warn(" LowStockEvent queued for SKU={} (remaining={})", sku, remainingQty);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishSummary(LowStockSummaryEvent summary) {
+        outboxWriter.enqueue(LOW_STOCK_SUMMARY_TOPIC, null, summary);
+        log.warn(" LowStockSummaryEvent queued for {} SKUs ({} alerts coalesced)",
+                summary.getSkus().size(), summary.getSuppressedAlerts());
     }
 }
@@ -0,0 +1,32 @@
+package ai.presight.inventoryservice.event;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import ai.presight.common.event.LowStockSummaryEvent;
+import ai.presight.inventoryservice.service.LowStockAlertTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically turns the alerts suppressed by {@link LowStockAlertTracker} into one
+ * coalesced summary event, queued through the outbox.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LowStockSummaryJob {
+
+    private final LowStockAlertTracker alertTracker;
+    private final LowStockPublisher lowStockPublisher;
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${inventory.low-stock.summary-interval-ms:60000}")
+    public void emitSummary() {
+        LowStockSummaryEvent summary = alertTracker.drainSummary();
+        if (summary != null) {
+            lowStockPublisher.publishSummary(summary);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ai.presight.inventoryservice.event;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import ai.presight.common.event.LowStockEvent;
+import ai.presight.common.event.LowStockSummaryEvent;
+import ai.presight.common.event.StockDeductionResult;
+import ai.presight.inventoryservice.model.OutboxDeadLetter;
+import ai.presight.inventoryservice.model.OutboxEvent;
+import ai.presight.inventoryservice.repository.OutboxDeadLetterRepository;
+import ai.presight.inventoryservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the outbox to Kafka in batches.
+ * - Only the instance holding the relay advisory lock sends, in outbox id order
+ * - Records are keyed by SKU, so alerts for one product stay ordered on one partition
+ * - A batch is deleted only after every record in it is acknowledged; on a send or ack
+ *   failure the transaction rolls back and the batch is retried (at-least-once delivery)
+ * - An event that can never become a record (unknown type, unreadable payload, rejected
+ *   by the serializer) is moved to outbox_dead_letters in the same transaction instead
+ *   of blocking every event behind it
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private static final long RELAY_LOCK_ID = 0x0B0C_0001L;
+
+    private static final Map<String, Class<?>> EVENT_TYPES = Map.of(
+            LowStockEvent.class.getSimpleName(), LowStockEvent.class,
+            LowStockSummaryEvent.class.getSimpleName(), LowStockSummaryEvent.class,
+            StockDeductionResult.class.getSimpleName(), StockDeductionResult.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeadLetterRepository deadLetterRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    /**
+     * Send and remove one batch of outbox events.
+     *
+     * @param batchSize maximum number of events to relay
+     * @return number of events relayed (0 when another instance holds the relay lock)
+     */
+    @Transactional
+    public int relayBatch(int batchSize) {
+        if (!outboxEventRepository.tryRelayLock(RELAY_LOCK_ID)) {
+            return 0;
+        }
+
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> acks = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                acks.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), toMessage(event)));
+            } catch (PoisonEventException | SerializationException e) {
+                deadLetter(event, e);
+            }
+        }
+        kafkaTemplate.flush();
+        awaitAcks(acks);
+
+        outboxEventRepository.deleteAllInBatch(batch);
+        log.debug("Relayed {} outbox events (last id={})", batch.size(), batch.get(batch.size() - 1).getId());
+        return batch.size();
+    }
+
+    private Object toMessage(OutboxEvent event) {
+        Class<?> type = EVENT_TYPES.get(event.getEventType());
+        if (type == null) {
+            throw new PoisonEventException("Unknown outbox event type: " + event.getEventType(), null);
+        }
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (IOException e) {
+            throw new PoisonEventException("Unreadable outbox payload: " + e.getMessage(), e);
+        }
+    }
+
+    private void deadLetter(OutboxEvent event, RuntimeException e) {
+        log.error("Moving outbox event id={} type={} to dead letters: {}", event.getId(), event.getEventType(),
+                e.getMessage());
+        deadLetterRepository.save(OutboxDeadLetter.of(event, e.toString()));
+    }
+
+    /** An outbox row that will fail the same way on every retry. */
+    private static final class PoisonEventException extends RuntimeException {
+        PoisonEventException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private void awaitAcks(List<CompletableFuture<?>> acks) {
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Kafka acks", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Outbox batch was not acknowledged; will retry", e);
+        }
+    }
+}
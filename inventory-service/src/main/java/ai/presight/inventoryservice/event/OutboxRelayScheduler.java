@@ -0,0 +1,35 @@
+package ai.presight.inventoryservice.event;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Polls the outbox and relays it batch by batch until it is drained.
+ * Each batch runs in its own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayScheduler {
+
+    private final OutboxRelay outboxRelay;
+
+    @Value("${inventory.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${inventory.outbox.relay-interval-ms:1000}")
+    public void drainOutbox() {
+        try {
+            int relayed;
+            do {
+                relayed = outboxRelay.relayBatch(batchSize);
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed, retrying on next poll: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ai.presight.inventoryservice.event;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import ai.presight.inventoryservice.model.OutboxEvent;
+import ai.presight.inventoryservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Appends events to the outbox inside the caller's transaction.
+ * Event types must be known to {@link OutboxRelay}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param key Kafka record key (SKU), or null for unkeyed events
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, Object event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .eventType(event.getClass().getSimpleName())
+                .payload(toJson(event))
+                .build());
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize event: " + event, e);
+        }
+    }
+}
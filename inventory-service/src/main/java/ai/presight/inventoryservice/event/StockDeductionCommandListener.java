@@ -0,0 +1,40 @@
+package ai.presight.inventoryservice.event;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import ai.presight.inventoryservice.service.StockDeductionBatchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single writer per stock-deduction-commands partition. Producers key commands by
+ * SKU, so all deductions of a SKU arrive in order on one consumer thread.
+ */
+@Component
+@Slf4j
+public class StockDeductionCommandListener {
+
+    public static final String COMMANDS_TOPIC = "stock-deduction-commands";
+
+    private final StockDeductionBatchService batchService;
+    private final Timer batchTimer;
+
+    public StockDeductionCommandListener(StockDeductionBatchService batchService, MeterRegistry meterRegistry) {
+        this.batchService = batchService;
+        this.batchTimer = Timer.builder("inventory.deduction.batch.processing")
+                .description("Time to apply one batch of stock deduction commands")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(id = "stock-deduction-writer", topics = COMMANDS_TOPIC, groupId = "stock-deduction-writer")
+    public void onCommands(List<ConsumerRecord<String, Object>> records, Acknowledgment ack) {
+        batchTimer.record(() -> batchService.applyBatch(records));
+        ack.acknowledge();
+    }
+}
@@ -0,0 +1,9 @@
+package ai.presight.inventoryservice.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk catalog upsert. {@code errors} holds the first rejection reasons
+ * (capped), each prefixed with its input line number.
+ */
+public record BulkUpsertResult(long inserted, long updated, long rejected, List<String> errors) {}
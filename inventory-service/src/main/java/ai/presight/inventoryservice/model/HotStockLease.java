@@ -0,0 +1,37 @@
+package ai.presight.inventoryservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock of a hot SKU held by one inventory node for in-memory deductions.
+ * {@code held} is part of the product's reserved_quantity; it shrinks as the node flushes
+ * its sales and is given back when the node stops or its heartbeat expires.
+ * Maps directly to the 'hot_stock_leases' table in the database.
+ */
+@Entity
+@Table(name = "hot_stock_leases")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotStockLease {
+
+    @Id
+    @Column(name = "lease_id", length = 120)
+    private String leaseId;
+
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId;
+
+    @Column(name = "sku_code", nullable = false, length = 50)
+    private String skuCode;
+
+    @Column(nullable = false)
+    private Integer held;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
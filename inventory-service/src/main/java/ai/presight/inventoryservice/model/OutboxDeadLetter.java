@@ -0,0 +1,64 @@
+package ai.presight.inventoryservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event the relay could not turn into a Kafka record (unknown type, unreadable
+ * payload or a payload the serializer rejects). Moved out of 'outbox_events' so it no
+ * longer blocks the events behind it; kept for inspection and manual replay.
+ * Maps directly to the 'outbox_dead_letters' table in the database.
+ */
+@Entity
+@Table(name = "outbox_dead_letters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Id the event had in outbox_events. */
+    @Column(name = "outbox_id", nullable = false)
+    private Long outboxId;
+
+    @Column(nullable = false, length = 100)
+    private String topic;
+
+    @Column(name = "message_key", length = 100)
+    private String messageKey;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+
+    public static OutboxDeadLetter of(OutboxEvent event, String error) {
+        return OutboxDeadLetter.builder()
+                .outboxId(event.getId())
+                .topic(event.getTopic())
+                .messageKey(event.getMessageKey())
+                .eventType(event.getEventType())
+                .payload(event.getPayload())
+                .error(error)
+                .createdAt(event.getCreatedAt())
+                .failedAt(LocalDateTime.now())
+                .build();
+    }
+}
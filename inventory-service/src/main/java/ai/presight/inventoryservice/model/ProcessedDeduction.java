@@ -0,0 +1,33 @@
+package ai.presight.inventoryservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key of a stock deduction that has already been applied.
+ * Inserted in the same transaction as the deduction itself.
+ * Maps directly to the 'processed_deductions' table in the database.
+ */
+@Entity
+@Table(name = "processed_deductions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedDeduction {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "sku_code", nullable = false, length = 50)
+    private String skuCode;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
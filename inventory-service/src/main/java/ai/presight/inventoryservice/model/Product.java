@@ -1,7 +1,10 @@
 package ai.presight.inventoryservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -34,16 +37,64 @@ public class Product {
     @Column(nullable = false)
     private Integer quantity;
 
+    /** Stock held by open reservations; not yet deducted from quantity. */
+    @Builder.Default
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "reserved_quantity", nullable = false)
+    private Integer reservedQuantity = 0;
+
     @Column(length = 20)
     private String status = "ACTIVE";
 
+    /** Number of product_stock_shards rows holding this SKU's available stock; 0 when not sharded. */
+    @Builder.Default
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "stock_shards", nullable = false)
+    private Integer stockShards = 0;
+
+    /** Id of the last stock_movements row folded into quantity (ledger mode). */
+    @Builder.Default
+    @ColumnDefault("0")
+    @JsonIgnore
+    @Column(name = "ledger_position", nullable = false)
+    private Long ledgerPosition = 0L;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
 
-    
+    /**
+     * Available-to-promise: on-hand quantity minus open holds.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public int getAvailableQuantity() {
+        return Math.max(quantity - reservedQuantity, 0);
+    }
+
+    /**
+     * Detached copy with a different on-hand quantity, for answers computed outside the
+     * row (ledger tail, stock shards). Never save the copy.
+     */
+    public Product withQuantity(int quantity) {
+        return Product.builder()
+                .id(id)
+                .skuCode(skuCode)
+                .name(name)
+                .price(price)
+                .quantity(quantity)
+                .reservedQuantity(reservedQuantity)
+                .status(status)
+                .stockShards(stockShards)
+                .ledgerPosition(ledgerPosition)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
     @PreUpdate
     public void onUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,9 @@
+package ai.presight.inventoryservice.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of the product listing.
+ * Pass nextCursor as afterId to fetch the following page; it is null on the last page.
+ */
+public record ProductPage(List<Product> items, Long nextCursor) {}
@@ -0,0 +1,40 @@
+package ai.presight.inventoryservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * One slice of a sharded SKU's available stock. Deductions spread over the shards so
+ * concurrent orders for the same SKU update different rows.
+ * Maps directly to the 'product_stock_shards' table in the database.
+ */
+@Entity
+@Table(name = "product_stock_shards")
+@IdClass(ProductStockShard.ShardKey.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockShard {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "shard_no")
+    private Integer shardNo;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ShardKey implements Serializable {
+        private Long productId;
+        private Integer shardNo;
+    }
+}
@@ -0,0 +1,25 @@
+package ai.presight.inventoryservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Last stock-deduction-commands offset applied per partition. Written in the same
+ * transaction as the deductions, so redelivered records are recognised and skipped.
+ * Maps directly to the 'stock_deduction_offsets' table in the database.
+ */
+@Entity
+@Table(name = "stock_deduction_offsets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDeductionOffset {
+
+    @Id
+    @Column(name = "partition_id")
+    private Integer partitionId;
+
+    @Column(name = "last_offset", nullable = false)
+    private Long lastOffset;
+}
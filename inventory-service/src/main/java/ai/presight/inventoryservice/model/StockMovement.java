@@ -0,0 +1,50 @@
+package ai.presight.inventoryservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One append-only change of a product's on-hand quantity (ledger mode).
+ * Rows are never updated; the product's quantity is a snapshot of all movements up to
+ * its ledger_position, and later rows are the unapplied tail.
+ * Maps directly to the 'stock_movements' table in the database.
+ */
+@Entity
+@Table(name = "stock_movements")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+
+    public static final String DEDUCTION = "DEDUCTION";
+    public static final String RESTOCK = "RESTOCK";
+    public static final String ADJUSTMENT = "ADJUSTMENT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "sku_code", nullable = false, length = 50)
+    private String skuCode;
+
+    /** Signed change of on-hand quantity. */
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private String movementType;
+
+    /** Caller reference (order number, Idempotency-Key, supplier delivery), if any. */
+    @Column(length = 100)
+    private String reference;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
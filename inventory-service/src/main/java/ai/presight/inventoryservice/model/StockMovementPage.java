@@ -0,0 +1,9 @@
+package ai.presight.inventoryservice.model;
+
+import java.util.List;
+
+/**
+ * One page of a SKU's movement history, newest first.
+ * Pass nextCursor as beforeId to fetch older movements; it is null on the last page.
+ */
+public record StockMovementPage(List<StockMovement> items, Long nextCursor) {}
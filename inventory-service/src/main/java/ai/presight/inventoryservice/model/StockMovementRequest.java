@@ -0,0 +1,6 @@
+package ai.presight.inventoryservice.model;
+
+/**
+ * Manual stock movement: RESTOCK adds {@code quantity}, ADJUSTMENT applies it signed.
+ */
+public record StockMovementRequest(String type, Integer quantity, String reference) {}
@@ -0,0 +1,57 @@
+package ai.presight.inventoryservice.repository;
+
+import ai.presight.inventoryservice.model.HotStockLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface HotStockLeaseRepository extends JpaRepository<HotStockLease, String> {
+
+    /**
+     * Adds stock to a node's lease, creating it on first use.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO hot_stock_leases (lease_id, node_id, sku_code, held, heartbeat_at) "
+            + "VALUES (:leaseId, :nodeId, :skuCode, :qty, NOW()) "
+            + "ON CONFLICT (lease_id) DO UPDATE SET held = hot_stock_leases.held + EXCLUDED.held, heartbeat_at = NOW()",
+            nativeQuery = true)
+    int addHeld(@Param("leaseId") String leaseId, @Param("nodeId") String nodeId,
+                @Param("skuCode") String skuCode, @Param("qty") int qty);
+
+    /**
+     * Takes sold or returned units off a lease.
+     *
+     * @return 0 if the lease is gone (released by another node) or holds less than qty
+     */
+    @Modifying
+    @Query(value = "UPDATE hot_stock_leases SET held = held - :qty, heartbeat_at = NOW() "
+            + "WHERE lease_id = :leaseId AND held >= :qty", nativeQuery = true)
+    int removeHeld(@Param("leaseId") String leaseId, @Param("qty") int qty);
+
+    @Modifying
+    @Query(value = "UPDATE hot_stock_leases SET heartbeat_at = NOW() WHERE node_id = :nodeId", nativeQuery = true)
+    int heartbeat(@Param("nodeId") String nodeId);
+
+    /**
+     * Renews a single lease.
+     *
+     * @return 0 if the lease is gone
+     */
+    @Modifying
+    @Query(value = "UPDATE hot_stock_leases SET heartbeat_at = NOW() WHERE lease_id = :leaseId", nativeQuery = true)
+    int renew(@Param("leaseId") String leaseId);
+
+    @Query(value = "SELECT * FROM hot_stock_leases WHERE node_id = :nodeId FOR UPDATE", nativeQuery = true)
+    List<HotStockLease> findByNodeForUpdate(@Param("nodeId") String nodeId);
+
+    /**
+     * Leases of nodes that stopped heartbeating; SKIP LOCKED lets several nodes sweep at once.
+     */
+    @Query(value = "SELECT * FROM hot_stock_leases WHERE heartbeat_at < :cutoff FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<HotStockLease> findExpiredForUpdate(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,7 @@
+package ai.presight.inventoryservice.repository;
+
+import ai.presight.inventoryservice.model.OutboxDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+}
@@ -0,0 +1,21 @@
+package ai.presight.inventoryservice.repository;
+
+import ai.presight.inventoryservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Transaction-scoped advisory lock that makes one inventory instance the relay
+     * at a time, so events leave the outbox strictly in id order.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockId)", nativeQuery = true)
+    boolean tryRelayLock(@Param("lockId") long lockId);
+
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT :batchSize", nativeQuery = true)
+    List<OutboxEvent> findNextBatch(@Param("batchSize") int batchSize);
+}
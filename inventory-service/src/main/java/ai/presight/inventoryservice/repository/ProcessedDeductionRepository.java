@@ -0,0 +1,29 @@
+package ai.presight.inventoryservice.repository;
+
+import ai.presight.inventoryservice.model.ProcessedDeduction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedDeductionRepository extends JpaRepository<ProcessedDeduction, String> {
+
+    /**
+     * Claims an idempotency key. A concurrent duplicate blocks on the unique key until the
+     * first transaction finishes, then sees 0 (committed) or claims it (rolled back).
+     *
+     * @return 1 if claimed, 0 if the key was already used
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processed_deductions (idempotency_key, sku_code, quantity, created_at) "
+            + "VALUES (:key, :skuCode, :qty, NOW()) ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("skuCode") String skuCode, @Param("qty") int qty);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ProcessedDeduction p where p.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,9 +1,129 @@
 package ai.presight.inventoryservice.repository;
 
 import ai.presight.inventoryservice.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findBySkuCodeIgnoreCase(String skuCode);
+
+    /**
+     * Keyset page over the primary key: seeks straight to afterId instead of skipping rows.
+     */
+    @Query("select p from Product p where p.id > :afterId order by p.id")
+    List<Product> findPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Keyset page filtered by status, served by the (status, id) index.
+     */
+    @Query("select p from Product p where p.status = :status and p.id > :afterId order by p.id")
+    List<Product> findPageByStatusAfter(@Param("status") String status, @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Streams the whole catalog off a JDBC cursor. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
+
+    /**
+     * Loads all products for the given lower-cased SKU codes in a single IN-list query.
+     */
+    @Query("select p from Product p where lower(p.skuCode) in :skuCodes")
+    List<Product> findAllBySkuCodeInLowerCase(@Param("skuCodes") Collection<String> skuCodes);
+
+    /**
+     * Row-locks a product and reads its available-to-promise quantity without loading
+     * the entity, so a following native UPDATE ... RETURNING yields fresh state.
+     */
+    @Query(value = "SELECT quantity - reserved_quantity FROM products WHERE lower(sku_code) = lower(:skuCode) "
+            + "FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockAvailableQuantity(@Param("skuCode") String skuCode);
+
+    /**
+     * Guarded single-statement decrement. The row is only updated when enough unreserved
+     * stock is left, so concurrent deductions can never oversell or eat into open holds.
+     *
+     * @return the updated product, or empty if the SKU is unknown or has insufficient stock
+     */
+    @Query(value = "UPDATE products SET quantity = quantity - :qty, updated_at = NOW() "
+            + "WHERE lower(sku_code) = lower(:skuCode) AND quantity - reserved_quantity >= :qty "
+            + "RETURNING *", nativeQuery = true)
+    Optional<Product> deductIfAvailable(@Param("skuCode") String skuCode, @Param("qty") int qty);
+
+    /**
+     * Places a hold if enough available-to-promise stock is left.
+     *
+     * @return 1 if the hold was placed, 0 if the SKU is unknown or has insufficient stock
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET reserved_quantity = reserved_quantity + :qty "
+            + "WHERE lower(sku_code) = lower(:skuCode) AND quantity - reserved_quantity >= :qty",
+            nativeQuery = true)
+    int reserveIfAvailable(@Param("skuCode") String skuCode, @Param("qty") int qty);
+
+    /**
+     * Turns a hold into a real deduction.
+     *
+     * @return the updated product, or empty if the SKU no longer holds that much stock
+     */
+    @Query(value = "UPDATE products SET quantity = quantity - :qty, reserved_quantity = reserved_quantity - :qty, "
+            + "updated_at = NOW() WHERE lower(sku_code) = lower(:skuCode) AND reserved_quantity >= :qty "
+            + "AND quantity >= :qty RETURNING *", nativeQuery = true)
+    Optional<Product> confirmReserved(@Param("skuCode") String skuCode, @Param("qty") int qty);
+
+    /**
+     * Gives held stock back to available-to-promise.
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET reserved_quantity = GREATEST(reserved_quantity - :qty, 0) "
+            + "WHERE lower(sku_code) = lower(:skuCode)", nativeQuery = true)
+    int releaseReserved(@Param("skuCode") String skuCode, @Param("qty") int qty);
+
+    /**
+     * Folds the unapplied stock_movements tail into quantity and advances ledger_position.
+     * Callers hold the SKU's ledger lock, so no movement of that SKU is still in flight.
+     *
+     * @return the compacted product, or empty if there was no tail
+     */
+    @Query(value = "WITH tail AS (SELECT SUM(m.delta) AS delta, MAX(m.id) AS last_id FROM stock_movements m "
+            + "JOIN products p ON p.id = m.product_id WHERE lower(p.sku_code) = lower(:skuCode) AND m.id > p.ledger_position) "
+            + "UPDATE products p SET quantity = p.quantity + tail.delta, ledger_position = tail.last_id, updated_at = NOW() "
+            + "FROM tail WHERE lower(p.sku_code) = lower(:skuCode) AND tail.last_id IS NOT NULL RETURNING p.*",
+            nativeQuery = true)
+    Optional<Product> applyLedgerTail(@Param("skuCode") String skuCode);
+
+    /**
+     * Marks movements up to {@code position} as folded, for a movement whose change was
+     * already applied in place. Callers hold the SKU's ledger lock.
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET ledger_position = :position WHERE id = :productId AND ledger_position < :position",
+            nativeQuery = true)
+    int advanceLedgerPosition(@Param("productId") long productId, @Param("position") long position);
+
+    /**
+     * Moves stock between the products row and its stock shards; the caller has locked the row.
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET quantity = quantity + :qty, updated_at = NOW() "
+            + "WHERE lower(sku_code) = lower(:skuCode)", nativeQuery = true)
+    int addQuantity(@Param("skuCode") String skuCode, @Param("qty") int qty);
+
+    @Query("select p.skuCode from Product p where p.stockShards > 0")
+    List<String> findShardedSkus();
 }
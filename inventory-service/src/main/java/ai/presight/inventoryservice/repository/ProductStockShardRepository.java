@@ -0,0 +1,51 @@
+package ai.presight.inventoryservice.repository;
+
+import ai.presight.inventoryservice.model.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, ProductStockShard.ShardKey> {
+
+    /**
+     * Guarded decrement of one random shard of the SKU that holds enough; shards locked by
+     * other deductions are skipped instead of waited for. Reads the shard layout in the
+     * statement itself, so a cached shard count cannot send it to the wrong rows.
+     *
+     * @return estimated on-hand quantity after the deduction (products row plus the taken
+     *         shard's remainder times the shard count), or empty if no single shard could
+     *         serve it
+     */
+    @Query(value = "WITH pick AS (SELECT s.product_id, s.shard_no, p.quantity AS main_quantity, p.stock_shards "
+            + "FROM product_stock_shards s JOIN products p ON p.id = s.product_id "
+            + "WHERE lower(p.sku_code) = lower(:skuCode) AND s.quantity >= :qty "
+            + "ORDER BY random() LIMIT 1 FOR UPDATE OF s SKIP LOCKED) "
+            + "UPDATE product_stock_shards s SET quantity = s.quantity - :qty FROM pick "
+            + "WHERE s.product_id = pick.product_id AND s.shard_no = pick.shard_no "
+            + "RETURNING pick.main_quantity + s.quantity * pick.stock_shards", nativeQuery = true)
+    Optional<Integer> takeFromAnyShard(@Param("skuCode") String skuCode, @Param("qty") int qty);
+
+    /**
+     * Locks all shards of a product in shard order (a fixed order, so concurrent callers
+     * cannot deadlock on them).
+     */
+    @Query(value = "SELECT * FROM product_stock_shards WHERE product_id = :productId ORDER BY shard_no FOR UPDATE",
+            nativeQuery = true)
+    List<ProductStockShard> lockShards(@Param("productId") long productId);
+
+    @Query(value = "SELECT s.* FROM product_stock_shards s JOIN products p ON p.id = s.product_id "
+            + "WHERE lower(p.sku_code) = lower(:skuCode) ORDER BY s.shard_no FOR UPDATE OF s", nativeQuery = true)
+    List<ProductStockShard> lockShardsBySku(@Param("skuCode") String skuCode);
+
+    @Query(value = "SELECT COALESCE(SUM(quantity), 0) FROM product_stock_shards WHERE product_id = :productId",
+            nativeQuery = true)
+    long sumQuantity(@Param("productId") long productId);
+
+    @Modifying
+    @Query("delete from ProductStockShard s where s.productId = :productId")
+    int deleteByProductId(@Param("productId") long productId);
+}
@@ -0,0 +1,34 @@
+package ai.presight.inventoryservice.repository;
+
+import ai.presight.inventoryservice.model.StockDeductionOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StockDeductionOffsetRepository extends JpaRepository<StockDeductionOffset, Integer> {
+
+    /**
+     * Locks the progress rows of the given partitions; a consumer that lost its
+     * partitions in a rebalance blocks here instead of applying a batch twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from StockDeductionOffset o where o.partitionId in :partitions")
+    List<StockDeductionOffset> findForUpdate(@Param("partitions") Collection<Integer> partitions);
+
+    /**
+     * Creates the progress row of a partition if it has none yet; a concurrent seeder
+     * waits for the first one to commit, so the row is always there to lock afterwards.
+     */
+    @Modifying
+    @Query(value = """
+            insert into stock_deduction_offsets (partition_id, last_offset) values (:partition, -1)
+            on conflict (partition_id) do nothing
+            """, nativeQuery = true)
+    int seed(@Param("partition") int partition);
+}
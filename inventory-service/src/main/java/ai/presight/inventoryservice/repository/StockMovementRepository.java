@@ -0,0 +1,49 @@
+package ai.presight.inventoryservice.repository;
+
+import ai.presight.inventoryservice.model.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    /**
+     * Excludes appends of one SKU until the transaction ends, without touching the products
+     * row; taken by compaction and in-place writers. Class id 8023 keeps these keys apart
+     * from other advisory locks.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(8023, hashtext(lower(:skuCode)))", nativeQuery = true)
+    int lockSku(@Param("skuCode") String skuCode);
+
+    /**
+     * Shared side of {@link #lockSku}: appends of a SKU run concurrently, but compaction waits
+     * for the ones in flight, so it never advances ledger_position past an uncommitted id.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(8023, hashtext(lower(:skuCode)))", nativeQuery = true)
+    int lockSkuShared(@Param("skuCode") String skuCode);
+
+    /**
+     * On-hand quantity once the unapplied tail is folded; empty if the SKU does not exist.
+     */
+    @Query(value = "SELECT p.quantity + COALESCE(SUM(m.delta), 0) FROM products p "
+            + "LEFT JOIN stock_movements m ON m.product_id = p.id AND m.id > p.ledger_position "
+            + "WHERE lower(p.sku_code) = lower(:skuCode) GROUP BY p.id, p.quantity", nativeQuery = true)
+    Optional<Long> projectedQuantity(@Param("skuCode") String skuCode);
+
+    /**
+     * Keyset page of a product's movements, newest first.
+     */
+    @Query("select m from StockMovement m where m.productId = :productId and m.id < :beforeId order by m.id desc")
+    List<StockMovement> findHistory(@Param("productId") long productId, @Param("beforeId") long beforeId, Limit limit);
+
+    /**
+     * Products with an unapplied tail; used by the full compaction sweep.
+     */
+    @Query(value = "SELECT DISTINCT p.sku_code FROM products p JOIN stock_movements m ON m.product_id = p.id "
+            + "AND m.id > p.ledger_position", nativeQuery = true)
+    List<String> findSkusWithTail();
+}
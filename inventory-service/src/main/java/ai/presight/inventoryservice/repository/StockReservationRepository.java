@@ -0,0 +1,31 @@
+package ai.presight.inventoryservice.repository;
+
+import ai.presight.inventoryservice.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByReservationId(String reservationId);
+
+    /**
+     * Loads and row-locks every line of a reservation so confirm, release and the
+     * expiry sweeper never act on the same hold concurrently.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StockReservation r where r.reservationId = :reservationId order by r.skuCode")
+    List<StockReservation> findByReservationIdForUpdate(@Param("reservationId") String reservationId);
+
+    /**
+     * Claims a batch of expired holds. SKIP LOCKED lets several inventory instances
+     * sweep in parallel without blocking on holds that are being confirmed.
+     */
+    @Query(value = "SELECT * FROM stock_reservations WHERE status = 'HELD' AND expires_at < NOW() "
+            + "ORDER BY expires_at LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StockReservation> findExpiredForUpdate(@Param("batchSize") int batchSize);
+}
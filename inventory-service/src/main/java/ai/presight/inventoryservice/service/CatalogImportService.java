@@ -0,0 +1,340 @@
+package ai.presight.inventoryservice.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ai.presight.inventoryservice.cache.ProductCache;
+import ai.presight.inventoryservice.model.BulkUpsertResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk catalog upsert for supplier feeds.
+ * - Rows are validated while the upload is read and streamed into a temporary staging
+ *   table with COPY, so nothing is buffered beyond the COPY buffer
+ * - One INSERT ... ON CONFLICT merges the staging table into products; xmax = 0 in
+ *   RETURNING tells inserted rows from updated ones
+ * - A SKU repeated in the upload is applied once (last row wins), the earlier rows are rejected
+ * - A row whose quantity is below the stock already reserved for the SKU is rejected, as
+ *   on-hand stock may never drop below open holds
+ * - Updated SKUs are evicted from the near cache after commit (the whole cache when
+ *   the upsert touched more than inventory.bulk.evict-all-threshold products)
+ *
+ * Runs in one transaction: the catalog is either fully merged or not at all.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogImportService {
+
+    private static final int MAX_ERRORS = 100;
+    private static final int COPY_BUFFER_BYTES = 1 << 16;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE product_staging (
+                line BIGINT NOT NULL,
+                sku_code VARCHAR(50) NOT NULL,
+                name VARCHAR(150) NOT NULL,
+                price NUMERIC(10,2) NOT NULL,
+                quantity INT NOT NULL,
+                status VARCHAR(20) NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING =
+            "COPY product_staging (line, sku_code, name, price, quantity, status) FROM STDIN (FORMAT text)";
+
+    private static final String COUNT_DUPLICATES =
+            "SELECT count(*) - count(DISTINCT lower(sku_code)) FROM product_staging";
+
+    // Row locks up front (in id order), so holds cannot grow between the reserved check and the merge
+    private static final String LOCK_EXISTING = """
+            SELECT count(*) FROM (
+                SELECT p.id FROM products p
+                WHERE lower(p.sku_code) IN (SELECT lower(sku_code) FROM product_staging)
+                ORDER BY p.id
+                FOR UPDATE) locked
+            """;
+
+    // Drops every row of a SKU whose winning row would leave quantity below reserved_quantity
+    private static final String DROP_BELOW_RESERVED = """
+            DELETE FROM product_staging s
+            USING (SELECT DISTINCT ON (lower(st.sku_code)) lower(st.sku_code) AS sku, st.line, st.quantity,
+                          p.reserved_quantity AS reserved
+                   FROM product_staging st
+                   JOIN products p ON lower(p.sku_code) = lower(st.sku_code)
+                   ORDER BY lower(st.sku_code), st.line DESC) w
+            WHERE lower(s.sku_code) = w.sku AND w.quantity < w.reserved
+            RETURNING s.line = w.line AS winner, s.line, s.sku_code, s.quantity, w.reserved
+            """;
+
+    // Keyed on the lower(sku_code) unique index so a case variant updates the existing row
+    private static final String MERGE = """
+            INSERT INTO products (sku_code, name, price, quantity, reserved_quantity, status, created_at, updated_at)
+            SELECT DISTINCT ON (lower(sku_code)) sku_code, name, price, quantity, 0, status, now(), now()
+            FROM product_staging
+            ORDER BY lower(sku_code), line DESC
+            ON CONFLICT ((lower(sku_code))) DO UPDATE
+               SET name = EXCLUDED.name,
+                   price = EXCLUDED.price,
+                   quantity = EXCLUDED.quantity,
+                   status = EXCLUDED.status,
+                   updated_at = now(),
+                   -- the feed's quantity supersedes any unapplied ledger tail
+                   ledger_position = GREATEST(products.ledger_position,
+                           (SELECT COALESCE(MAX(m.id), 0) FROM stock_movements m WHERE m.product_id = products.id))
+            RETURNING (xmax = 0) AS inserted, sku_code
+            """;
+
+    // The feed's quantity is the whole on-hand stock: empty any stock shards of the SKUs it set
+    private static final String CLEAR_SHARDS = """
+            UPDATE product_stock_shards s SET quantity = 0
+            FROM products p
+            WHERE s.product_id = p.id AND s.quantity <> 0
+              AND lower(p.sku_code) IN (SELECT lower(sku_code) FROM product_staging)
+            """;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final ProductCache productCache;
+
+    @Value("${inventory.bulk.evict-all-threshold:10000}")
+    private int evictAllThreshold;
+
+    /** One catalog row as sent in NDJSON. */
+    private record CatalogRow(String skuCode, String name, BigDecimal price, Integer quantity, String status) {}
+
+    @Transactional
+    public BulkUpsertResult upsert(BufferedReader body, boolean csv) throws IOException {
+        long start = System.currentTimeMillis();
+        // The JPA transaction's connection, so the temp table and the merge share the transaction
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            execute(connection, CREATE_STAGING);
+
+            List<String> errors = new ArrayList<>();
+            long rejected = 0;
+            long staged = 0;
+            try (Writer copy = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_STAGING, COPY_BUFFER_BYTES),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                long lineNo = 0;
+                if (csv && body.readLine() != null) {
+                    lineNo++; // header
+                }
+                while ((line = body.readLine()) != null) {
+                    lineNo++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    String error;
+                    try {
+                        CatalogRow row = csv ? parseCsv(line) : objectMapper.readValue(line, CatalogRow.class);
+                        error = validate(row);
+                        if (error == null) {
+                            writeCopyRow(copy, lineNo, row);
+                            staged++;
+                        }
+                    } catch (JsonProcessingException e) {
+                        error = "malformed JSON: " + e.getOriginalMessage();
+                    } catch (IllegalArgumentException e) {
+                        error = e.getMessage();
+                    }
+                    if (error != null) {
+                        rejected++;
+                        if (errors.size() < MAX_ERRORS) {
+                            errors.add("line " + lineNo + ": " + error);
+                        }
+                    }
+                }
+            }
+
+            long duplicates = queryLong(connection, COUNT_DUPLICATES);
+            if (duplicates > 0 && errors.size() < MAX_ERRORS) {
+                errors.add(duplicates + " row(s) superseded by a later row for the same SKU");
+            }
+
+            execute(connection, LOCK_EXISTING);
+            long belowReserved = 0;
+            Map<Long, String> reservedErrors = new TreeMap<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(DROP_BELOW_RESERVED)) {
+                while (rs.next()) {
+                    if (rs.getBoolean(1)) {
+                        belowReserved++;
+                        reservedErrors.put(rs.getLong(2), "line " + rs.getLong(2) + ": quantity " + rs.getInt(4) + " is below the "
+                                + rs.getInt(5) + " reserved for " + rs.getString(3));
+                    }
+                }
+            }
+            reservedErrors.values().stream().limit(Math.max(0, MAX_ERRORS - errors.size())).forEach(errors::add);
+
+            long inserted = 0;
+            long updated = 0;
+            List<String> updatedSkus = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(MERGE)) {
+                while (rs.next()) {
+                    if (rs.getBoolean(1)) {
+                        inserted++;
+                    } else {
+                        updated++;
+                        if (updatedSkus.size() < evictAllThreshold) {
+                            updatedSkus.add(rs.getString(2));
+                        }
+                    }
+                }
+            }
+
+            if (updated > 0) {
+                execute(connection, CLEAR_SHARDS);
+            }
+
+            if (updated > evictAllThreshold) {
+                productCache.evictAllAfterCommit();
+            } else if (updated > 0) {
+                productCache.evictAfterCommit(updatedSkus);
+            }
+
+            log.info("Catalog upsert staged {} rows in {} ms: inserted={}, updated={}, rejected={}",
+                    staged, System.currentTimeMillis() - start, inserted, updated, rejected + duplicates + belowReserved);
+            return new BulkUpsertResult(inserted, updated, rejected + duplicates + belowReserved, errors);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Catalog upsert failed: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * {@code skuCode,name,price,quantity[,status]}; fields may be double-quoted (with "" for a quote).
+     */
+    private static CatalogRow parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 4) {
+            throw new IllegalArgumentException("expected skuCode,name,price,quantity[,status]");
+        }
+        try {
+            return new CatalogRow(fields.get(0), fields.get(1), new BigDecimal(fields.get(2)),
+                    Integer.valueOf(fields.get(3)), fields.size() > 4 ? fields.get(4) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid price or quantity");
+        }
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static String validate(CatalogRow row) {
+        if (row.skuCode() == null || row.skuCode().isBlank() || row.skuCode().length() > 50) {
+            return "skuCode is required (max 50 characters)";
+        }
+        if (row.name() == null || row.name().isBlank() || row.name().length() > 150) {
+            return "name is required (max 150 characters)";
+        }
+        if (row.price() == null || row.price().signum() <= 0 || row.price().precision() - row.price().scale() > 8) {
+            return "price must be positive and below 100000000";
+        }
+        if (row.quantity() == null || row.quantity() < 0) {
+            return "quantity must be zero or more";
+        }
+        if (row.status() != null && row.status().length() > 20) {
+            return "status is too long (max 20 characters)";
+        }
+        return null;
+    }
+
+    private static void writeCopyRow(Writer copy, long lineNo, CatalogRow row) throws IOException {
+        copy.write(Long.toString(lineNo));
+        copy.write('\t');
+        writeCopyText(copy, row.skuCode().trim());
+        copy.write('\t');
+        writeCopyText(copy, row.name());
+        copy.write('\t');
+        copy.write(row.price().toPlainString());
+        copy.write('\t');
+        copy.write(row.quantity().toString());
+        copy.write('\t');
+        writeCopyText(copy, row.status() == null || row.status().isBlank() ? "ACTIVE" : row.status());
+        copy.write('\n');
+    }
+
+    /** Escape for COPY text format. */
+    private static void writeCopyText(Writer copy, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> copy.write("\\\\");
+                case '\t' -> copy.write("\\t");
+                case '\n' -> copy.write("\\n");
+                case '\r' -> copy.write("\\r");
+                default -> copy.write(c);
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
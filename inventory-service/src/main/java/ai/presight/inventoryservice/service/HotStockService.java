@@ -0,0 +1,442 @@
+package ai.presight.inventoryservice.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.inventoryservice.cache.ProductCache;
+import ai.presight.inventoryservice.model.HotStockLease;
+import ai.presight.inventoryservice.model.Product;
+import ai.presight.inventoryservice.model.StockMovement;
+import ai.presight.inventoryservice.repository.HotStockLeaseRepository;
+import ai.presight.inventoryservice.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hot-SKU mode: deductions for designated SKUs are served from in-memory counters
+ * instead of a row update each, so a flash sale no longer serializes on one products row.
+ * - Each node leases a slice of a SKU's stock (held as reserved_quantity, recorded in
+ *   hot_stock_leases); other nodes and the regular paths can never sell it
+ * - Deductions take from the lease with a lock-free compare-and-set that never goes below
+ *   zero; sold units are tallied in a striped LongAdder
+ * - A write-behind flush turns the tally into a real deduction (confirmReserved) every
+ *   flush interval; an exhausted lease is refilled from products in one short transaction
+ * - On shutdown the unsold remainder is given back. Leases of a node that stopped
+ *   heartbeating (crash) are released by the next node to sweep, and a restarted node
+ *   releases its own leftovers first; sales not yet flushed at a crash (at most one flush
+ *   interval) are lost
+ * - A node whose lease row is gone (released by a sweeper after a long pause) notices it
+ *   on flush or heartbeat, drops the in-memory remainder and leases afresh; sales it made
+ *   meanwhile are taken from free stock
+ * - Memory is only sold from while the lease was last renewed less than lease-timeout minus
+ *   a safety margin ago; past that a deduction first renews the lease row in the database
+ *   (or finds it gone), so a node that missed its heartbeats never sells stock another
+ *   node may have released already
+ * - Inside a caller's transaction (Idempotency-Key path) a sale only counts once that
+ *   transaction commits; on rollback the units go back to the lease
+ *
+ * Available stock reported by reads excludes what is leased to nodes, by at most
+ * lease-size per node and SKU.
+ */
+@Slf4j
+@Service
+public class HotStockService {
+
+    private final ProductRepository productRepository;
+    private final HotStockLeaseRepository leaseRepository;
+    private final ProductService productService;
+    private final StockLedgerService stockLedgerService;
+    private final StockShardService stockShardService;
+    private final ProductCache productCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate leaseTransaction;
+    private final Counter inMemoryDeductions;
+    private final Counter leaseRefills;
+
+    private final Map<String, HotCounter> counters = new ConcurrentHashMap<>();
+    /** Counters whose lease was lost; kept until their last sales are flushed. */
+    private final Queue<HotCounter> retired = new ConcurrentLinkedQueue<>();
+    private final Set<String> hotSkus;
+    private final String nodeId;
+    private volatile boolean open = true;
+
+    @Value("${inventory.hot-skus.lease-size:1000}")
+    private int leaseSize;
+
+    @Value("${inventory.hot-skus.lease-timeout-ms:30000}")
+    private long leaseTimeoutMs;
+
+    @Value("${inventory.hot-skus.lease-safety-margin-ms:5000}")
+    private long leaseSafetyMarginMs;
+
+    public HotStockService(ProductRepository productRepository,
+                           HotStockLeaseRepository leaseRepository,
+                           ProductService productService,
+                           StockLedgerService stockLedgerService,
+                           StockShardService stockShardService,
+                           ProductCache productCache,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${inventory.hot-skus.enabled:false}") boolean enabled,
+                           @Value("${inventory.hot-skus.skus:}") String skus,
+                           @Value("${inventory.hot-skus.node-id:${HOSTNAME:${random.uuid}}}") String nodeId) {
+        this.productRepository = productRepository;
+        this.leaseRepository = leaseRepository;
+        this.productService = productService;
+        this.stockLedgerService = stockLedgerService;
+        this.stockShardService = stockShardService;
+        this.productCache = productCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId.length() > 64 ? nodeId.substring(0, 64) : nodeId;
+        this.hotSkus = !enabled ? Set.of() : Arrays.stream(skus.split(","))
+                .map(String::trim)
+                .filter(sku -> !sku.isEmpty())
+                .map(ProductCache::key)
+                .collect(Collectors.toUnmodifiableSet());
+        this.inMemoryDeductions = Counter.builder("inventory.hot_sku.deductions").register(meterRegistry);
+        this.leaseRefills = Counter.builder("inventory.hot_sku.lease_refills").register(meterRegistry);
+        if (!hotSkus.isEmpty()) {
+            log.info("Hot-SKU mode on node {} for {} SKU(s): {}", this.nodeId, hotSkus.size(), hotSkus);
+        }
+    }
+
+    /** Per-SKU state of this node's lease. */
+    private static final class HotCounter {
+        final String skuCode;
+        final String leaseId;
+        /** Leased units not yet sold; only ever decremented with a floor of zero. */
+        final AtomicLong remaining = new AtomicLong();
+        /** Units sold since the last flush. */
+        final LongAdder unflushed = new LongAdder();
+        /** Product row as of the last refill or flush; base of the returned views. */
+        volatile Product snapshot;
+        /** Set once the lease row is found gone; the counter is then replaced. */
+        volatile boolean lost;
+        /** System.nanoTime() taken before the lease row was last written or renewed. */
+        volatile long renewedAt;
+
+        HotCounter(String skuCode, String leaseId) {
+            this.skuCode = skuCode;
+            this.leaseId = leaseId;
+        }
+
+        boolean tryTake(int qty) {
+            long current;
+            do {
+                current = remaining.get();
+                if (current < qty) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - qty));
+            return true;
+        }
+    }
+
+    public boolean isHot(String skuCode) {
+        return open && !hotSkus.isEmpty() && hotSkus.contains(ProductCache.key(skuCode));
+    }
+
+    /**
+     * Deduct a hot SKU from this node's lease; the database is only touched to refill the
+     * lease or, with an Idempotency-Key, to record the key.
+     *
+     * @return the product with the quantity as seen by this node
+     */
+    public Product deductStock(String skuCode, int quantity, String idempotencyKey) {
+        if (quantity <= 0) {
+            throw new IllegalStateException("Deduct quantity must be positive for product: " + skuCode);
+        }
+        if (idempotencyKey == null) {
+            return deduct(skuCode, quantity);
+        }
+        // The key and the deduction commit together: a rejected deduction rolls the key back
+        return transactionTemplate.execute(status -> productService.claimDeduction(idempotencyKey, skuCode, quantity)
+                ? deduct(skuCode, quantity)
+                : productService.findBySku(skuCode));
+    }
+
+    private Product deduct(String skuCode, int quantity) {
+        String key = ProductCache.key(skuCode);
+        HotCounter counter;
+        do {
+            counter = counters.computeIfAbsent(key, k -> new HotCounter(k, nodeId + ":" + k));
+        } while (!(isFresh(counter) && counter.tryTake(quantity)) && !refill(counter, quantity));
+        inMemoryDeductions.increment();
+        int pending = recordSale(counter, quantity) ? 0 : quantity;
+        Product snapshot = counter.snapshot;
+        int sold = (int) counter.unflushed.sum() + pending;
+        return Product.builder()
+                .id(snapshot.getId())
+                .skuCode(snapshot.getSkuCode())
+                .name(snapshot.getName())
+                .price(snapshot.getPrice())
+                .quantity(snapshot.getQuantity() - sold)
+                .reservedQuantity(snapshot.getReservedQuantity() - sold)
+                .status(snapshot.getStatus())
+                .createdAt(snapshot.getCreatedAt())
+                .updatedAt(snapshot.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Counts units taken from the lease as sold. Inside a transaction that happens on
+     * commit, and a rollback puts the units back into the lease.
+     *
+     * @return true if the sale was counted right away
+     */
+    private boolean recordSale(HotCounter counter, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.unflushed.add(quantity);
+            return true;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    counter.unflushed.add(quantity);
+                } else {
+                    counter.remaining.addAndGet(quantity);
+                }
+            }
+        });
+        return false;
+    }
+
+    /**
+     * Whether the lease was renewed recently enough that no other node can have released it yet.
+     */
+    private boolean isFresh(HotCounter counter) {
+        return System.nanoTime() - counter.renewedAt < (leaseTimeoutMs - leaseSafetyMarginMs) * 1_000_000;
+    }
+
+    /**
+     * Slow path: renew a stale lease or lease more stock from products, then take from the
+     * lease. Serialized per SKU so a burst of misses results in a single refill.
+     *
+     * @return false if the counter lost its lease meanwhile; the caller retries on its replacement
+     */
+    private boolean refill(HotCounter counter, int quantity) {
+        synchronized (counter) {
+            if (counter.lost) {
+                return false;
+            }
+            if (!isFresh(counter) && counter.remaining.get() > 0) {
+                long started = System.nanoTime();
+                if (leaseTransaction.execute(status -> leaseRepository.renew(counter.leaseId)) == 0) {
+                    loseLease(counter);
+                    return false;
+                }
+                counter.renewedAt = started;
+            }
+            // Concurrent fast-path takes can drain a fresh grant, hence the loop
+            while (!counter.tryTake(quantity)) {
+                if (counter.lost) {
+                    return false;
+                }
+                long started = System.nanoTime();
+                // Own transaction: a lease must not roll back with the caller once it is in memory
+                Integer granted = leaseTransaction.execute(status -> {
+                    stockLedgerService.settle(counter.skuCode);
+                    stockShardService.pullToMain(counter.skuCode, Math.max(leaseSize, quantity));
+                    int available = productRepository.lockAvailableQuantity(counter.skuCode)
+                            .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + counter.skuCode));
+                    long missing = quantity - counter.remaining.get();
+                    if (available < missing) {
+                        log.error("Insufficient stock for hot SKU [{}] - available: {} (+{} leased here), requested: {}",
+                                counter.skuCode, available, counter.remaining.get(), quantity);
+                        throw new IllegalStateException("Not enough stock for product: " + counter.skuCode);
+                    }
+                    int grant = (int) Math.min(available, Math.max(leaseSize, missing));
+                    productRepository.reserveIfAvailable(counter.skuCode, grant);
+                    leaseRepository.addHeld(counter.leaseId, nodeId, counter.skuCode, grant);
+                    counter.snapshot = productRepository.findBySkuCodeIgnoreCase(counter.skuCode).orElseThrow();
+                    return grant;
+                });
+                counter.remaining.addAndGet(granted);
+                counter.renewedAt = started;
+                leaseRefills.increment();
+                log.info("Leased {} more units of hot SKU [{}] on node {}", granted, counter.skuCode, nodeId);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The lease row is gone, so its stock is no longer held for this node: stop selling
+     * from the counter. The next deduction creates a fresh counter and lease.
+     */
+    private void loseLease(HotCounter counter) {
+        long dropped;
+        synchronized (counter) {
+            counter.lost = true;
+            dropped = counter.remaining.getAndSet(0);
+            counters.remove(counter.skuCode, counter);
+            retired.add(counter);
+        }
+        log.warn("Lease of hot SKU [{}] on node {} is gone; dropped {} unsold units", counter.skuCode, nodeId, dropped);
+    }
+
+    /**
+     * Write-behind: persist each SKU's sales since the last flush as one deduction of the
+     * leased (reserved) stock. A failed flush keeps the tally for the next round.
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot-skus.flush-interval-ms:100}")
+    public void flush() {
+        for (HotCounter counter : counters.values()) {
+            flush(counter);
+        }
+        for (HotCounter counter : retired) {
+            if (counter.unflushed.sum() == 0) {
+                retired.remove(counter);
+            } else {
+                flush(counter);
+            }
+        }
+    }
+
+    private void flush(HotCounter counter) {
+        long sold = counter.unflushed.sumThenReset();
+        if (sold == 0) {
+            return;
+        }
+        int qty = Math.toIntExact(sold);
+        try {
+            Boolean leaseHeld = transactionTemplate.execute(status -> {
+                stockLedgerService.settle(counter.skuCode);
+                // The lease row fences the reserved stock: without it the hold was released already
+                boolean held = !counter.lost && leaseRepository.removeHeld(counter.leaseId, qty) == 1;
+                Product updated;
+                if (held) {
+                    updated = productRepository.confirmReserved(counter.skuCode, qty)
+                            .orElseThrow(() -> new IllegalStateException("Lease of " + counter.skuCode + " is out of step"));
+                } else {
+                    stockShardService.pullToMain(counter.skuCode, qty);
+                    updated = productRepository.deductIfAvailable(counter.skuCode, qty).orElse(null);
+                    if (updated == null) {
+                        log.error("Hot SKU [{}] oversold by {} units after its lease was lost", counter.skuCode, qty);
+                        return false;
+                    }
+                }
+                stockLedgerService.recordApplied(updated, StockMovement.DEDUCTION, Map.of("hot-sku lease of " + nodeId, -qty));
+                productCache.evictAfterCommit(updated.getSkuCode());
+                productService.alertIfLowStock(updated);
+                counter.snapshot = updated;
+                return held;
+            });
+            if (!leaseHeld && !counter.lost) {
+                loseLease(counter);
+            }
+        } catch (RuntimeException e) {
+            counter.unflushed.add(sold);
+            log.error("Failed to flush {} sold units of hot SKU [{}]: {}", sold, counter.skuCode, e.getMessage());
+        }
+    }
+
+    /**
+     * Keeps this node's leases alive and releases leases of nodes that went silent.
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot-skus.recovery-interval-ms:10000}")
+    public void heartbeatAndRecover() {
+        if (hotSkus.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            leaseRepository.heartbeat(nodeId);
+            LocalDateTime cutoff = LocalDateTime.now().minusNanos(leaseTimeoutMs * 1_000_000);
+            for (HotStockLease lease : leaseRepository.findExpiredForUpdate(cutoff)) {
+                releaseLease(lease, "expired");
+            }
+        });
+        // A heartbeat does not revive a lease another node already released
+        for (HotCounter counter : counters.values()) {
+            boolean gone;
+            synchronized (counter) {
+                // Under the counter's lock so a refill creating the row cannot interleave
+                gone = counter.remaining.get() > 0 && !leaseRepository.existsById(counter.leaseId);
+            }
+            if (gone) {
+                loseLease(counter);
+            } else {
+                counter.renewedAt = Math.max(counter.renewedAt, started);
+            }
+        }
+    }
+
+    /**
+     * A restarted node has no memory of what its previous run leased: give it back first.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOwnLeases() {
+        if (hotSkus.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (HotStockLease lease : leaseRepository.findByNodeForUpdate(nodeId)) {
+                releaseLease(lease, "left over from a previous run");
+            }
+        });
+    }
+
+    private void releaseLease(HotStockLease lease, String reason) {
+        productRepository.releaseReserved(lease.getSkuCode(), lease.getHeld());
+        leaseRepository.delete(lease);
+        productCache.evictAfterCommit(lease.getSkuCode());
+        log.warn("Released {} leased units of hot SKU [{}] from node {} ({})",
+                lease.getHeld(), lease.getSkuCode(), lease.getNodeId(), reason);
+    }
+
+    /**
+     * Stop taking deductions, flush what was sold and give the unsold rest back.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (counters.isEmpty() && retired.isEmpty()) {
+            return;
+        }
+        open = false;
+        for (HotCounter counter : counters.values()) {
+            synchronized (counter) {
+                long unsold = counter.remaining.getAndSet(0);
+                if (unsold == 0) {
+                    continue;
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (leaseRepository.removeHeld(counter.leaseId, Math.toIntExact(unsold)) == 1) {
+                            productRepository.releaseReserved(counter.skuCode, Math.toIntExact(unsold));
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    log.error("Could not release lease of hot SKU [{}]; it is recovered once it expires: {}",
+                            counter.skuCode, e.getMessage());
+                }
+            }
+        }
+        flush();
+    }
+}
@@ -0,0 +1,115 @@
+package ai.presight.inventoryservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ai.presight.common.event.LowStockEvent;
+import ai.presight.common.event.LowStockSummaryEvent;
+import ai.presight.inventoryservice.cache.ProductCache;
+import ai.presight.inventoryservice.config.InventoryThresholdConfig;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per-SKU low-stock alert state machine with hysteresis.
+ * - ARMED (no entry): the first level below the threshold fires one alert and moves to ALERTED
+ * - ALERTED (entry present): further low levels are only counted for the next summary
+ * - Back to ARMED once stock reaches the high-water mark (threshold + hysteresis)
+ *
+ * Only alerted SKUs are kept; each entry packs the suppressed-alert count (high 32 bits)
+ * and the latest quantity (low 32 bits) into one long, updated atomically per key.
+ * State is per instance and in memory, so a restart re-arms every SKU.
+ *
+ * The alert itself is an outbox row in the caller's transaction; if that transaction rolls
+ * back, the ARMED -> ALERTED step is undone with it, so the next low level alerts again.
+ */
+@Component
+@RequiredArgsConstructor
+public class LowStockAlertTracker {
+
+    private final InventoryThresholdConfig thresholdConfig;
+
+    private final ConcurrentHashMap<String, Long> alerted = new ConcurrentHashMap<>();
+
+    @Value("${inventory.low-stock.hysteresis:10}")
+    private int hysteresis;
+
+    /**
+     * Record the stock level of a SKU after a change.
+     *
+     * @return true if this transition should raise an alert
+     */
+    public boolean onStockLevel(String skuCode, int quantity) {
+        String key = ProductCache.key(skuCode);
+        int threshold = thresholdConfig.getThreshold();
+
+        if (quantity >= threshold + hysteresis) {
+            alerted.remove(key);
+            return false;
+        }
+        if (quantity >= threshold) {
+            alerted.computeIfPresent(key, (k, state) -> pack(suppressed(state), quantity));
+            return false;
+        }
+
+        boolean[] fire = {false};
+        alerted.compute(key, (k, state) -> {
+            if (state == null) {
+                fire[0] = true;
+                return pack(0, quantity);
+            }
+            return pack(suppressed(state) + 1, quantity);
+        });
+        if (fire[0] && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        alerted.remove(key);
+                    }
+                }
+            });
+        }
+        return fire[0];
+    }
+
+    /**
+     * Collect SKUs whose alerts were suppressed since the last call and reset their counters.
+     *
+     * @return the summary, or null when nothing was suppressed
+     */
+    public LowStockSummaryEvent drainSummary() {
+        List<LowStockEvent> skus = new ArrayList<>();
+        long suppressedTotal = 0;
+        for (var entry : alerted.entrySet()) {
+            long state = entry.getValue();
+            int suppressed = suppressed(state);
+            if (suppressed > 0 && alerted.replace(entry.getKey(), state, pack(0, quantity(state)))) {
+                skus.add(new LowStockEvent(entry.getKey(), quantity(state)));
+                suppressedTotal += suppressed;
+            }
+        }
+        return skus.isEmpty() ? null : new LowStockSummaryEvent(System.currentTimeMillis(), skus, suppressedTotal);
+    }
+
+    public int alertedCount() {
+        return alerted.size();
+    }
+
+    private static long pack(int suppressed, int quantity) {
+        return ((long) suppressed << 32) | (quantity & 0xFFFF_FFFFL);
+    }
+
+    private static int suppressed(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int quantity(long state) {
+        return (int) state;
+    }
+}
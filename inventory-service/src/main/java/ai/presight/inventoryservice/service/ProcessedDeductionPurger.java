@@ -0,0 +1,33 @@
+package ai.presight.inventoryservice.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import ai.presight.inventoryservice.repository.ProcessedDeductionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drops deduction idempotency keys once they are older than the retry window.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProcessedDeductionPurger {
+
+    private final ProcessedDeductionRepository processedDeductionRepository;
+
+    @Value("${inventory.idempotency.ttl-hours:24}")
+    private int ttlHours;
+
+    @Scheduled(fixedDelayString = "${inventory.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        int purged = processedDeductionRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours));
+        if (purged > 0) {
+            log.info("Purged {} expired deduction idempotency keys", purged);
+        }
+    }
+}
@@ -9,15 +9,41 @@
 
 package ai.presight.inventoryservice.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ai.presight.inventoryservice.config.InventoryThresholdConfig;
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.common.dto.StockCheckResponse;
+import ai.presight.inventoryservice.cache.ProductCache;
 import ai.presight.inventoryservice.event.LowStockPublisher;
 import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.inventoryservice.model.ProcessedDeduction;
 import ai.presight.inventoryservice.model.Product;
+import ai.presight.inventoryservice.model.ProductPage;
+import ai.presight.inventoryservice.model.StockMovement;
+import ai.presight.inventoryservice.model.StockMovementRequest;
+import ai.presight.inventoryservice.repository.ProcessedDeductionRepository;
 import ai.presight.inventoryservice.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,17 +57,85 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductService {
 
     private final ProductRepository productRepository;
-    private final InventoryThresholdConfig thresholdConfig;
     private final LowStockPublisher lowStockPublisher;
-    
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final ProductCache productCache;
+    private final LowStockAlertTracker lowStockAlertTracker;
+    private final ProcessedDeductionRepository processedDeductionRepository;
+    private final StockLedgerService stockLedgerService;
+    private final StockShardService stockShardService;
 
-  
-    public List<Product> findAll() {
-        log.info(">>> Fetching all products from DB...");
-        List<Product> all = productRepository.findAll();
-        log.info(">>> Retrieved {} products", all.size());
-        all.forEach(p -> log.info("Product: id={} sku={} name={} qty={}", p.getId(), p.getSkuCode(), p.getName(), p.getQuantity()));
-        return all;
+    private static final int EXPORT_FLUSH_EVERY = 500;
+
+    @Value("${inventory.listing.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Fetch one keyset page of products, optionally filtered by status.
+     *
+     * @param afterId last id of the previous page, or null for the first page
+     * @param status optional status filter
+     * @param size requested page size (capped at maxPageSize)
+     * @return the page and the cursor for the next one
+     */
+    public ProductPage findPage(Long afterId, String status, int size) {
+        Limit limit = Limit.of(Math.min(Math.max(size, 1), maxPageSize));
+        long cursor = afterId != null ? afterId : 0L;
+
+        List<Product> items = (status == null
+                ? productRepository.findPageAfter(cursor, limit)
+                : productRepository.findPageByStatusAfter(status, cursor, limit))
+                .stream().map(stockShardService::withShards).toList();
+
+        Long nextCursor = items.size() == limit.max() ? items.get(items.size() - 1).getId() : null;
+        log.debug("Fetched {} products after id={} (status={})", items.size(), cursor, status);
+        return new ProductPage(items, nextCursor);
+    }
+
+    /**
+     * Write the whole catalog as NDJSON, one product per line, straight off a JDBC cursor.
+     * Each row is detached once written so memory stays flat regardless of catalog size.
+     *
+     * @param out response stream
+     */
+    @Transactional(readOnly = true)
+    public void exportTo(OutputStream out) throws IOException {
+        long count = writeAll(out, false);
+        out.write('\n');
+        out.flush();
+        log.info("Exported {} products", count);
+    }
+
+    /**
+     * Write the whole catalog as one JSON array, streamed the same way as {@link #exportTo}.
+     *
+     * @param out response stream
+     */
+    @Transactional(readOnly = true)
+    public void writeAllAsArray(OutputStream out) throws IOException {
+        long count = writeAll(out, true);
+        out.flush();
+        log.info("Total products fetched: {}", count);
+    }
+
+    private long writeAll(OutputStream out, boolean asArray) throws IOException {
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAll();
+             SequenceWriter values = asArray ? writer.writeValuesAsArray(out) : writer.writeValues(out)) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                values.write(stockShardService.withShards(product));
+                entityManager.detach(product);
+                if (++count % EXPORT_FLUSH_EVERY == 0) {
+                    values.flush();
+                }
+            }
+        }
+        return count;
     }
 
     /**
@@ -52,16 +146,31 @@ public class ProductService {
      */
     public Product findById(Long id) {
         return productRepository.findById(id)
+                .map(stockShardService::withShards)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found (id=" + id + ")"));
     }
 
     /**
-     * Retrieve a product using its SKU code.
+     * Retrieve a product using its SKU code, served from the near cache when possible.
+     * The returned instance may be shared and must not be modified.
      *
      * @param skuCode unique business identifier
      * @return Product entity if found
      */
     public Product findBySku(String skuCode) {
+        return productCache.get(skuCode, key -> stockShardService.withShards(detached(loadBySku(skuCode))));
+    }
+
+    /**
+     * Cached and routing instances must not stay managed: a guarded UPDATE ... RETURNING later
+     * in the transaction would resolve to them and hand back their pre-update quantity.
+     */
+    private Product detached(Product product) {
+        entityManager.detach(product);
+        return product;
+    }
+
+    private Product loadBySku(String skuCode) {
         return productRepository.findBySkuCodeIgnoreCase(skuCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found (SKU=" + skuCode + ")"));
     }
@@ -87,7 +196,11 @@ public class ProductService {
      */
     @Transactional
     public Product update(Product product) {
-        Product existing = findBySku(product.getSkuCode());
+        if (stockLedgerService.isEnabled()) {
+            return updateInLedgerMode(product);
+        }
+        stockShardService.clearShards(product.getSkuCode());
+        Product existing = loadBySku(product.getSkuCode());
 
         existing.setName(product.getName());
         existing.setPrice(product.getPrice());
@@ -95,11 +208,65 @@ public class ProductService {
         existing.setStatus(product.getStatus());
 
         Product updated = productRepository.save(existing);
+        productCache.evictAfterCommit(updated.getSkuCode());
+        alertIfLowStock(updated); // a restock above the high-water mark re-arms the alert
+        return updated;
+    }
+
+    /**
+     * Ledger mode: the quantity change becomes an ADJUSTMENT movement (taken under the
+     * SKU's ledger lock first); only the descriptive fields are updated in place.
+     */
+    private Product updateInLedgerMode(Product product) {
+        Product adjusted = stockLedgerService.adjustTo(product.getSkuCode(), product.getQuantity(), "update");
+        Product existing = loadBySku(product.getSkuCode());
+
+        existing.setName(product.getName());
+        existing.setPrice(product.getPrice());
+        existing.setStatus(product.getStatus());
+        productRepository.saveAndFlush(existing);
+
+        // Hand out the ledger quantity, not the compacted snapshot held by the row
+        entityManager.detach(existing);
+        existing.setQuantity(adjusted.getQuantity());
+        productCache.evictAfterCommit(existing.getSkuCode());
+        alertIfLowStock(existing);
+        return existing;
+    }
+
+    /**
+     * Record a restock or manual adjustment (ledger mode only).
+     */
+    @Transactional
+    public Product recordMovement(String skuCode, StockMovementRequest request) {
+        if (!stockLedgerService.isEnabled()) {
+            throw new IllegalStateException("Stock movements require inventory.ledger.enabled");
+        }
+        if (request.quantity() == null || request.quantity() == 0) {
+            throw new IllegalStateException("Movement quantity must be non-zero for product: " + skuCode);
+        }
+        int delta = switch (request.type() == null ? "" : request.type()) {
+            case StockMovement.RESTOCK -> {
+                if (request.quantity() < 0) {
+                    throw new IllegalStateException("Restock quantity must be positive for product: " + skuCode);
+                }
+                yield request.quantity();
+            }
+            case StockMovement.ADJUSTMENT -> request.quantity();
+            default -> throw new IllegalStateException("Movement type must be RESTOCK or ADJUSTMENT");
+        };
+
+        Product updated = stockLedgerService.record(skuCode, delta, request.type(), request.reference());
+        productCache.evictAfterCommit(updated.getSkuCode());
+        alertIfLowStock(updated);
+        log.info("Stock movement {} {} for SKU [{}], quantity now {}", request.type(), delta, skuCode, updated.getQuantity());
         return updated;
     }
 
     /**
      * Deduct stock quantity for a given SKU and log warnings if below threshold.
+     * The check and the decrement happen in one guarded UPDATE, so no row is read
+     * into the persistence context and concurrent orders cannot oversell.
      *
      * @param skuCode product identifier
      * @param quantity amount to deduct
@@ -107,26 +274,108 @@ public class ProductService {
      */
     @Transactional
     public Product deductStock(String skuCode, int quantity) {
-        Product product = findBySku(skuCode);
+        return deduct(skuCode, quantity, null);
+    }
 
-        if (product.getQuantity() < quantity) {
-            log.error("Insufficient stock for SKU [{}] - available: {}, requested: {}",
-                    skuCode, product.getQuantity(), quantity);
-            throw new IllegalStateException("Not enough stock for product: " + skuCode);
+    private Product deduct(String skuCode, int quantity, String reference) {
+        if (quantity <= 0) {
+            throw new IllegalStateException("Deduct quantity must be positive for product: " + skuCode);
         }
 
-        product.setQuantity(product.getQuantity() - quantity);
-        Product updated = productRepository.save(product);
-
-        if (updated.getQuantity() < thresholdConfig.getThreshold()) {
-            log.warn("Low inventory for SKU [{}] - remaining: {}", skuCode, updated.getQuantity());
-            lowStockPublisher.publishLowStock(skuCode, updated.getQuantity());
+        Product updated;
+        if (stockLedgerService.isEnabled()) {
+            // In ledger mode the deduction is an appended movement instead of a row update
+            updated = stockLedgerService.record(skuCode, -quantity, StockMovement.DEDUCTION, reference);
+        } else {
+            updated = deductInPlace(skuCode, quantity).orElseThrow(() -> insufficientStock(skuCode, quantity));
         }
-        
 
+        productCache.evictAfterCommit(updated.getSkuCode());
+        alertIfLowStock(updated);
         return updated;
     }
 
+    /**
+     * The near-cached shard count only picks which side is tried first. Both the shards and
+     * the products row are tried against their current state, so a count changed by
+     * another node since costs one query, not a wrong answer.
+     */
+    private Optional<Product> deductInPlace(String skuCode, int quantity) {
+        if (!stockShardService.isEnabled()) {
+            return productRepository.deductIfAvailable(skuCode, quantity);
+        }
+        Product cached = findBySku(skuCode);
+        if (stockShardService.isSharded(cached)) {
+            return stockShardService.deduct(cached, quantity);
+        }
+        return productRepository.deductIfAvailable(skuCode, quantity)
+                .map(stockShardService::withShards)
+                .or(() -> productRepository.findBySkuCodeIgnoreCase(skuCode)
+                        .map(this::detached)
+                        .filter(stockShardService::isSharded)
+                        .flatMap(product -> stockShardService.deduct(product, quantity)));
+    }
+
+    /**
+     * Idempotent variant of {@link #deductStock(String, int)}. The key is recorded in the
+     * same transaction as the deduction; a repeated key returns the product's current
+     * state without deducting again. Failed deductions record nothing and may be retried.
+     *
+     * @param idempotencyKey caller-chosen key, or null for a plain deduction
+     */
+    @Transactional
+    public Product deductStock(String skuCode, int quantity, String idempotencyKey) {
+        if (idempotencyKey != null && !claimDeduction(idempotencyKey, skuCode, quantity)) {
+            return loadBySku(skuCode);
+        }
+        return deduct(skuCode, quantity, idempotencyKey);
+    }
+
+    /**
+     * Records the Idempotency-Key of a deduction in the caller's transaction.
+     *
+     * @return true if the key is new and the deduction should run; false if the same
+     *         deduction was already applied
+     * @throws IllegalStateException if the key was used for a different deduction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claimDeduction(String idempotencyKey, String skuCode, int quantity) {
+        if (processedDeductionRepository.claim(idempotencyKey, skuCode, quantity) == 1) {
+            return true;
+        }
+        ProcessedDeduction previous = processedDeductionRepository.findById(idempotencyKey)
+                .orElseThrow(() -> new IllegalStateException("Deduction " + idempotencyKey + " is being retried concurrently"));
+        if (!previous.getSkuCode().equalsIgnoreCase(skuCode) || previous.getQuantity() != quantity) {
+            throw new IllegalStateException("Idempotency-Key " + idempotencyKey + " was already used for a different deduction");
+        }
+        log.info("Duplicate deduction {} for SKU [{}] ignored", idempotencyKey, skuCode);
+        return false;
+    }
+
+    /**
+     * Publish a low-stock alert when the product first drops below the configured threshold.
+     * Repeat alerts are held back by {@link LowStockAlertTracker} until stock recovers.
+     *
+     * @param product product state right after a stock change
+     */
+    public void alertIfLowStock(Product product) {
+        if (lowStockAlertTracker.onStockLevel(product.getSkuCode(), product.getQuantity())) {
+            log.warn("Low inventory for SKU [{}] - remaining: {}", product.getSkuCode(), product.getQuantity());
+            lowStockPublisher.publishLowStock(product.getSkuCode(), product.getQuantity());
+        }
+    }
+
+    /**
+     * Builds the failure for a rejected guarded decrement: not found when the SKU is
+     * unknown, otherwise an insufficient stock error.
+     */
+    IllegalStateException insufficientStock(String skuCode, int quantity) {
+        Product product = loadBySku(skuCode);
+        log.error("Insufficient stock for SKU [{}] - available: {}, requested: {}",
+                skuCode, product.getAvailableQuantity(), quantity);
+        return new IllegalStateException("Not enough stock for product: " + skuCode);
+    }
+
     /**
      * Delete a product by its ID.
      *
@@ -134,17 +383,57 @@ public class ProductService {
      */
     @Transactional
     public void delete(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Cannot delete: product not found (id=" + id + ")");
-        }
-        productRepository.deleteById(id);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cannot delete: product not found (id=" + id + ")"));
+        productRepository.delete(product);
+        productCache.evictAfterCommit(product.getSkuCode());
         log.info("Product deleted (id={})", id);
     }
-    
-    
+    /**
+     * Availability-to-promise check for a single SKU, answered from the near cache.
+     */
     public boolean isInStock(String sku, int qty) {
         Product product = findBySku(sku);
-        return product.getQuantity() >= qty;
+        return product.getAvailableQuantity() >= qty;
+    }
+
+    /**
+     * Check availability-to-promise for several SKUs. Cache misses are resolved
+     * together with a single IN-list query. Quantities requested for the same SKU are summed before comparing.
+     *
+     * @param items SKU and quantity pairs to check
+     * @return one availability entry per distinct SKU, in request order
+     */
+    public List<StockCheckResponse> checkStockBatch(List<StockCheckRequest> items) {
+        Map<String, Integer> requested = new LinkedHashMap<>();
+        Map<String, String> requestedSku = new LinkedHashMap<>();
+        for (StockCheckRequest item : items) {
+            String key = ProductCache.key(item.skuCode());
+            requested.merge(key, item.qty(), Integer::sum);
+            requestedSku.putIfAbsent(key, item.skuCode());
+        }
+
+        Map<String, Product> products = productCache.getAll(requested.keySet(),
+                misses -> productRepository.findAllBySkuCodeInLowerCase(Set.copyOf(misses)).stream()
+                        .map(stockShardService::withShards)
+                        .collect(Collectors.toMap(p -> ProductCache.key(p.getSkuCode()), Function.identity())));
+
+        List<String> missing = requested.keySet().stream()
+                .filter(sku -> !products.containsKey(sku))
+                .map(requestedSku::get)
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found (SKU=" + String.join(",", missing) + ")");
+        }
+
+        List<StockCheckResponse> result = new ArrayList<>(requested.size());
+        requested.forEach((sku, qty) -> {
+            Product product = products.get(sku);
+            result.add(new StockCheckResponse(product.getSkuCode(), qty, product.getAvailableQuantity(),
+                    product.getAvailableQuantity() >= qty));
+        });
+        log.debug("Batch stock check for {} SKUs completed", result.size());
+        return result;
     }
 
 }
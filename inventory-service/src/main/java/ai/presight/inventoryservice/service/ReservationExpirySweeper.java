@@ -0,0 +1,37 @@
+package ai.presight.inventoryservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background job that returns stock held by abandoned reservations.
+ * Each batch runs in its own transaction so row locks stay short.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationExpirySweeper {
+
+    private final ReservationService reservationService;
+
+    @Value("${inventory.reservation.sweep-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:30000}")
+    public void expireAbandonedHolds() {
+        int total = 0;
+        int expired;
+        do {
+            expired = reservationService.expireBatch(batchSize);
+            total += expired;
+        } while (expired == batchSize);
+
+        if (total > 0) {
+            log.info("Expired {} abandoned reservation lines", total);
+        }
+    }
+}
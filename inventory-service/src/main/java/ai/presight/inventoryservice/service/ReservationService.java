@@ -0,0 +1,222 @@
+package ai.presight.inventoryservice.service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import ai.presight.common.dto.ReservationRequest;
+import ai.presight.common.dto.ReservationResponse;
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.inventoryservice.cache.ProductCache;
+import ai.presight.inventoryservice.model.Product;
+import ai.presight.inventoryservice.model.StockMovement;
+import ai.presight.inventoryservice.model.StockReservation;
+import ai.presight.inventoryservice.repository.ProductRepository;
+import ai.presight.inventoryservice.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service layer for stock reservations.
+ * A reservation holds stock for all lines of an order in one call; the hold is
+ * later confirmed into a real deduction, released, or expired by the sweeper.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationService {
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ProductService productService;
+    private final StockLedgerService stockLedgerService;
+    private final StockShardService stockShardService;
+    private final ProductCache productCache;
+
+    @Value("${inventory.reservation.ttl-seconds:900}")
+    private int defaultTtlSeconds;
+
+    @Value("${inventory.reservation.max-ttl-seconds:3600}")
+    private int maxTtlSeconds;
+
+    /**
+     * Hold stock for every line of the request, all or nothing.
+     * Repeating a call with the same reservationId and items returns the existing reservation;
+     * reusing the id for different items is rejected.
+     *
+     * @param request SKUs and quantities to hold
+     * @return the reservation in HELD state
+     */
+    @Transactional
+    public ReservationResponse reserve(ReservationRequest request) {
+        if (request.items() == null || request.items().isEmpty()) {
+            throw new IllegalStateException("Reservation must contain at least one item");
+        }
+
+        // Sum per SKU and lock rows in a stable order so concurrent reservations cannot deadlock
+        Map<String, Integer> perSku = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (StockCheckRequest item : request.items()) {
+            if (item.qty() <= 0) {
+                throw new IllegalStateException("Reserved quantity must be positive for product: " + item.skuCode());
+            }
+            perSku.merge(item.skuCode(), item.qty(), Integer::sum);
+        }
+
+        String reservationId = request.reservationId() != null ? request.reservationId() : UUID.randomUUID().toString();
+        List<StockReservation> existing = reservationRepository.findByReservationId(reservationId);
+        if (!existing.isEmpty()) {
+            if (!perSku.equals(quantitiesBySku(existing))) {
+                throw new IllegalStateException("Reservation " + reservationId + " already exists with different items");
+            }
+            log.info("Reservation {} already exists → returning current state", reservationId);
+            return toResponse(reservationId, existing);
+        }
+
+        int ttl = request.ttlSeconds() != null ? Math.min(request.ttlSeconds(), maxTtlSeconds) : defaultTtlSeconds;
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(ttl);
+
+        List<StockReservation> lines = perSku.entrySet().stream().map(entry -> {
+            stockLedgerService.settle(entry.getKey());
+            stockShardService.pullToMain(entry.getKey(), entry.getValue());
+            if (productRepository.reserveIfAvailable(entry.getKey(), entry.getValue()) == 0) {
+                throw productService.insufficientStock(entry.getKey(), entry.getValue());
+            }
+            productCache.evictAfterCommit(entry.getKey());
+            return StockReservation.builder()
+                    .reservationId(reservationId)
+                    .skuCode(entry.getKey())
+                    .quantity(entry.getValue())
+                    .status(StockReservation.HELD)
+                    .expiresAt(expiresAt)
+                    .build();
+        }).toList();
+
+        reservationRepository.saveAll(lines);
+        log.info("Reservation {} held {} SKUs until {}", reservationId, lines.size(), expiresAt);
+        return toResponse(reservationId, lines);
+    }
+
+    /**
+     * Convert a hold into a stock deduction. Confirming twice is a no-op.
+     *
+     * @param reservationId reservation identifier
+     * @return the reservation in CONFIRMED state
+     */
+    @Transactional
+    public ReservationResponse confirm(String reservationId) {
+        List<StockReservation> lines = lockReservation(reservationId);
+
+        if (lines.stream().allMatch(line -> StockReservation.CONFIRMED.equals(line.getStatus()))) {
+            return toResponse(reservationId, lines);
+        }
+        if (lines.stream().anyMatch(line -> !StockReservation.HELD.equals(line.getStatus()))) {
+            throw new IllegalStateException("Reservation " + reservationId + " is no longer held");
+        }
+        if (lines.get(0).getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalStateException("Reservation " + reservationId + " has expired");
+        }
+
+        for (StockReservation line : inSkuOrder(lines)) {
+            stockLedgerService.settle(line.getSkuCode());
+            Product updated = productRepository.confirmReserved(line.getSkuCode(), line.getQuantity())
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Held stock missing for product: " + line.getSkuCode()));
+            stockLedgerService.recordApplied(updated, StockMovement.DEDUCTION, Map.of(reservationId, -line.getQuantity()));
+            line.setStatus(StockReservation.CONFIRMED);
+            productCache.evictAfterCommit(updated.getSkuCode());
+            productService.alertIfLowStock(updated);
+        }
+
+        log.info("Reservation {} confirmed", reservationId);
+        return toResponse(reservationId, lines);
+    }
+
+    /**
+     * Give held stock back. Releasing an already released or expired hold is a no-op;
+     * a confirmed reservation can no longer be released.
+     *
+     * @param reservationId reservation identifier
+     * @return the reservation in RELEASED state
+     */
+    @Transactional
+    public ReservationResponse release(String reservationId) {
+        List<StockReservation> lines = lockReservation(reservationId);
+
+        if (lines.stream().anyMatch(line -> StockReservation.CONFIRMED.equals(line.getStatus()))) {
+            throw new IllegalStateException("Reservation " + reservationId + " is already confirmed");
+        }
+
+        releaseHeld(lines, StockReservation.RELEASED);
+        log.info("Reservation {} released", reservationId);
+        return toResponse(reservationId, lines);
+    }
+
+    /**
+     * Expire one batch of abandoned holds. Lines are claimed in expiry order but products are
+     * updated in SKU order, the same order reserve and confirm lock them in.
+     *
+     * @param batchSize maximum number of reservation lines to expire
+     * @return number of lines expired
+     */
+    @Transactional
+    public int expireBatch(int batchSize) {
+        List<StockReservation> expired = reservationRepository.findExpiredForUpdate(batchSize);
+        releaseHeld(expired, StockReservation.EXPIRED);
+        return expired.size();
+    }
+
+    @Transactional(readOnly = true)
+    public ReservationResponse find(String reservationId) {
+        List<StockReservation> lines = reservationRepository.findByReservationId(reservationId);
+        if (lines.isEmpty()) {
+            throw new ResourceNotFoundException("Reservation not found (id=" + reservationId + ")");
+        }
+        return toResponse(reservationId, lines);
+    }
+
+    private List<StockReservation> lockReservation(String reservationId) {
+        List<StockReservation> lines = reservationRepository.findByReservationIdForUpdate(reservationId);
+        if (lines.isEmpty()) {
+            throw new ResourceNotFoundException("Reservation not found (id=" + reservationId + ")");
+        }
+        return lines;
+    }
+
+    private void releaseHeld(List<StockReservation> lines, String newStatus) {
+        List<StockReservation> held = lines.stream()
+                .filter(line -> StockReservation.HELD.equals(line.getStatus()))
+                .toList();
+        quantitiesBySku(held).forEach((skuCode, qty) -> {
+            productRepository.releaseReserved(skuCode, qty);
+            productCache.evictAfterCommit(skuCode);
+        });
+        held.forEach(line -> line.setStatus(newStatus));
+    }
+
+    private static Map<String, Integer> quantitiesBySku(List<StockReservation> lines) {
+        Map<String, Integer> perSku = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        lines.forEach(line -> perSku.merge(line.getSkuCode(), line.getQuantity(), Integer::sum));
+        return perSku;
+    }
+
+    private static List<StockReservation> inSkuOrder(List<StockReservation> lines) {
+        return lines.stream()
+                .sorted(Comparator.comparing(StockReservation::getSkuCode, String.CASE_INSENSITIVE_ORDER))
+                .toList();
+    }
+
+    private ReservationResponse toResponse(String reservationId, List<StockReservation> lines) {
+        List<StockCheckRequest> items = lines.stream()
+                .map(line -> new StockCheckRequest(line.getSkuCode(), line.getQuantity()))
+                .toList();
+        return new ReservationResponse(reservationId, lines.get(0).getStatus(), lines.get(0).getExpiresAt(), items);
+    }
+}
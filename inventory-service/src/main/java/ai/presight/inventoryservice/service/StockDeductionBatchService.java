@@ -0,0 +1,227 @@
+package ai.presight.inventoryservice.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ai.presight.common.event.StockDeductionCommand;
+import ai.presight.common.event.StockDeductionResult;
+import ai.presight.inventoryservice.cache.ProductCache;
+import ai.presight.inventoryservice.event.OutboxWriter;
+import ai.presight.inventoryservice.model.Product;
+import ai.presight.inventoryservice.model.StockDeductionOffset;
+import ai.presight.inventoryservice.model.StockMovement;
+import ai.presight.inventoryservice.repository.ProductRepository;
+import ai.presight.inventoryservice.repository.StockDeductionOffsetRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies a micro-batch of deduction commands from one consumer poll.
+ * - Commands are merged per SKU: the row is locked once, commands are accepted in
+ *   arrival order while stock lasts, and the accepted total is taken in one UPDATE
+ * - SKUs are locked in case-insensitive order, like reservations, to avoid deadlocks
+ * - Per-partition offsets and per-command results (via the outbox) are written in the
+ *   same transaction, which makes redelivery after a crash harmless
+ * - A SKU that throws a non-transient error is taken out: the batch transaction is
+ *   run again with that SKU's commands answered PROCESSING_ERROR, so one bad SKU
+ *   does not hold back the others (JPA cannot roll back to a savepoint here)
+ * - A batch that fails as a whole is retried by the container and then handed record by
+ *   record to {@link #recover}, so every command still gets a result
+ */
+@Service
+@Slf4j
+public class StockDeductionBatchService {
+
+    public static final String RESULTS_TOPIC = "stock-deduction-results";
+
+    private final ProductRepository productRepository;
+    private final StockDeductionOffsetRepository offsetRepository;
+    private final ProductService productService;
+    private final StockLedgerService stockLedgerService;
+    private final StockShardService stockShardService;
+    private final ProductCache productCache;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockDeductionBatchService(ProductRepository productRepository,
+                                      StockDeductionOffsetRepository offsetRepository,
+                                      ProductService productService,
+                                      StockLedgerService stockLedgerService,
+                                      StockShardService stockShardService,
+                                      ProductCache productCache,
+                                      OutboxWriter outboxWriter,
+                                      PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.offsetRepository = offsetRepository;
+        this.productService = productService;
+        this.stockLedgerService = stockLedgerService;
+        this.stockShardService = stockShardService;
+        this.productCache = productCache;
+        this.outboxWriter = outboxWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param records one polled batch of stock-deduction-commands
+     * @return number of commands applied
+     */
+    public int applyBatch(List<ConsumerRecord<String, Object>> records) {
+        Set<String> failedSkus = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> applyOnce(records, failedSkus));
+            } catch (SkuFailedException e) {
+                log.error("Deductions for {} failed, answering its commands with PROCESSING_ERROR: {}",
+                        e.skuCode, e.getCause().toString());
+                failedSkus.add(e.skuCode);
+            }
+        }
+    }
+
+    private int applyOnce(List<ConsumerRecord<String, Object>> records, Set<String> failedSkus) {
+        Map<Integer, StockDeductionOffset> offsets = lockOffsets(
+                records.stream().map(ConsumerRecord::partition).collect(Collectors.toSet()));
+
+        Map<String, List<StockDeductionCommand>> perSku = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        int skipped = 0;
+        for (ConsumerRecord<String, Object> record : records) {
+            StockDeductionOffset progress = offsets.get(record.partition());
+            if (record.offset() <= progress.getLastOffset()) {
+                skipped++;
+                continue; // applied before the last crash or rebalance
+            }
+            progress.setLastOffset(record.offset());
+
+            if (record.value() instanceof StockDeductionCommand command) {
+                perSku.computeIfAbsent(command.getSkuCode(), k -> new ArrayList<>()).add(command);
+            } else {
+                log.error("Skipping undecodable deduction command at partition {} offset {}",
+                        record.partition(), record.offset());
+            }
+        }
+
+        offsetRepository.saveAll(offsets.values());
+        int applied = 0;
+        for (var entry : perSku.entrySet()) {
+            if (failedSkus.contains(entry.getKey())) {
+                entry.getValue().forEach(command -> publish(command, false, -1, "PROCESSING_ERROR"));
+            } else {
+                applied += applyGuarded(entry.getKey(), entry.getValue());
+            }
+        }
+
+        log.debug("Deduction batch: {} records, {} SKUs, {} applied, {} already seen",
+                records.size(), perSku.size(), applied, skipped);
+        return applied;
+    }
+
+    /**
+     * Recoverer for a record whose batch kept failing: answers the command with
+     * PROCESSING_ERROR and moves the partition offset past it, unless it was applied already.
+     */
+    @Transactional
+    public void recover(ConsumerRecord<?, ?> record, Exception cause) {
+        StockDeductionOffset progress = lockOffsets(Set.of(record.partition())).get(record.partition());
+        if (record.offset() <= progress.getLastOffset()) {
+            return;
+        }
+        progress.setLastOffset(record.offset());
+        offsetRepository.save(progress);
+
+        if (record.value() instanceof StockDeductionCommand command) {
+            log.error("Giving up on deduction command {} for {}: {}", command.getCommandId(), command.getSkuCode(),
+                    cause.toString());
+            publish(command, false, -1, "PROCESSING_ERROR");
+        } else {
+            log.error("Giving up on undecodable deduction command at partition {} offset {}",
+                    record.partition(), record.offset());
+        }
+    }
+
+    /**
+     * Seeds missing progress rows first: FOR UPDATE locks nothing for a row that does not
+     * exist, so two consumers of a fresh partition would otherwise both get through.
+     */
+    private Map<Integer, StockDeductionOffset> lockOffsets(Set<Integer> partitions) {
+        partitions.forEach(offsetRepository::seed);
+        return offsetRepository.findForUpdate(partitions).stream()
+                .collect(Collectors.toMap(StockDeductionOffset::getPartitionId, Function.identity()));
+    }
+
+    private int applyGuarded(String skuCode, List<StockDeductionCommand> commands) {
+        try {
+            return applyForSku(skuCode, commands);
+        } catch (TransientDataAccessException e) {
+            throw e; // left to the container's batch retry
+        } catch (RuntimeException e) {
+            throw new SkuFailedException(skuCode, e);
+        }
+    }
+
+    private int applyForSku(String skuCode, List<StockDeductionCommand> commands) {
+        stockLedgerService.settle(skuCode);
+        stockShardService.pullToMain(skuCode, commands.stream().mapToInt(command -> Math.max(command.getQuantity(), 0)).sum());
+        Optional<Integer> available = productRepository.lockAvailableQuantity(skuCode);
+        if (available.isEmpty()) {
+            commands.forEach(command -> publish(command, false, -1, "NOT_FOUND"));
+            return 0;
+        }
+
+        int remaining = available.get();
+        int total = 0;
+        List<StockDeductionCommand> accepted = new ArrayList<>(commands.size());
+        for (StockDeductionCommand command : commands) {
+            if (command.getQuantity() <= 0) {
+                publish(command, false, remaining, "INVALID_QUANTITY");
+            } else if (command.getQuantity() <= remaining) {
+                remaining -= command.getQuantity();
+                total += command.getQuantity();
+                accepted.add(command);
+            } else {
+                publish(command, false, remaining, "INSUFFICIENT_STOCK");
+            }
+        }
+
+        if (total > 0) {
+            Product updated = productRepository.deductIfAvailable(skuCode, total)
+                    .orElseThrow(() -> new IllegalStateException("Locked stock changed for product: " + skuCode));
+            Map<String, Integer> movements = new LinkedHashMap<>();
+            accepted.forEach(command -> movements.merge(command.getCommandId(), -command.getQuantity(), Integer::sum));
+            stockLedgerService.recordApplied(updated, StockMovement.DEDUCTION, movements);
+            productCache.evictAfterCommit(updated.getSkuCode());
+            productService.alertIfLowStock(updated);
+            int availableAfter = updated.getAvailableQuantity();
+            accepted.forEach(command -> publish(command, true, availableAfter, null));
+        }
+        return accepted.size();
+    }
+
+    private void publish(StockDeductionCommand command, boolean applied, int availableQty, String reason) {
+        outboxWriter.enqueue(RESULTS_TOPIC, command.getSkuCode(), new StockDeductionResult(
+                command.getCommandId(), command.getSkuCode(), command.getQuantity(), applied, availableQty, reason));
+    }
+
+    private static class SkuFailedException extends RuntimeException {
+
+        private final String skuCode;
+
+        SkuFailedException(String skuCode, RuntimeException cause) {
+            super(cause);
+            this.skuCode = skuCode;
+        }
+    }
+}
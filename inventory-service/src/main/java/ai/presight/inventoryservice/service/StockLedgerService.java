@@ -0,0 +1,362 @@
+package ai.presight.inventoryservice.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.inventoryservice.cache.ProductCache;
+import ai.presight.inventoryservice.model.Product;
+import ai.presight.inventoryservice.model.StockMovement;
+import ai.presight.inventoryservice.model.StockMovementPage;
+import ai.presight.inventoryservice.repository.ProductRepository;
+import ai.presight.inventoryservice.repository.StockMovementRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ledger mode: stock changes are appended to stock_movements instead of updating
+ * products.quantity in place.
+ * - An append takes the SKU's advisory lock in shared mode and inserts one movement; the
+ *   products row is not written, so appends neither queue on a row lock nor leave a dead
+ *   tuple per deduction
+ * - A deduction is checked against the compacted snapshot minus the deductions this node
+ *   appended since, as long as that node-local tail stays within node-allowance and leaves
+ *   reserve-margin units available. Otherwise it settles first (exclusive lock, fold) and
+ *   checks exactly. Other nodes' tails are covered by the margin while
+ *   (nodes - 1) * node-allowance <= reserve-margin. A fold that would take quantity below
+ *   zero first appends an ADJUSTMENT writing the overdraft off, and logs it
+ * - The compactor periodically folds each SKU's tail into products.quantity (one UPDATE
+ *   per SKU and interval, not per deduction)
+ * - Paths that still update products in place (reservations, the Kafka deduction writer,
+ *   hot-SKU leases) call {@link #settle} first, which folds the tail under the exclusive lock,
+ *   then {@link #recordApplied}, so the history still has a movement for every change
+ *
+ * Cached and listed quantities are the compacted snapshot; they trail the ledger by at
+ * most one compaction interval.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockLedgerService {
+
+    private final StockMovementRepository movementRepository;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    /** SKUs written on this node since the last compaction. */
+    private final Set<String> dirtySkus = ConcurrentHashMap.newKeySet();
+
+    /** Deductions this node appended, per SKU, until a snapshot is read that includes them. */
+    private final Map<String, LocalTail> localTails = new ConcurrentHashMap<>();
+
+    @Value("${inventory.ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.ledger.node-allowance:50}")
+    private int nodeAllowance;
+
+    @Value("${inventory.ledger.reserve-margin:200}")
+    private int reserveMargin;
+
+    @Value("${inventory.ledger.history-max-page-size:500}")
+    private int historyMaxPageSize;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Append a movement after checking it leaves no negative available stock.
+     *
+     * @param delta signed quantity change
+     * @return the product with the quantity as seen by this node, including the new movement
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Product record(String skuCode, int delta, String type, String reference) {
+        Product snapshot = loadSnapshot(skuCode);
+        if (delta >= 0) {
+            movementRepository.lockSkuShared(skuCode);
+            append(snapshot, delta, type, reference);
+            return snapshot.withQuantity(snapshot.getQuantity() - localTail(skuCode).outstanding() + delta);
+        }
+
+        LocalTail tail = localTail(skuCode);
+        Pending pending = tail.tryTake(snapshot, -delta, nodeAllowance, reserveMargin);
+        if (pending == null) {
+            // Near the floor or over this node's allowance: check against the folded row
+            return appendSettled(snapshot, delta, type, reference);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    tail.remove(pending);
+                }
+            }
+        });
+        movementRepository.lockSkuShared(skuCode);
+        tail.assign(pending, append(snapshot, delta, type, reference).getId());
+        return snapshot.withQuantity(snapshot.getQuantity() - pending.outstanding);
+    }
+
+    /**
+     * Append the ADJUSTMENT that brings the on-hand quantity to {@code targetQuantity}.
+     * Needs the exact quantity, so it always settles the tail first.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Product adjustTo(String skuCode, int targetQuantity, String reference) {
+        Product snapshot = loadSnapshot(skuCode);
+        settleAndRefresh(snapshot);
+        return appendChecked(snapshot, targetQuantity - snapshot.getQuantity(), StockMovement.ADJUSTMENT, reference);
+    }
+
+    private Product loadSnapshot(String skuCode) {
+        return productRepository.findBySkuCodeIgnoreCase(skuCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + skuCode));
+    }
+
+    /**
+     * Exact path: fold the tail under the exclusive lock (waiting for appends in flight on
+     * any node), then check against the refreshed row.
+     */
+    private Product appendSettled(Product snapshot, int delta, String type, String reference) {
+        settleAndRefresh(snapshot);
+        return appendChecked(snapshot, delta, type, reference);
+    }
+
+    private Product appendChecked(Product snapshot, int delta, String type, String reference) {
+        int quantity = snapshot.getQuantity();
+        if (delta < 0 && quantity - snapshot.getReservedQuantity() < -delta) {
+            log.error("Insufficient stock for SKU [{}] - available: {}, requested: {}",
+                    snapshot.getSkuCode(), quantity - snapshot.getReservedQuantity(), -delta);
+            throw new IllegalStateException("Not enough stock for product: " + snapshot.getSkuCode());
+        }
+        if (delta != 0) {
+            append(snapshot, delta, type, reference);
+        }
+        return snapshot.withQuantity(quantity + delta);
+    }
+
+    private void settleAndRefresh(Product snapshot) {
+        movementRepository.lockSku(snapshot.getSkuCode());
+        if (fold(snapshot.getSkuCode()).isPresent()) {
+            productCache.evictAfterCommit(snapshot.getSkuCode());
+        }
+        // The fold ran as a native UPDATE; the managed entity still holds the old snapshot
+        entityManager.refresh(snapshot);
+    }
+
+    private StockMovement append(Product snapshot, int delta, String type, String reference) {
+        StockMovement movement = movementRepository.save(StockMovement.builder()
+                .productId(snapshot.getId())
+                .skuCode(snapshot.getSkuCode())
+                .delta(delta)
+                .movementType(type)
+                .reference(reference)
+                .createdAt(LocalDateTime.now())
+                .build());
+        dirtySkus.add(ProductCache.key(snapshot.getSkuCode()));
+        return movement;
+    }
+
+    private LocalTail localTail(String skuCode) {
+        return localTails.computeIfAbsent(ProductCache.key(skuCode), key -> new LocalTail());
+    }
+
+    /**
+     * Bring products.quantity up to date before an in-place update of the row. Holds the
+     * SKU's ledger lock until the caller's transaction ends. No-op outside ledger mode.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void settle(String skuCode) {
+        if (!enabled) {
+            return;
+        }
+        movementRepository.lockSku(skuCode);
+        fold(skuCode).ifPresent(product -> productCache.evictAfterCommit(product.getSkuCode()));
+    }
+
+    /**
+     * Append the movements of changes the caller already made to products.quantity in place,
+     * after {@link #settle}; {@code deltas} maps each reference to its signed change. They are
+     * written as folded (ledger_position moves onto the last one), so compaction does not
+     * apply them a second time. No-op outside ledger mode.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordApplied(Product product, String type, Map<String, Integer> deltas) {
+        if (!enabled || deltas.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long last = 0;
+        for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+            last = movementRepository.save(StockMovement.builder()
+                    .productId(product.getId())
+                    .skuCode(product.getSkuCode())
+                    .delta(entry.getValue())
+                    .movementType(type)
+                    .reference(entry.getKey())
+                    .createdAt(now)
+                    .build()).getId();
+        }
+        productRepository.advanceLedgerPosition(product.getId(), last);
+    }
+
+    /**
+     * Fold the tail into products.quantity; the caller holds the SKU's exclusive ledger lock.
+     * Shared-lock deductions may overdraw by up to the other nodes' allowances, which the
+     * quantity >= 0 check would refuse on every retry: the shortfall is written off with
+     * an ADJUSTMENT movement first, so the fold lands on zero.
+     */
+    private Optional<Product> fold(String skuCode) {
+        long projected = movementRepository.projectedQuantity(skuCode).orElse(0L);
+        if (projected < 0) {
+            Product product = loadSnapshot(skuCode);
+            movementRepository.save(StockMovement.builder()
+                    .productId(product.getId())
+                    .skuCode(product.getSkuCode())
+                    .delta(Math.toIntExact(-projected))
+                    .movementType(StockMovement.ADJUSTMENT)
+                    .reference("ledger overdraft")
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            log.error("Ledger overdraft on SKU [{}] - {} units deducted beyond stock were written off; raise "
+                    + "inventory.ledger.reserve-margin", skuCode, -projected);
+        }
+        return productRepository.applyLedgerTail(skuCode);
+    }
+
+    /**
+     * Movement history of a SKU, newest first.
+     */
+    @Transactional(readOnly = true)
+    public StockMovementPage history(String skuCode, Long beforeId, int size) {
+        Product product = productRepository.findBySkuCodeIgnoreCase(skuCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + skuCode));
+        int pageSize = Math.max(1, Math.min(size, historyMaxPageSize));
+        List<StockMovement> items = movementRepository.findHistory(product.getId(),
+                beforeId != null ? beforeId : Long.MAX_VALUE, Limit.of(pageSize));
+        Long nextCursor = items.size() == pageSize ? items.get(items.size() - 1).getId() : null;
+        return new StockMovementPage(items, nextCursor);
+    }
+
+    /**
+     * Fold the tails of SKUs written on this node since the last run, one short
+     * transaction per SKU.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.compact-interval-ms:1000}")
+    public void compactDirty() {
+        if (!enabled || dirtySkus.isEmpty()) {
+            return;
+        }
+        for (String skuCode : List.copyOf(dirtySkus)) {
+            dirtySkus.remove(skuCode);
+            compact(skuCode);
+        }
+    }
+
+    /**
+     * Catch tails this node never saw (written by a node that stopped before compacting).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${inventory.ledger.full-sweep-interval-ms:300000}",
+               initialDelayString = "${inventory.ledger.full-sweep-interval-ms:300000}")
+    public void compactAll() {
+        if (!enabled) {
+            return;
+        }
+        List<String> skus = movementRepository.findSkusWithTail();
+        skus.forEach(this::compact);
+        if (!skus.isEmpty()) {
+            log.info("Ledger sweep compacted {} SKU(s)", skus.size());
+        }
+    }
+
+    private void compact(String skuCode) {
+        try {
+            Optional<Product> compacted = transactionTemplate.execute(status -> {
+                movementRepository.lockSku(skuCode);
+                return fold(skuCode);
+            });
+            compacted.ifPresent(product -> {
+                productCache.evictAfterCommit(product.getSkuCode());
+                if (product.getQuantity() < product.getReservedQuantity()) {
+                    log.error("Ledger overdraft on SKU [{}] - quantity {} below reserved {}; raise "
+                            + "inventory.ledger.reserve-margin", skuCode, product.getQuantity(), product.getReservedQuantity());
+                }
+            });
+        } catch (RuntimeException e) {
+            dirtySkus.add(skuCode);
+            log.error("Failed to compact stock ledger of SKU [{}]: {}", skuCode, e.getMessage());
+        }
+    }
+
+    /** One node-local deduction; id is Long.MAX_VALUE until the movement row is inserted. */
+    private static final class Pending {
+        private final int quantity;
+        private final int outstanding;
+        private long id = Long.MAX_VALUE;
+
+        private Pending(int quantity, int outstanding) {
+            this.quantity = quantity;
+            this.outstanding = outstanding;
+        }
+    }
+
+    /**
+     * Deductions of one SKU appended on this node. Entries drop out once a snapshot with
+     * ledger_position at or past their id is read; rolled-back ones are removed directly.
+     */
+    private static final class LocalTail {
+        private final List<Pending> entries = new ArrayList<>();
+
+        /**
+         * Take {@code quantity} against the snapshot if this node's tail stays within the
+         * allowance and the margin stays available; null means check exactly instead.
+         */
+        synchronized Pending tryTake(Product snapshot, int quantity, int allowance, int margin) {
+            long position = snapshot.getLedgerPosition();
+            entries.removeIf(entry -> entry.id <= position);
+            int outstanding = quantity + entries.stream().mapToInt(entry -> entry.quantity).sum();
+            if (outstanding > allowance
+                    || snapshot.getQuantity() - snapshot.getReservedQuantity() - outstanding < margin) {
+                return null;
+            }
+            Pending pending = new Pending(quantity, outstanding);
+            entries.add(pending);
+            return pending;
+        }
+
+        synchronized void assign(Pending pending, long id) {
+            pending.id = id;
+        }
+
+        synchronized void remove(Pending pending) {
+            entries.remove(pending);
+        }
+
+        synchronized int outstanding() {
+            return entries.stream().mapToInt(entry -> entry.quantity).sum();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package ai.presight.inventoryservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.inventoryservice.cache.ProductCache;
+import ai.presight.inventoryservice.model.Product;
+import ai.presight.inventoryservice.model.ProductStockShard;
+import ai.presight.inventoryservice.repository.ProductRepository;
+import ai.presight.inventoryservice.repository.ProductStockShardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counter-sharded stock for hot SKUs. A sharded SKU keeps its available stock in
+ * product_stock_shards rows instead of the products row, so concurrent deductions
+ * update different rows and single-SKU write throughput grows with the shard count.
+ * - On-hand quantity = products.quantity + sum of shards; reserved holds stay on the
+ *   products row
+ * - A deduction takes from a random unlocked shard that holds enough, then tries the
+ *   products row, and only then locks all shards to take across them
+ * - Paths that work on the products row (reservations, Kafka deduction writer, hot-SKU
+ *   leases) pull what they need from the shards first ({@link #pullToMain})
+ * - The rebalancer evens out the shards and moves stock that landed on the products row
+ *   (restocks, released holds) back into them
+ *
+ * - With inventory.sharding.enabled=false a node folds existing shards back onto the
+ *   products row at startup, so stock is never left where unsharded paths do not look
+ *
+ * Lock order is always products row, then shards in shard order.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockShardService {
+
+    private final ProductStockShardRepository shardRepository;
+    private final ProductRepository productRepository;
+    private final StockLedgerService stockLedgerService;
+    private final ProductCache productCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.sharding.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.sharding.max-shards:64}")
+    private int maxShards;
+
+    @Value("${inventory.sharding.rebalance-skew:0.5}")
+    private double rebalanceSkew;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSharded(Product product) {
+        return product.getStockShards() > 0;
+    }
+
+    /**
+     * The product with its shards included in quantity; unsharded products are returned as is.
+     */
+    public Product withShards(Product product) {
+        if (!isSharded(product)) {
+            return product;
+        }
+        return product.withQuantity(Math.toIntExact(product.getQuantity() + shardRepository.sumQuantity(product.getId())));
+    }
+
+    /**
+     * Deduct from a sharded SKU.
+     *
+     * @param product the (possibly cached) product, for its SKU and the answer's other fields;
+     *                the shard layout is read inside the transaction. Must be detached, or the
+     *                row update's RETURNING would resolve to it with its old quantity
+     * @return the product after the deduction, or empty if there is not enough stock
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Product> deduct(Product product, int quantity) {
+        String skuCode = product.getSkuCode();
+        Optional<Integer> onHand = shardRepository.takeFromAnyShard(skuCode, quantity);
+        if (onHand.isPresent()) {
+            return Optional.of(product.withQuantity(onHand.get()));
+        }
+
+        // No single shard holds enough: the products row may (restock not rebalanced yet)
+        Optional<Product> fromMain = productRepository.deductIfAvailable(skuCode, quantity);
+        if (fromMain.isPresent()) {
+            return Optional.of(withShards(fromMain.get()));
+        }
+
+        List<ProductStockShard> locked = shardRepository.lockShardsBySku(skuCode);
+        int sharded = locked.stream().mapToInt(ProductStockShard::getQuantity).sum();
+        if (sharded < quantity) {
+            return Optional.empty();
+        }
+        take(locked, quantity);
+        shardRepository.flush();
+        return productRepository.findBySkuCodeIgnoreCase(skuCode)
+                .map(current -> current.withQuantity(current.getQuantity() + sharded - quantity));
+    }
+
+    /**
+     * Make at least {@code quantity} available on the products row of a sharded SKU by
+     * moving stock out of its shards. No-op for unsharded SKUs and outside sharding mode.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void pullToMain(String skuCode, int quantity) {
+        if (!enabled) {
+            return;
+        }
+        Optional<Integer> available = productRepository.lockAvailableQuantity(skuCode);
+        if (available.isEmpty() || available.get() >= quantity) {
+            return;
+        }
+        List<ProductStockShard> shards = shardRepository.lockShardsBySku(skuCode);
+        if (shards.isEmpty()) {
+            return;
+        }
+        int pulled = take(shards, quantity - available.get());
+        if (pulled > 0) {
+            shardRepository.flush();
+            productRepository.addQuantity(skuCode, pulled);
+        }
+    }
+
+    /**
+     * Empty the shards of a SKU whose quantity is about to be set outright (product update),
+     * so the new quantity is not added on top of them. The rebalancer spreads it out again.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void clearShards(String skuCode) {
+        if (!enabled) {
+            return;
+        }
+        productRepository.lockAvailableQuantity(skuCode);
+        List<ProductStockShard> shards = shardRepository.lockShardsBySku(skuCode);
+        shards.forEach(shard -> shard.setQuantity(0));
+        shardRepository.flush();
+    }
+
+    /**
+     * Split a SKU's available stock over {@code shardCount} shards, or merge it back onto
+     * the products row with 0 (or 1).
+     */
+    @Transactional
+    public Product configure(String skuCode, int shardCount) {
+        if (!enabled) {
+            throw new IllegalStateException("Stock sharding requires inventory.sharding.enabled");
+        }
+        if (stockLedgerService.isEnabled()) {
+            throw new IllegalStateException("Stock sharding is not available in ledger mode");
+        }
+        if (shardCount < 0 || shardCount > maxShards) {
+            throw new IllegalStateException("Shard count must be between 0 and " + maxShards);
+        }
+        return reshard(skuCode, shardCount);
+    }
+
+    /**
+     * Sharding disabled: merge shards left by an earlier configuration back onto the products
+     * row, one short transaction per SKU.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void foldShardsIfDisabled() {
+        if (enabled) {
+            return;
+        }
+        List<String> skus = productRepository.findShardedSkus();
+        for (String skuCode : skus) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> reshard(skuCode, 0));
+            } catch (RuntimeException e) {
+                log.error("Failed to fold stock shards of SKU [{}]: {}", skuCode, e.getMessage());
+            }
+        }
+        if (!skus.isEmpty()) {
+            log.info("Sharding disabled: folded the stock shards of {} SKU(s) back onto the products row", skus.size());
+        }
+    }
+
+    private Product reshard(String skuCode, int shardCount) {
+        int mainAvailable = productRepository.lockAvailableQuantity(skuCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found (SKU=" + skuCode + ")"));
+        List<ProductStockShard> existing = shardRepository.lockShardsBySku(skuCode);
+        int sharded = existing.stream().mapToInt(ProductStockShard::getQuantity).sum();
+        Product product = productRepository.findBySkuCodeIgnoreCase(skuCode).orElseThrow();
+
+        // Delete before inserting: the new shards reuse the primary keys
+        shardRepository.deleteAll(existing);
+        shardRepository.flush();
+
+        int target = shardCount > 1 ? shardCount : 0;
+        int pool = Math.max(mainAvailable, 0) + sharded;
+        if (target > 0) {
+            List<ProductStockShard> shards = new ArrayList<>(target);
+            for (int i = 0; i < target; i++) {
+                shards.add(new ProductStockShard(product.getId(), i, evenShare(pool, target, i)));
+            }
+            shardRepository.saveAll(shards);
+            product.setQuantity(product.getQuantity() - Math.max(mainAvailable, 0));
+        } else {
+            product.setQuantity(product.getQuantity() + sharded);
+        }
+        product.setStockShards(target);
+        productRepository.save(product);
+        productCache.evictAfterCommit(skuCode);
+
+        log.info("SKU [{}] stock now in {} shard(s); {} units redistributed", skuCode, target, pool);
+        return product.withQuantity(product.getQuantity() + (target > 0 ? pool : 0));
+    }
+
+    /**
+     * Even out skewed shards and sweep stock that landed on the products row into them.
+     */
+    @Scheduled(fixedDelayString = "${inventory.sharding.rebalance-interval-ms:5000}")
+    public void rebalance() {
+        if (!enabled) {
+            return;
+        }
+        for (String skuCode : productRepository.findShardedSkus()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(skuCode));
+            } catch (RuntimeException e) {
+                log.error("Failed to rebalance stock shards of SKU [{}]: {}", skuCode, e.getMessage());
+            }
+        }
+    }
+
+    private void rebalance(String skuCode) {
+        int mainAvailable = Math.max(productRepository.lockAvailableQuantity(skuCode).orElse(0), 0);
+        List<ProductStockShard> shards = shardRepository.lockShardsBySku(skuCode);
+        if (shards.isEmpty()) {
+            return;
+        }
+
+        int total = mainAvailable;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (ProductStockShard shard : shards) {
+            total += shard.getQuantity();
+            min = Math.min(min, shard.getQuantity());
+            max = Math.max(max, shard.getQuantity());
+        }
+        int fairShare = total / shards.size();
+        boolean skewed = max - min > Math.max(1, (int) (fairShare * rebalanceSkew));
+        if (mainAvailable == 0 && !skewed) {
+            return;
+        }
+
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).setQuantity(evenShare(total, shards.size(), i));
+        }
+        shardRepository.flush();
+        if (mainAvailable > 0) {
+            productRepository.addQuantity(skuCode, -mainAvailable);
+        }
+        productCache.evictAfterCommit(skuCode);
+        log.debug("Rebalanced {} shards of SKU [{}] ({} units, {} from the products row)",
+                shards.size(), skuCode, total, mainAvailable);
+    }
+
+    /**
+     * Takes up to {@code quantity} from the given (locked) shards, fullest first.
+     *
+     * @return the amount taken
+     */
+    private static int take(List<ProductStockShard> shards, int quantity) {
+        List<ProductStockShard> fullestFirst = new ArrayList<>(shards);
+        fullestFirst.sort((a, b) -> Integer.compare(b.getQuantity(), a.getQuantity()));
+        int taken = 0;
+        for (ProductStockShard shard : fullestFirst) {
+            int part = Math.min(shard.getQuantity(), quantity - taken);
+            shard.setQuantity(shard.getQuantity() - part);
+            taken += part;
+            if (taken == quantity) {
+                break;
+            }
+        }
+        return taken;
+    }
+
+    private static int evenShare(int total, int shards, int shardNo) {
+        return total / shards + (shardNo < total % shards ? 1 : 0);
+    }
+}
@@ -0,0 +1,90 @@
+package ai.presight.inventoryservice.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ai.presight.inventoryservice.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductCacheTest {
+
+    private final ProductCache cache = new ProductCache(new SimpleMeterRegistry(), 100, 60_000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictionWaitsForCommit() {
+        cache.get("SKU-1", sku -> load(sku, 10));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit("sku-1");
+        assertThat(cache.get("SKU-1", sku -> load(sku, 9)).getQuantity()).isEqualTo(10);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.get("SKU-1", sku -> load(sku, 9)).getQuantity()).isEqualTo(9);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void rolledBackWriteLeavesEntryAlone() {
+        cache.get("SKU-1", sku -> load(sku, 10));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit("SKU-1");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(cache.get("SKU-1", sku -> load(sku, 9)).getQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void evictionDiscardsALoadThatStartedBeforeIt() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Product> staleRead = CompletableFuture.supplyAsync(() -> cache.get("SKU-1", sku -> {
+            loading.countDown();
+            await(release);
+            return load(sku, 10); // row as read before the write committed
+        }));
+        loading.await(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Void> eviction = CompletableFuture.runAsync(() -> cache.evictAfterCommit("SKU-1"));
+        Thread.sleep(100);
+        release.countDown();
+        staleRead.get(5, TimeUnit.SECONDS);
+        eviction.get(5, TimeUnit.SECONDS);
+
+        assertThat(cache.get("SKU-1", sku -> load(sku, 9)).getQuantity()).isEqualTo(9);
+    }
+
+    private Product load(String sku, int quantity) {
+        loads.incrementAndGet();
+        Product product = new Product();
+        product.setSkuCode(sku.toUpperCase());
+        product.setQuantity(quantity);
+        return product;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
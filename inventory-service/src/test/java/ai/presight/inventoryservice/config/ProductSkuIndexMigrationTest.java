@@ -0,0 +1,25 @@
+package ai.presight.inventoryservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ai.presight.inventoryservice.support.PostgresIntegrationTest;
+
+class ProductSkuIndexMigrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ProductSkuIndexMigration migration;
+
+    @Test
+    void missingIndexIsCreatedAndAnExistingOneLeftAlone() {
+        jdbcTemplate.execute("DROP INDEX " + ProductSkuIndexMigration.INDEX);
+
+        migration.migrate();
+        migration.migrate();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT indexdef FROM pg_indexes WHERE indexname = ?",
+                String.class, ProductSkuIndexMigration.INDEX)).contains("UNIQUE").contains("lower");
+    }
+}
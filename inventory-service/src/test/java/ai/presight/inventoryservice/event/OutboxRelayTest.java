@@ -0,0 +1,82 @@
+package ai.presight.inventoryservice.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import ai.presight.common.event.LowStockEvent;
+import ai.presight.inventoryservice.support.PostgresIntegrationTest;
+
+class OutboxRelayTest extends PostgresIntegrationTest {
+
+    @MockBean
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void emptyOutbox() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM outbox_dead_letters");
+        doReturn(CompletableFuture.completedFuture(null)).when(kafkaTemplate).send(anyString(), any(), any());
+    }
+
+    @Test
+    void poisonEventsAreDeadLetteredAndDoNotBlockTheRest() {
+        insertEvent("UnknownEvent", "{}");
+        insertEvent("LowStockEvent", "{not json");
+        insertEvent("LowStockEvent", "{\"skuCode\":\"SKU-1\",\"remainingQty\":3}");
+
+        assertThat(outboxRelay.relayBatch(10)).isEqualTo(3);
+
+        verify(kafkaTemplate, times(1)).send(eq("low-stock-topic"), eq("SKU-1"), any(LowStockEvent.class));
+        assertThat(count("outbox_events")).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT event_type FROM outbox_dead_letters ORDER BY outbox_id", String.class))
+                .containsExactly("UnknownEvent", "LowStockEvent");
+    }
+
+    @Test
+    void unacknowledgedBatchStaysInTheOutbox() {
+        doReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .when(kafkaTemplate).send(anyString(), any(), any());
+        insertEvent("LowStockEvent", "{\"skuCode\":\"SKU-1\",\"remainingQty\":3}");
+
+        try {
+            outboxRelay.relayBatch(10);
+        } catch (IllegalStateException expected) {
+            // retried on the next poll
+        }
+
+        assertThat(count("outbox_events")).isEqualTo(1);
+        assertThat(count("outbox_dead_letters")).isZero();
+    }
+
+    @Test
+    void emptyOutboxSendsNothing() {
+        assertThat(outboxRelay.relayBatch(10)).isZero();
+        verify(kafkaTemplate, never()).send(anyString(), any(), any());
+    }
+
+    private void insertEvent(String type, String payload) {
+        jdbcTemplate.update("INSERT INTO outbox_events (topic, message_key, event_type, payload) VALUES (?, ?, ?, ?)",
+                "low-stock-topic", "SKU-1", type, payload);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,113 @@
+package ai.presight.inventoryservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ai.presight.inventoryservice.model.BulkUpsertResult;
+import ai.presight.inventoryservice.support.PostgresIntegrationTest;
+
+class CatalogImportServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void ndjsonInsertsNewSkusAndUpdatesCaseVariantsOfExistingOnes() throws IOException {
+        String existing = sku("CAT");
+        String fresh = sku("CAT");
+        insertProduct(existing, 5);
+        productService.findBySku(existing); // warm the near cache
+
+        BulkUpsertResult result = upsert(false, """
+                {"skuCode":"%s","name":"Renamed","price":12.50,"quantity":40}
+                {"skuCode":"%s","name":"New","price":3,"quantity":7,"status":"INACTIVE"}
+                """.formatted(existing.toLowerCase(), fresh));
+
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.rejected()).isZero();
+        assertThat(quantityOf(existing)).isEqualTo(40);
+        assertThat(productService.findBySku(existing).getName()).isEqualTo("Renamed");
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM products WHERE sku_code = ?", String.class, fresh))
+                .isEqualTo("INACTIVE");
+    }
+
+    @Test
+    void csvAcceptsQuotedFieldsAndReportsBadRowsByLine() throws IOException {
+        String quoted = sku("CSV");
+        String bad = sku("CSV");
+
+        BulkUpsertResult result = upsert(true, """
+                skuCode,name,price,quantity,status
+                %s,"Widget, large ""XL""\",9.99,3
+                %s,Broken,-1,3
+                %s,Broken,abc,3
+                too,few
+                """.formatted(quoted, bad, bad));
+
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.errors()).hasSize(3);
+        assertThat(result.errors().get(0)).startsWith("line 3:");
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM products WHERE sku_code = ?", String.class, quoted))
+                .isEqualTo("Widget, large \"XL\"");
+        assertThat(jdbcTemplate.queryForObject("SELECT price FROM products WHERE sku_code = ?", BigDecimal.class, quoted))
+                .isEqualByComparingTo("9.99");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM products WHERE sku_code = ?", Integer.class, bad))
+                .isZero();
+    }
+
+    @Test
+    void repeatedSkuIsAppliedOnceWithTheLastRow() throws IOException {
+        String repeated = sku("DUP");
+
+        BulkUpsertResult result = upsert(false, """
+                {"skuCode":"%s","name":"First","price":1,"quantity":1}
+                {"skuCode":"%s","name":"Last","price":1,"quantity":9}
+                """.formatted(repeated, repeated.toLowerCase()));
+
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE lower(sku_code) = lower(?)",
+                Integer.class, repeated)).isEqualTo(9);
+    }
+
+    @Test
+    void quantityBelowReservedStockIsRejected() throws IOException {
+        String held = sku("HELD");
+        String other = sku("HELD");
+        insertProduct(held, 10);
+        insertProduct(other, 10);
+        jdbcTemplate.update("UPDATE products SET reserved_quantity = 6 WHERE sku_code IN (?, ?)", held, other);
+
+        BulkUpsertResult result = upsert(false, """
+                {"skuCode":"%s","name":"Held","price":1,"quantity":5}
+                {"skuCode":"%s","name":"Other","price":1,"quantity":6}
+                """.formatted(held, other));
+
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly("line 1: quantity 5 is below the 6 reserved for " + held);
+        assertThat(quantityOf(held)).isEqualTo(10);
+        assertThat(quantityOf(other)).isEqualTo(6);
+    }
+
+    private BulkUpsertResult upsert(boolean csv, String body) throws IOException {
+        return catalogImportService.upsert(new BufferedReader(new StringReader(body)), csv);
+    }
+
+    private static String sku(String prefix) {
+        return prefix + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
@@ -0,0 +1,191 @@
+package ai.presight.inventoryservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ai.presight.inventoryservice.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@TestPropertySource(properties = {
+        "inventory.hot-skus.enabled=true",
+        "inventory.hot-skus.skus=HOT-FLUSH,HOT-LOST,HOT-BEAT,HOT-STALE,HOT-ROLLBACK,HOT-BENCH",
+        "inventory.hot-skus.lease-size=50",
+        "inventory.hot-skus.node-id=hot-test-node"
+})
+class HotStockServiceTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int DEDUCTIONS_PER_THREAD = 200;
+
+    @Autowired
+    private HotStockService hotStockService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void salesAreFlushedAgainstTheLease() {
+        insertProduct("HOT-FLUSH", 100);
+        for (int i = 0; i < 3; i++) {
+            hotStockService.deductStock("HOT-FLUSH", 5, null);
+        }
+        assertThat(quantityOf("HOT-FLUSH")).isEqualTo(100);
+        assertThat(reservedOf("HOT-FLUSH")).isEqualTo(50);
+
+        hotStockService.flush();
+
+        assertThat(quantityOf("HOT-FLUSH")).isEqualTo(85);
+        assertThat(reservedOf("HOT-FLUSH")).isEqualTo(35);
+        assertThat(held("HOT-FLUSH")).isEqualTo(35);
+    }
+
+    @Test
+    void leaseReleasedUnderTheNodeIsDroppedOnFlush() {
+        insertProduct("HOT-LOST", 100);
+        hotStockService.deductStock("HOT-LOST", 5, null);
+        releaseLeaseLikeASweeper("HOT-LOST");
+
+        hotStockService.flush();
+
+        // The hold is gone, so the sales come out of free stock instead of a reservation
+        assertThat(quantityOf("HOT-LOST")).isEqualTo(95);
+        assertThat(reservedOf("HOT-LOST")).isZero();
+
+        hotStockService.deductStock("HOT-LOST", 5, null);
+        assertThat(held("HOT-LOST")).isEqualTo(50);
+        hotStockService.flush();
+        assertThat(quantityOf("HOT-LOST")).isEqualTo(90);
+        assertThat(reservedOf("HOT-LOST")).isEqualTo(45);
+    }
+
+    @Test
+    void heartbeatNoticesAMissingLeaseRow() {
+        insertProduct("HOT-BEAT", 100);
+        hotStockService.deductStock("HOT-BEAT", 5, null);
+        releaseLeaseLikeASweeper("HOT-BEAT");
+
+        hotStockService.heartbeatAndRecover();
+        hotStockService.flush();
+
+        assertThat(quantityOf("HOT-BEAT")).isEqualTo(95);
+        assertThat(reservedOf("HOT-BEAT")).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM hot_stock_leases WHERE lower(sku_code) = 'hot-beat'",
+                Integer.class)).isZero();
+    }
+
+    @Test
+    void staleLeaseIsRenewedBeforeMemoryIsSoldFrom() throws InterruptedException {
+        insertProduct("HOT-STALE", 100);
+        hotStockService.deductStock("HOT-STALE", 5, null);
+        hotStockService.flush();
+        releaseLeaseLikeASweeper("HOT-STALE");
+        double refillsBefore = refills();
+
+        // Heartbeats missed for longer than the lease may stay unrenewed
+        ReflectionTestUtils.setField(hotStockService, "leaseSafetyMarginMs", 29_990L);
+        try {
+            Thread.sleep(20);
+            hotStockService.deductStock("HOT-STALE", 5, null);
+        } finally {
+            ReflectionTestUtils.setField(hotStockService, "leaseSafetyMarginMs", 5_000L);
+        }
+        hotStockService.flush();
+
+        // The 45 units left in memory were not sold; the deduction came from a new lease
+        assertThat(refills() - refillsBefore).isEqualTo(1);
+        assertThat(quantityOf("HOT-STALE")).isEqualTo(90);
+        assertThat(reservedOf("HOT-STALE")).isEqualTo(45);
+        assertThat(held("HOT-STALE")).isEqualTo(45);
+    }
+
+    @Test
+    void rolledBackDeductionPutsItsUnitsBackIntoTheLease() {
+        insertProduct("HOT-ROLLBACK", 100);
+        String key = UUID.randomUUID().toString();
+        double refillsBefore = refills();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            hotStockService.deductStock("HOT-ROLLBACK", 50, key);
+            status.setRollbackOnly();
+        });
+        hotStockService.deductStock("HOT-ROLLBACK", 50, null);
+        hotStockService.flush();
+
+        assertThat(refills() - refillsBefore).isEqualTo(1);
+        assertThat(quantityOf("HOT-ROLLBACK")).isEqualTo(50);
+        assertThat(reservedOf("HOT-ROLLBACK")).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM processed_deductions WHERE idempotency_key = ?",
+                Integer.class, key)).isZero();
+    }
+
+    @Test
+    void inMemoryLeaseAgainstGuardedRowUpdate() throws Exception {
+        int attempts = THREADS * DEDUCTIONS_PER_THREAD;
+        String cold = "COLD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        insertProduct(cold, attempts);
+        insertProduct("HOT-BENCH", attempts + 1);
+
+        double rowSeconds = timeDeductions(() -> productService.deductStock(cold, 1));
+        // One lease covering the whole run, taken before timing, so only the in-memory path is measured
+        ReflectionTestUtils.setField(hotStockService, "leaseSize", attempts + 1);
+        try {
+            hotStockService.deductStock("HOT-BENCH", 1, null);
+        } finally {
+            ReflectionTestUtils.setField(hotStockService, "leaseSize", 50);
+        }
+        double refillsBefore = refills();
+        double hotSeconds = timeDeductions(() -> hotStockService.deductStock("HOT-BENCH", 1, null));
+        double refillsDuring = refills() - refillsBefore;
+        hotStockService.flush();
+
+        log.info("{} threads x {} deductions: guarded row update {} deductions/s, in-memory lease {} deductions/s",
+                THREADS, DEDUCTIONS_PER_THREAD, Math.round(attempts / rowSeconds), Math.round(attempts / hotSeconds));
+        assertThat(refillsDuring).isZero();
+        assertThat(quantityOf(cold)).isZero();
+        assertThat(quantityOf("HOT-BENCH")).isZero();
+        assertThat(reservedOf("HOT-BENCH")).isZero();
+    }
+
+    private double timeDeductions(Runnable deduction) throws Exception {
+        long started = System.nanoTime();
+        List<Integer> done = runConcurrently(THREADS, () -> {
+            for (int i = 0; i < DEDUCTIONS_PER_THREAD; i++) {
+                deduction.run();
+            }
+            return DEDUCTIONS_PER_THREAD;
+        });
+        assertThat(done).hasSize(THREADS);
+        return (System.nanoTime() - started) / 1e9;
+    }
+
+    /** What another node's sweep does with a lease whose heartbeat expired. */
+    private void releaseLeaseLikeASweeper(String sku) {
+        int held = held(sku);
+        jdbcTemplate.update("UPDATE products SET reserved_quantity = reserved_quantity - ? WHERE sku_code = ?", held, sku);
+        jdbcTemplate.update("DELETE FROM hot_stock_leases WHERE lower(sku_code) = lower(?)", sku);
+    }
+
+    private int held(String sku) {
+        return jdbcTemplate.queryForObject("SELECT held FROM hot_stock_leases WHERE lower(sku_code) = lower(?)", Integer.class, sku);
+    }
+
+    private double refills() {
+        return meterRegistry.counter("inventory.hot_sku.lease_refills").count();
+    }
+}
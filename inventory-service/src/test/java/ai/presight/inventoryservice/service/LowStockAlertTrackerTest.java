@@ -0,0 +1,90 @@
+package ai.presight.inventoryservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ai.presight.common.event.LowStockEvent;
+import ai.presight.common.event.LowStockSummaryEvent;
+import ai.presight.inventoryservice.config.InventoryThresholdConfig;
+
+class LowStockAlertTrackerTest {
+
+    private LowStockAlertTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        InventoryThresholdConfig thresholdConfig = new InventoryThresholdConfig();
+        thresholdConfig.setThreshold(10);
+        tracker = new LowStockAlertTracker(thresholdConfig);
+        ReflectionTestUtils.setField(tracker, "hysteresis", 5);
+    }
+
+    @Test
+    void firesOnceThenCountsSuppressedAlerts() {
+        assertThat(tracker.onStockLevel("SKU-1", 9)).isTrue();
+        assertThat(tracker.onStockLevel("sku-1", 8)).isFalse();
+        assertThat(tracker.onStockLevel("SKU-1", 7)).isFalse();
+
+        LowStockSummaryEvent summary = tracker.drainSummary();
+
+        assertThat(summary.getSuppressedAlerts()).isEqualTo(2);
+        assertThat(summary.getSkus()).extracting(LowStockEvent::getRemainingQty).containsExactly(7);
+        assertThat(tracker.drainSummary()).isNull();
+    }
+
+    @Test
+    void rearmsOnlyAboveTheHighWaterMark() {
+        tracker.onStockLevel("SKU-1", 9);
+
+        // Back above the threshold but below threshold + hysteresis: still alerted
+        assertThat(tracker.onStockLevel("SKU-1", 12)).isFalse();
+        assertThat(tracker.onStockLevel("SKU-1", 9)).isFalse();
+
+        assertThat(tracker.onStockLevel("SKU-1", 15)).isFalse();
+        assertThat(tracker.alertedCount()).isZero();
+        assertThat(tracker.onStockLevel("SKU-1", 9)).isTrue();
+    }
+
+    @Test
+    void skusAreTrackedIndependently() {
+        assertThat(tracker.onStockLevel("SKU-1", 1)).isTrue();
+        assertThat(tracker.onStockLevel("SKU-2", 1)).isTrue();
+        assertThat(tracker.onStockLevel("SKU-3", 50)).isFalse();
+
+        assertThat(tracker.alertedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void alertRolledBackWithItsTransactionRearms() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(tracker.onStockLevel("SKU-1", 9)).isTrue();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(tracker.alertedCount()).isZero();
+        assertThat(tracker.onStockLevel("SKU-1", 8)).isTrue();
+    }
+
+    @Test
+    void committedAlertStaysAlerted() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(tracker.onStockLevel("SKU-1", 9)).isTrue();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(tracker.onStockLevel("SKU-1", 8)).isFalse();
+    }
+}
@@ -0,0 +1,92 @@
+package ai.presight.inventoryservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.common.dto.StockCheckResponse;
+import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.inventoryservice.model.Product;
+import ai.presight.inventoryservice.model.ProductPage;
+import ai.presight.inventoryservice.support.PostgresIntegrationTest;
+
+class ProductServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void batchCheckSumsRepeatedSkusAcrossCase() {
+        String a = sku();
+        String b = sku();
+        insertProduct(a, 5);
+        insertProduct(b, 1);
+
+        List<StockCheckResponse> result = productService.checkStockBatch(List.of(
+                new StockCheckRequest(a, 3), new StockCheckRequest(b, 2), new StockCheckRequest(a.toLowerCase(), 2)));
+
+        assertThat(result).containsExactly(
+                new StockCheckResponse(a, 5, 5, true),
+                new StockCheckResponse(b, 2, 1, false));
+    }
+
+    @Test
+    void batchCheckNamesEveryMissingSku() {
+        String known = sku();
+        insertProduct(known, 5);
+
+        assertThatThrownBy(() -> productService.checkStockBatch(List.of(
+                new StockCheckRequest("NOPE-1", 1), new StockCheckRequest(known, 1), new StockCheckRequest("NOPE-2", 1))))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("NOPE-1,NOPE-2");
+    }
+
+    @Test
+    void fullListingIsAPlainJsonArray() throws Exception {
+        String sku = sku();
+        insertProduct(sku, 7);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        productService.writeAllAsArray(out);
+
+        List<Product> products = objectMapper.readValue(out.toByteArray(), new TypeReference<List<Product>>() {});
+        assertThat(products).filteredOn(p -> p.getSkuCode().equals(sku))
+                .singleElement().satisfies(p -> assertThat(p.getQuantity()).isEqualTo(7));
+    }
+
+    @Test
+    void keysetPagesWalkTheCatalogOnce() {
+        for (int i = 0; i < 5; i++) {
+            insertProduct(sku(), 1);
+        }
+        int total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        do {
+            ProductPage page = productService.findPage(cursor, null, 2);
+            page.items().forEach(p -> seen.add(p.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(total).doesNotHaveDuplicates().isSorted();
+    }
+
+    private static String sku() {
+        return "PRD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
@@ -0,0 +1,161 @@
+package ai.presight.inventoryservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ai.presight.common.dto.ReservationRequest;
+import ai.presight.common.dto.ReservationResponse;
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.inventoryservice.model.StockReservation;
+import ai.presight.inventoryservice.support.PostgresIntegrationTest;
+
+class ReservationServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        String sku = sku();
+        insertProduct(sku, 10);
+
+        List<Boolean> results = runConcurrently(32, () -> {
+            try {
+                reservationService.reserve(request(null, new StockCheckRequest(sku, 1)));
+                return true;
+            } catch (IllegalStateException e) {
+                return false;
+            }
+        });
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(10);
+        assertThat(reservedOf(sku)).isEqualTo(10);
+        assertThat(quantityOf(sku)).isEqualTo(10);
+    }
+
+    @Test
+    void confirmTurnsHoldIntoDeduction() {
+        String sku = sku();
+        insertProduct(sku, 5);
+        String id = reservationService.reserve(request(null, new StockCheckRequest(sku, 3))).reservationId();
+
+        ReservationResponse confirmed = reservationService.confirm(id);
+        reservationService.confirm(id);
+
+        assertThat(confirmed.status()).isEqualTo(StockReservation.CONFIRMED);
+        assertThat(quantityOf(sku)).isEqualTo(2);
+        assertThat(reservedOf(sku)).isZero();
+    }
+
+    @Test
+    void repeatedReserveWithSameItemsReturnsExistingHold() {
+        String a = sku();
+        String b = sku();
+        insertProduct(a, 5);
+        insertProduct(b, 5);
+        String id = UUID.randomUUID().toString();
+
+        reservationService.reserve(request(id, new StockCheckRequest(a, 1), new StockCheckRequest(b, 2)));
+        // Same items in another order and SKU case, split over two lines
+        ReservationResponse again = reservationService.reserve(request(id, new StockCheckRequest(b.toLowerCase(), 1),
+                new StockCheckRequest(a, 1), new StockCheckRequest(b, 1)));
+
+        assertThat(again.reservationId()).isEqualTo(id);
+        assertThat(reservedOf(a)).isEqualTo(1);
+        assertThat(reservedOf(b)).isEqualTo(2);
+    }
+
+    @Test
+    void reusedReservationIdWithDifferentItemsIsRejected() {
+        String a = sku();
+        insertProduct(a, 5);
+        String id = UUID.randomUUID().toString();
+        reservationService.reserve(request(id, new StockCheckRequest(a, 1)));
+
+        assertThatThrownBy(() -> reservationService.reserve(request(id, new StockCheckRequest(a, 2))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("different items");
+        assertThat(reservedOf(a)).isEqualTo(1);
+    }
+
+    @Test
+    void expiredHoldsAreReleased() {
+        String sku = sku();
+        insertProduct(sku, 5);
+        String id = reservationService.reserve(request(null, new StockCheckRequest(sku, 4))).reservationId();
+        expire(id);
+
+        while (reservationService.expireBatch(100) == 100) {
+            // drain holds left expired by other tests too
+        }
+
+        assertThat(reservedOf(sku)).isZero();
+        assertThat(reservationService.find(id).status()).isEqualTo(StockReservation.EXPIRED);
+        assertThatThrownBy(() -> reservationService.confirm(id)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void sweeperAndConfirmsOnSharedSkusDoNotDeadlock() throws Exception {
+        List<String> skus = List.of(sku(), sku(), sku(), sku());
+        skus.forEach(sku -> insertProduct(sku, 1_000));
+
+        // Expired holds listed in the reverse of SKU order, live holds in SKU order
+        for (int i = 0; i < 40; i++) {
+            String expired = reservationService.reserve(request(null,
+                    new StockCheckRequest(skus.get(3), 1), new StockCheckRequest(skus.get(0), 1))).reservationId();
+            jdbcTemplate.update("UPDATE stock_reservations SET expires_at = NOW() - make_interval(secs => ?) "
+                    + "WHERE reservation_id = ? AND lower(sku_code) = lower(?)", 100 - i, expired, skus.get(0));
+            jdbcTemplate.update("UPDATE stock_reservations SET expires_at = NOW() - make_interval(secs => ?) "
+                    + "WHERE reservation_id = ? AND lower(sku_code) = lower(?)", 200 - i, expired, skus.get(3));
+        }
+        List<String> live = new java.util.concurrent.CopyOnWriteArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            live.add(reservationService.reserve(request(null,
+                    new StockCheckRequest(skus.get(0), 1), new StockCheckRequest(skus.get(3), 1))).reservationId());
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        List<Integer> done = runConcurrently(8, () -> {
+            int n = next.getAndIncrement();
+            if (n % 4 == 0) {
+                return reservationService.expireBatch(5);
+            }
+            int confirmed = 0;
+            for (int i = n; i < live.size(); i += 8) {
+                reservationService.confirm(live.get(i));
+                confirmed++;
+            }
+            return confirmed;
+        });
+
+        assertThat(done).hasSize(8);
+        for (String sku : List.of(skus.get(0), skus.get(3))) {
+            int confirmed = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_reservations "
+                    + "WHERE lower(sku_code) = lower(?) AND status = 'CONFIRMED'", Integer.class, sku);
+            int held = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM stock_reservations "
+                    + "WHERE lower(sku_code) = lower(?) AND status = 'HELD'", Integer.class, sku);
+            assertThat(quantityOf(sku)).isEqualTo(1_000 - confirmed);
+            assertThat(reservedOf(sku)).isEqualTo(held);
+        }
+    }
+
+    private void expire(String reservationId) {
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = NOW() - INTERVAL '1 minute' "
+                + "WHERE reservation_id = ?", reservationId);
+    }
+
+    private static ReservationRequest request(String reservationId, StockCheckRequest... items) {
+        return new ReservationRequest(reservationId, null, List.of(items));
+    }
+
+    private static String sku() {
+        return "RSV-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
@@ -0,0 +1,147 @@
+package ai.presight.inventoryservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ai.presight.common.event.StockDeductionCommand;
+import ai.presight.common.event.StockDeductionResult;
+import ai.presight.inventoryservice.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class StockDeductionBatchServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private StockDeductionBatchService batchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void commandsAreMergedPerSkuAndAnsweredInArrivalOrder() {
+        String sku = sku("BATCH");
+        insertProduct(sku, 5);
+        int partition = freshPartition();
+
+        int applied = batchService.applyBatch(List.of(
+                record(partition, 0, command(sku, 3)),
+                record(partition, 1, command(sku, 4)),
+                record(partition, 2, command(sku, 2)),
+                record(partition, 3, command(sku, 0))));
+
+        assertThat(applied).isEqualTo(2);
+        assertThat(quantityOf(sku)).isZero();
+        assertThat(results(sku)).extracting(StockDeductionResult::isApplied, StockDeductionResult::getReason)
+                .containsExactlyInAnyOrder(
+                        tuple(true, null),
+                        tuple(false, "INSUFFICIENT_STOCK"),
+                        tuple(true, null),
+                        tuple(false, "INVALID_QUANTITY"));
+        assertThat(lastOffset(partition)).isEqualTo(3);
+    }
+
+    @Test
+    void firstBatchOfAPartitionSeedsItsOffsetRowAndRedeliveryIsSkipped() {
+        String sku = sku("SEED");
+        insertProduct(sku, 10);
+        int partition = freshPartition();
+        List<ConsumerRecord<String, Object>> batch = List.of(record(partition, 7, command(sku, 4)));
+
+        batchService.applyBatch(batch);
+        assertThat(lastOffset(partition)).isEqualTo(7);
+
+        assertThat(batchService.applyBatch(batch)).isZero();
+        assertThat(quantityOf(sku)).isEqualTo(6);
+        assertThat(results(sku)).hasSize(1);
+    }
+
+    @Test
+    void failingSkuIsRolledBackAloneAndAnsweredWithProcessingError() {
+        String good = sku("GOOD");
+        String poison = sku("POISON");
+        insertProduct(good, 10);
+        insertProduct(poison, 10);
+        int partition = freshPartition();
+        jdbcTemplate.execute("""
+                create or replace function reject_poison() returns trigger as $$
+                begin
+                  if new.sku_code like 'POISON-%' then raise exception 'poisoned row'; end if;
+                  return new;
+                end $$ language plpgsql""");
+        jdbcTemplate.execute("create trigger reject_poison before update on products for each row execute function reject_poison()");
+        try {
+            int applied = batchService.applyBatch(List.of(
+                    record(partition, 0, command(poison, 1)),
+                    record(partition, 1, command(good, 2)),
+                    record(partition, 2, command(poison, 1))));
+
+            assertThat(applied).isEqualTo(1);
+        } finally {
+            jdbcTemplate.execute("drop trigger reject_poison on products");
+        }
+
+        assertThat(quantityOf(good)).isEqualTo(8);
+        assertThat(quantityOf(poison)).isEqualTo(10);
+        assertThat(results(poison)).extracting(StockDeductionResult::getReason)
+                .containsExactly("PROCESSING_ERROR", "PROCESSING_ERROR");
+        assertThat(results(good)).extracting(StockDeductionResult::isApplied).containsExactly(true);
+        assertThat(lastOffset(partition)).isEqualTo(2);
+    }
+
+    @Test
+    void recoveredRecordIsAnsweredOnceAndSkippedOnRedelivery() {
+        String sku = sku("RECOVER");
+        insertProduct(sku, 10);
+        int partition = freshPartition();
+        ConsumerRecord<String, Object> record = record(partition, 4, command(sku, 1));
+
+        batchService.recover(record, new IllegalStateException("database down"));
+        batchService.recover(record, new IllegalStateException("database down"));
+
+        assertThat(results(sku)).extracting(StockDeductionResult::getReason).containsExactly("PROCESSING_ERROR");
+        assertThat(batchService.applyBatch(List.of(record))).isZero();
+        assertThat(quantityOf(sku)).isEqualTo(10);
+    }
+
+    private List<StockDeductionResult> results(String sku) {
+        return jdbcTemplate.queryForList(
+                "select payload from outbox_events where topic = ? and message_key = ? order by id",
+                String.class, StockDeductionBatchService.RESULTS_TOPIC, sku).stream()
+                .map(payload -> {
+                    try {
+                        return objectMapper.readValue(payload, StockDeductionResult.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private long lastOffset(int partition) {
+        return jdbcTemplate.queryForObject("select last_offset from stock_deduction_offsets where partition_id = ?",
+                Long.class, partition);
+    }
+
+    private static int freshPartition() {
+        return ThreadLocalRandom.current().nextInt(1_000, 1_000_000);
+    }
+
+    private static ConsumerRecord<String, Object> record(int partition, long offset, StockDeductionCommand command) {
+        return new ConsumerRecord<>("stock-deduction-commands", partition, offset, command.getSkuCode(), command);
+    }
+
+    private static StockDeductionCommand command(String sku, int quantity) {
+        return new StockDeductionCommand(UUID.randomUUID().toString(), sku, quantity);
+    }
+
+    private static String sku(String prefix) {
+        return prefix + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
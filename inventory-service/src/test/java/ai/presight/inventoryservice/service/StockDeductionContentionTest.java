@@ -0,0 +1,60 @@
+package ai.presight.inventoryservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ai.presight.inventoryservice.support.PostgresIntegrationTest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Contention benchmark for the guarded decrement: many threads hammer one flash-sale SKU
+ * with more demand than stock. Every unit must be sold exactly once; the throughput is logged.
+ */
+@Slf4j
+class StockDeductionContentionTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+    private static final int STOCK = 2_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void flashSaleSkuIsNeverOversold() throws Exception {
+        String sku = "FLASH-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        insertProduct(sku, STOCK);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        long started = System.nanoTime();
+        List<Integer> perThread = runConcurrently(THREADS, () -> {
+            int mine = 0;
+            for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                try {
+                    productService.deductStock(sku, 1);
+                    sold.incrementAndGet();
+                    mine++;
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+            return mine;
+        });
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        log.info("Guarded decrement: {} threads, {} attempts, {} sold, {} rejected in {} s ({} attempts/s)",
+                THREADS, THREADS * ATTEMPTS_PER_THREAD, sold.get(), rejected.get(),
+                String.format("%.2f", seconds), Math.round(THREADS * ATTEMPTS_PER_THREAD / seconds));
+        assertThat(perThread.stream().mapToInt(Integer::intValue).sum()).isEqualTo(STOCK);
+        assertThat(sold).hasValue(STOCK);
+        assertThat(rejected).hasValue(THREADS * ATTEMPTS_PER_THREAD - STOCK);
+        assertThat(quantityOf(sku)).isZero();
+    }
+}
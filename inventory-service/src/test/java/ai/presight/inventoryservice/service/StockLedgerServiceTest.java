@@ -0,0 +1,166 @@
+package ai.presight.inventoryservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ai.presight.common.dto.ReservationRequest;
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.inventoryservice.support.PostgresIntegrationTest;
+
+@TestPropertySource(properties = {
+        "inventory.ledger.enabled=true",
+        "inventory.ledger.node-allowance=5",
+        "inventory.ledger.reserve-margin=10"
+})
+class StockLedgerServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compactionFoldsTheTailIntoTheSnapshot() {
+        String sku = sku("LEDGER");
+        insertProduct(sku, 1000);
+        productService.deductStock(sku, 2);
+        productService.deductStock(sku, 2);
+
+        // Appends leave the products row alone until compaction
+        assertThat(quantityOf(sku)).isEqualTo(1000);
+        assertThat(tailOf(sku)).isEqualTo(2);
+
+        stockLedgerService.compactDirty();
+
+        assertThat(quantityOf(sku)).isEqualTo(996);
+        assertThat(tailOf(sku)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT ledger_position FROM products WHERE sku_code = ?",
+                Long.class, sku)).isEqualTo(jdbcTemplate.queryForObject(
+                        "SELECT MAX(id) FROM stock_movements WHERE sku_code = ?", Long.class, sku));
+    }
+
+    @Test
+    void deductionBeyondTheNodeAllowanceSettlesFirst() {
+        String sku = sku("LEDGER");
+        insertProduct(sku, 1000);
+        for (int i = 0; i < 5; i++) {
+            productService.deductStock(sku, 1);
+        }
+        assertThat(quantityOf(sku)).isEqualTo(1000);
+
+        productService.deductStock(sku, 1);
+
+        // The sixth unit is over the allowance, so the first five were folded before it was checked
+        assertThat(quantityOf(sku)).isEqualTo(995);
+        assertThat(tailOf(sku)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDeductionsNearTheFloorNeverOversell() throws Exception {
+        String sku = sku("LEDGER");
+        insertProduct(sku, 30);
+
+        List<Boolean> results = runConcurrently(40, () -> {
+            try {
+                productService.deductStock(sku, 1);
+                return true;
+            } catch (IllegalStateException e) {
+                return false;
+            }
+        });
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(30);
+        stockLedgerService.compactAll();
+        assertThat(quantityOf(sku)).isZero();
+    }
+
+    @Test
+    void rolledBackDeductionGivesBackItsAllowance() {
+        String sku = sku("LEDGER");
+        insertProduct(sku, 1000);
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.deductStock(sku, 5);
+            status.setRollbackOnly();
+        });
+
+        for (int i = 0; i < 5; i++) {
+            productService.deductStock(sku, 1);
+        }
+
+        // Still within the allowance: nothing was settled into the row
+        assertThat(quantityOf(sku)).isEqualTo(1000);
+        assertThat(tailOf(sku)).isEqualTo(5);
+    }
+
+    @Test
+    void adjustmentSettlesTheTailBeforeComputingItsDelta() {
+        String sku = sku("LEDGER");
+        insertProduct(sku, 100);
+        productService.deductStock(sku, 3);
+
+        stockLedgerService.compactDirty();
+        productService.deductStock(sku, 4);
+        transactionTemplate.executeWithoutResult(status -> stockLedgerService.adjustTo(sku, 50, "count"));
+        stockLedgerService.compactDirty();
+
+        assertThat(quantityOf(sku)).isEqualTo(50);
+    }
+
+    @Test
+    void confirmedReservationLeavesAMovementThatIsNotFoldedTwice() {
+        String sku = sku("LEDGER");
+        insertProduct(sku, 100);
+        productService.deductStock(sku, 2);
+        String id = reservationService.reserve(new ReservationRequest(null, null,
+                List.of(new StockCheckRequest(sku, 10)))).reservationId();
+
+        reservationService.confirm(id);
+        stockLedgerService.compactAll();
+
+        assertThat(quantityOf(sku)).isEqualTo(88);
+        assertThat(tailOf(sku)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT delta FROM stock_movements WHERE sku_code = ? AND reference = ?",
+                Integer.class, sku, id)).isEqualTo(-10);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(delta) FROM stock_movements WHERE sku_code = ?",
+                Integer.class, sku)).isEqualTo(-12);
+    }
+
+    @Test
+    void overdraftIsWrittenOffInsteadOfFailingCompaction() {
+        String sku = sku("LEDGER");
+        long id = insertProduct(sku, 5);
+        // Two nodes each deducting within their allowance against the same snapshot
+        jdbcTemplate.update("INSERT INTO stock_movements (product_id, sku_code, delta, movement_type, created_at) "
+                + "VALUES (?, ?, -4, 'DEDUCTION', NOW()), (?, ?, -4, 'DEDUCTION', NOW())", id, sku, id, sku);
+
+        stockLedgerService.compactAll();
+
+        assertThat(quantityOf(sku)).isZero();
+        assertThat(tailOf(sku)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT delta FROM stock_movements WHERE sku_code = ? "
+                + "AND movement_type = 'ADJUSTMENT'", Integer.class, sku)).isEqualTo(3);
+    }
+
+    private int tailOf(String sku) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_movements m JOIN products p "
+                + "ON p.id = m.product_id WHERE p.sku_code = ? AND m.id > p.ledger_position", Integer.class, sku);
+    }
+
+    private static String sku(String prefix) {
+        return prefix + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
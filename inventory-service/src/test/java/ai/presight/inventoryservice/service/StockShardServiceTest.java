@@ -0,0 +1,144 @@
+package ai.presight.inventoryservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ai.presight.inventoryservice.cache.ProductCache;
+import ai.presight.inventoryservice.model.Product;
+import ai.presight.inventoryservice.support.PostgresIntegrationTest;
+
+@TestPropertySource(properties = "inventory.sharding.enabled=true")
+class StockShardServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private StockShardService stockShardService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentDeductionsSpreadOverShardsWithoutOverselling() throws Exception {
+        String sku = sku("SHARD");
+        insertProduct(sku, 100);
+        stockShardService.configure(sku, 4);
+
+        List<Boolean> results = runConcurrently(120, () -> {
+            try {
+                productService.deductStock(sku, 1);
+                return true;
+            } catch (IllegalStateException e) {
+                return false;
+            }
+        });
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(100);
+        assertThat(quantityOf(sku)).isZero();
+        assertThat(shardedOf(sku)).isZero();
+    }
+
+    @Test
+    void deductionAcrossShardsLocksThemAll() {
+        String sku = sku("SHARD");
+        insertProduct(sku, 50);
+        stockShardService.configure(sku, 4);
+
+        Product updated = productService.deductStock(sku, 20);
+
+        assertThat(updated.getQuantity()).isEqualTo(30);
+        assertThat(shardedOf(sku)).isEqualTo(30);
+    }
+
+    @Test
+    void shardsMadeOnAnotherNodeAreFoundDespiteTheCachedCount() {
+        String sku = sku("SHARD");
+        long id = insertProduct(sku, 50);
+        productService.findBySku(sku); // cached as unsharded
+
+        splitLikeAnotherNode(id, 25, 25);
+        productService.deductStock(sku, 10);
+
+        assertThat(quantityOf(sku)).isZero();
+        assertThat(shardedOf(sku)).isEqualTo(40);
+    }
+
+    @Test
+    void shardsMergedOnAnotherNodeAreNotLookedForAnyMore() {
+        String sku = sku("SHARD");
+        long id = insertProduct(sku, 50);
+        stockShardService.configure(sku, 4);
+        productService.findBySku(sku); // cached as sharded
+
+        jdbcTemplate.update("DELETE FROM product_stock_shards WHERE product_id = ?", id);
+        jdbcTemplate.update("UPDATE products SET quantity = 50, stock_shards = 0 WHERE id = ?", id);
+        productService.deductStock(sku, 10);
+
+        assertThat(quantityOf(sku)).isEqualTo(40);
+    }
+
+    @Test
+    void deductionAnswersTheQuantityAfterItWhenTheRowWasLoadedForRouting() {
+        String plain = sku("SHARD");
+        String restocked = sku("SHARD");
+        insertProduct(plain, 50);
+        insertProduct(restocked, 40);
+        stockShardService.configure(restocked, 4);
+        // Restocked on the row, not rebalanced yet: no single shard holds 20, the row does
+        jdbcTemplate.update("UPDATE products SET quantity = 30 WHERE sku_code = ?", restocked);
+        productCache.evictAll();
+
+        assertThat(transactionTemplate.execute(status -> productService.deductStock(plain, 3)).getQuantity())
+                .isEqualTo(47);
+        assertThat(transactionTemplate.execute(status -> productService.deductStock(restocked, 20)).getQuantity())
+                .isEqualTo(50);
+    }
+
+    @Test
+    void disabledShardingFoldsExistingShardsBack() {
+        String sku = sku("SHARD");
+        long id = insertProduct(sku, 15);
+        splitLikeAnotherNode(id, 7, 8);
+
+        ReflectionTestUtils.setField(stockShardService, "enabled", false);
+        try {
+            stockShardService.foldShardsIfDisabled();
+        } finally {
+            ReflectionTestUtils.setField(stockShardService, "enabled", true);
+        }
+
+        assertThat(quantityOf(sku)).isEqualTo(15);
+        assertThat(shardedOf(sku)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT stock_shards FROM products WHERE id = ?", Integer.class, id))
+                .isZero();
+    }
+
+    /** Moves the stock into two shards behind this node's back (its near cache is not told). */
+    private void splitLikeAnotherNode(long productId, int first, int second) {
+        jdbcTemplate.update("INSERT INTO product_stock_shards (product_id, shard_no, quantity) VALUES (?, 0, ?), (?, 1, ?)",
+                productId, first, productId, second);
+        jdbcTemplate.update("UPDATE products SET quantity = quantity - ?, stock_shards = 2 WHERE id = ?",
+                first + second, productId);
+    }
+
+    private int shardedOf(String sku) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(s.quantity), 0) FROM product_stock_shards s "
+                + "JOIN products p ON p.id = s.product_id WHERE p.sku_code = ?", Integer.class, sku);
+    }
+
+    private static String sku(String prefix) {
+        return prefix + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
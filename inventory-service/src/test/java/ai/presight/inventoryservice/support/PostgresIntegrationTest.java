@@ -0,0 +1,110 @@
+package ai.presight.inventoryservice.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Boots inventory-service against an embedded PostgreSQL (one per test JVM) created from
+ * db/inventorydb-schema.sql. Discovery, config server and Kafka topic creation are off, and
+ * scheduled jobs are pushed out so tests drive sweeps and flushes themselves.
+ */
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.kubernetes.enabled=false",
+        "spring.cloud.discovery.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.kafka.bootstrap-servers=localhost:1",
+        "spring.kafka.admin.auto-create=false",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/inventorydb-schema.sql",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "inventory.threshold=10",
+        "inventory.outbox.relay-interval-ms=3600000",
+        "inventory.low-stock.summary-interval-ms=3600000",
+        "inventory.hot-skus.flush-interval-ms=3600000",
+        "inventory.hot-skus.recovery-interval-ms=3600000",
+        "inventory.ledger.compact-interval-ms=3600000",
+        "inventory.ledger.full-sweep-interval-ms=3600000",
+        "inventory.reservation.sweep-interval-ms=3600000",
+        "inventory.sharding.rebalance-interval-ms=3600000",
+        "logging.level.org.apache.kafka=ERROR",
+        "logging.level.ai.presight.inventoryservice=INFO"
+})
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+    }
+
+    /**
+     * Inserts a product straight into the table and returns its id.
+     */
+    protected long insertProduct(String skuCode, int quantity) {
+        return jdbcTemplate.queryForObject("INSERT INTO products (sku_code, name, price, quantity) "
+                + "VALUES (?, ?, 10.00, ?) RETURNING id", Long.class, skuCode, "Product " + skuCode, quantity);
+    }
+
+    protected int quantityOf(String skuCode) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE sku_code = ?", Integer.class, skuCode);
+    }
+
+    protected int reservedOf(String skuCode) {
+        return jdbcTemplate.queryForObject("SELECT reserved_quantity FROM products WHERE sku_code = ?",
+                Integer.class, skuCode);
+    }
+
+    /**
+     * Runs the task on the given number of threads, all released at once, and returns the results.
+     */
+    protected static <T> List<T> runConcurrently(int threads, Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+-- inventorydb part of DB-Design.sql; integration tests run against this schema, keep the two in sync
+
+-- Drop existing table if any (for dev use)
+DROP TABLE IF EXISTS products CASCADE;
+
+-- Create table
+CREATE TABLE products (
+    id BIGSERIAL PRIMARY KEY,
+    sku_code VARCHAR(50) UNIQUE NOT NULL,
+    name VARCHAR(150) NOT NULL,
+    price NUMERIC(10,2) NOT NULL,
+    quantity INT NOT NULL CHECK (quantity >= 0),
+    reserved_quantity INT NOT NULL DEFAULT 0 CHECK (reserved_quantity >= 0),
+    status VARCHAR(20) DEFAULT 'ACTIVE',
+    stock_shards INT NOT NULL DEFAULT 0,         -- > 0: available stock is split over product_stock_shards
+    ledger_position BIGINT NOT NULL DEFAULT 0,   -- last stock_movements id folded into quantity
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW()
+);
+
+-- Indexes
+-- SKU lookups are case-insensitive (lower(sku_code) = lower(?)), so index the expression
+CREATE UNIQUE INDEX idx_products_sku_lower ON products (lower(sku_code));
+-- (status, id) serves keyset pages filtered by status
+CREATE INDEX idx_products_status ON products (status, id);
+
+-- Stock shards of hot SKUs: on-hand = products.quantity + SUM(shards); holds stay on products
+DROP TABLE IF EXISTS product_stock_shards;
+
+CREATE TABLE product_stock_shards (
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    shard_no INT NOT NULL,
+    quantity INT NOT NULL CHECK (quantity >= 0),
+    PRIMARY KEY (product_id, shard_no)
+);
+
+-- Stock ledger (ledger mode): append-only quantity changes; products.quantity is the
+-- compacted snapshot up to products.ledger_position, later rows are the unapplied tail
+DROP TABLE IF EXISTS stock_movements;
+
+CREATE TABLE stock_movements (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    sku_code VARCHAR(50) NOT NULL,
+    delta INT NOT NULL,
+    movement_type VARCHAR(20) NOT NULL,
+    reference VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- (product_id, id) serves both the tail sum and the per-SKU history pages
+CREATE INDEX idx_stock_movements_product ON stock_movements (product_id, id);
+
+-- Hot-SKU leases: stock a node holds (inside products.reserved_quantity) for in-memory deductions
+DROP TABLE IF EXISTS hot_stock_leases;
+
+CREATE TABLE hot_stock_leases (
+    lease_id VARCHAR(120) PRIMARY KEY,
+    node_id VARCHAR(64) NOT NULL,
+    sku_code VARCHAR(50) NOT NULL,
+    held INT NOT NULL CHECK (held >= 0),
+    heartbeat_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_hot_stock_leases_node ON hot_stock_leases (node_id);
+CREATE INDEX idx_hot_stock_leases_heartbeat ON hot_stock_leases (heartbeat_at);
+
+-- Stock reservations (holds placed by order-service, confirmed / released / expired later)
+DROP TABLE IF EXISTS stock_reservations;
+
+CREATE TABLE stock_reservations (
+    id BIGSERIAL PRIMARY KEY,
+    reservation_id VARCHAR(64) NOT NULL,
+    sku_code VARCHAR(50) NOT NULL,
+    quantity INT NOT NULL CHECK (quantity > 0),
+    status VARCHAR(20) NOT NULL DEFAULT 'HELD',
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    UNIQUE (reservation_id, sku_code)
+);
+
+CREATE INDEX idx_reservations_id ON stock_reservations (reservation_id);
+-- Sweeper only scans open holds
+CREATE INDEX idx_reservations_held_expiry ON stock_reservations (expires_at) WHERE status = 'HELD';
+
+-- Transactional outbox: events written with the stock change, relayed to Kafka and deleted
+DROP TABLE IF EXISTS outbox_events;
+
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(100) NOT NULL,
+    message_key VARCHAR(100),
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW()
+);
+
+-- Outbox events the relay could not send (unknown type, unreadable payload); kept for replay
+DROP TABLE IF EXISTS outbox_dead_letters;
+
+CREATE TABLE outbox_dead_letters (
+    id BIGSERIAL PRIMARY KEY,
+    outbox_id BIGINT NOT NULL,
+    topic VARCHAR(100) NOT NULL,
+    message_key VARCHAR(100),
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    error TEXT NOT NULL,
+    created_at TIMESTAMP,
+    failed_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Progress of the stock-deduction-commands consumer, committed with each micro-batch
+DROP TABLE IF EXISTS stock_deduction_offsets;
+
+CREATE TABLE stock_deduction_offsets (
+    partition_id INT PRIMARY KEY,
+    last_offset BIGINT NOT NULL
+);
+
+-- Idempotency-Keys of applied /deduct calls, inserted in the deduction's transaction
+DROP TABLE IF EXISTS processed_deductions;
+
+CREATE TABLE processed_deductions (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    sku_code VARCHAR(50) NOT NULL,
+    quantity INT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_processed_deductions_created ON processed_deductions (created_at);
@@ -13,10 +13,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "ai.presight")
 @EnableDiscoveryClient
 @EnableRetry
+@EnableScheduling
 @EnableFeignClients(basePackages = "ai.presight.orderservice.client")
 public class OrderServiceApplication {
 
@@ -0,0 +1,132 @@
+package ai.presight.orderservice.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AIMD concurrency limit for calls to inventory-service, driven by observed latency.
+ * - A call that finds inFlight ≥ limit is rejected immediately (load shedding)
+ * - A fast success grows the limit additively (about +1 per limit's worth of calls)
+ * - A slow call (RTT above tolerance × baseline) or an overload failure shrinks it
+ *   multiplicatively
+ * - baseline is the minimum RTT seen over the current and the previous window. Every
+ *   completed call feeds it, slow ones included, so after a lasting latency shift the
+ *   baseline moves within two windows instead of pinning the limit at minLimit
+ *
+ * Exposed as inventory.client.limit / inventory.client.inflight gauges and the
+ * inventory.client.rejected counter.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double rttTolerance;
+    private final long windowNanos;
+
+    private double limit;
+    private long windowStartNanos = System.nanoTime();
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private long previousWindowMinRttNanos = Long.MAX_VALUE;
+
+    public AdaptiveConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${order.inventory.limiter.initial-limit:20}") int initialLimit,
+            @Value("${order.inventory.limiter.min-limit:2}") int minLimit,
+            @Value("${order.inventory.limiter.max-limit:200}") int maxLimit,
+            @Value("${order.inventory.limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${order.inventory.limiter.rtt-tolerance:2.0}") double rttTolerance,
+            @Value("${order.inventory.limiter.baseline-window-ms:10000}") long baselineWindowMs
+    ) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.rttTolerance = rttTolerance;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(baselineWindowMs);
+
+        Gauge.builder("inventory.client.limit", this, AdaptiveConcurrencyLimiter::currentLimit)
+                .description("Current adaptive concurrency limit towards inventory-service")
+                .register(meterRegistry);
+        Gauge.builder("inventory.client.inflight", inFlight, AtomicInteger::get)
+                .description("Inventory calls currently in flight")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("inventory.client.rejected")
+                .description("Inventory calls shed by the concurrency limiter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a slot, or return false (and count a rejection) if the limit is reached.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a slot taken by {@link #tryAcquire()} and feed the outcome into the limit.
+     *
+     * @param rttNanos observed round-trip time
+     * @param overload true if the call failed in a way that signals inventory overload
+     */
+    public void release(long rttNanos, boolean overload) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            if (!overload) {
+                // Overload failures are often fast rejections and would drag the baseline down
+                recordRtt(rttNanos);
+            }
+            boolean slow = rttNanos > baselineRttNanos() * rttTolerance;
+            if (overload || slow) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    private void recordRtt(long rttNanos) {
+        long now = System.nanoTime();
+        if (now - windowStartNanos >= windowNanos) {
+            previousWindowMinRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowStartNanos = now;
+        }
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+    }
+
+    private long baselineRttNanos() {
+        long baseline = Math.min(windowMinRttNanos, previousWindowMinRttNanos);
+        return baseline == Long.MAX_VALUE ? 0 : baseline;
+    }
+
+    public synchronized int currentLimit() {
+        return (int) limit;
+    }
+
+    public synchronized long baselineRttMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(baselineRttNanos());
+    }
+}
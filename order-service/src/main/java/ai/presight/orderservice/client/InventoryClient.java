@@ -7,14 +7,21 @@
  */
 package ai.presight.orderservice.client;
 
+import java.util.List;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 import ai.presight.common.config.FeignConfig;
+import ai.presight.common.dto.ReservationRequest;
+import ai.presight.common.dto.ReservationResponse;
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.common.dto.StockCheckResponse;
 
 @FeignClient(
 	    name = "inventory-service",
 	    path = "/api/v1/inventory",
-	    configuration = FeignConfig.class
+	    configuration = FeignConfig.class,
+	    primary = false,
+	    qualifiers = "inventoryFeignClient"
 	)
 	public interface InventoryClient {
 
@@ -23,8 +30,25 @@ import ai.presight.common.config.FeignConfig;
 	                      @RequestParam("qty") int qty,
 	                      @RequestHeader(value = "Authorization", required = false) String authHeader);
 
+	    @PostMapping("/check-batch")
+	    List<StockCheckResponse> checkStockBatch(@RequestBody List<StockCheckRequest> items,
+	                                             @RequestHeader(value = "Authorization", required = false) String authHeader);
+
 	    @PostMapping("/deduct")
 	    void deductStock(@RequestParam("skuCode") String skuCode,
 	                     @RequestParam("qty") int qty,
-	                     @RequestHeader(value = "Authorization", required = false) String authHeader);
+	                     @RequestHeader(value = "Authorization", required = false) String authHeader,
+	                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey);
+
+	    @PostMapping("/reservations")
+	    ReservationResponse reserve(@RequestBody ReservationRequest request,
+	                                @RequestHeader(value = "Authorization", required = false) String authHeader);
+
+	    @PostMapping("/reservations/{reservationId}/confirm")
+	    ReservationResponse confirmReservation(@PathVariable("reservationId") String reservationId,
+	                                           @RequestHeader(value = "Authorization", required = false) String authHeader);
+
+	    @PostMapping("/reservations/{reservationId}/release")
+	    ReservationResponse releaseReservation(@PathVariable("reservationId") String reservationId,
+	                                           @RequestHeader(value = "Authorization", required = false) String authHeader);
 	}
@@ -0,0 +1,89 @@
+package ai.presight.orderservice.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans out per-item inventory calls on virtual threads.
+ * - At most maxConcurrency calls of one order are in flight at a time
+ * - The first failure cancels the remaining calls and is rethrown (fail-fast)
+ * - The caller's SecurityContext and request attributes are copied onto every task,
+ *   so FeignConfig still forwards the Authorization and X-Identity headers
+ */
+@Slf4j
+@Component
+public class InventoryFanOutExecutor {
+
+    private final ExecutorService executor =
+            new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+
+    @Value("${order.inventory.parallel.max-concurrency:8}")
+    private int maxConcurrency;
+
+    /**
+     * Run the call for every item concurrently and wait for all of them.
+     *
+     * @param items per-item arguments
+     * @param call  inventory call to make for each item
+     */
+    public <T> void invokeAll(List<T> items, Consumer<T> call) {
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> futures = new ArrayList<>(items.size());
+        // RequestContextHolder is thread-bound, so hand the caller's request to each task
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        for (T item : items) {
+            futures.add(completion.submit(() -> {
+                permits.acquire();
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    call.accept(item);
+                    return null;
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                    permits.release();
+                }
+            }));
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                completion.take().get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            log.warn(" Inventory fan-out failed fast: {}", e.getCause().getMessage());
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for inventory calls", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,242 @@
+package ai.presight.orderservice.client;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import ai.presight.common.dto.ReservationRequest;
+import ai.presight.common.dto.ReservationResponse;
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.common.dto.StockCheckResponse;
+import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.orderservice.exception.InventoryOverloadException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The InventoryClient the rest of order-service sees. Wraps the Feign client with
+ * - an adaptive concurrency limit on every call (see {@link AdaptiveConcurrencyLimiter})
+ * - optional hedging of the idempotent reads (isInStock, checkStockBatch): if the first
+ *   attempt has not answered after the observed p95 read latency, a second attempt is
+ *   sent (the load balancer routes it to the next instance) and the first answer wins
+ *
+ * Metrics: inventory.client.latency{op}, inventory.client.hedge.issued/won.
+ */
+@Slf4j
+@Primary
+@Component
+public class ResilientInventoryClient implements InventoryClient {
+
+    private final InventoryClient delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final MeterRegistry meterRegistry;
+    private final Timer readLatency;
+    private final Counter hedgesIssued;
+    private final Counter hedgesWon;
+    private final ExecutorService hedgeExecutor =
+            new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+
+    @Value("${order.inventory.limiter.enabled:true}")
+    private boolean limiterEnabled;
+
+    @Value("${order.inventory.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${order.inventory.hedging.min-delay-ms:20}")
+    private long minHedgeDelayMs;
+
+    @Value("${order.inventory.hedging.initial-delay-ms:100}")
+    private long initialHedgeDelayMs;
+
+    public ResilientInventoryClient(@Qualifier("inventoryFeignClient") InventoryClient delegate,
+                                    AdaptiveConcurrencyLimiter limiter,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+        this.meterRegistry = meterRegistry;
+        this.readLatency = Timer.builder("inventory.client.latency")
+                .tag("op", "read")
+                .publishPercentiles(0.95)
+                .register(meterRegistry);
+        this.hedgesIssued = Counter.builder("inventory.client.hedge.issued").register(meterRegistry);
+        this.hedgesWon = Counter.builder("inventory.client.hedge.won").register(meterRegistry);
+    }
+
+    @Override
+    public boolean isInStock(String skuCode, int qty, String authHeader) {
+        return hedged(() -> delegate.isInStock(skuCode, qty, authHeader));
+    }
+
+    @Override
+    public List<StockCheckResponse> checkStockBatch(List<StockCheckRequest> items, String authHeader) {
+        return hedged(() -> delegate.checkStockBatch(items, authHeader));
+    }
+
+    @Override
+    public void deductStock(String skuCode, int qty, String authHeader, String idempotencyKey) {
+        limited("deduct", () -> {
+            delegate.deductStock(skuCode, qty, authHeader, idempotencyKey);
+            return null;
+        });
+    }
+
+    @Override
+    public ReservationResponse reserve(ReservationRequest request, String authHeader) {
+        return limited("reserve", () -> delegate.reserve(request, authHeader));
+    }
+
+    @Override
+    public ReservationResponse confirmReservation(String reservationId, String authHeader) {
+        return limited("confirm", () -> delegate.confirmReservation(reservationId, authHeader));
+    }
+
+    @Override
+    public ReservationResponse releaseReservation(String reservationId, String authHeader) {
+        return limited("release", () -> delegate.releaseReservation(reservationId, authHeader));
+    }
+
+    /**
+     * Run one call under the concurrency limit and record its latency.
+     */
+    private <T> T limited(String op, Supplier<T> call) {
+        if (limiterEnabled && !limiter.tryAcquire()) {
+            throw new InventoryOverloadException("Inventory concurrency limit reached (" + limiter.currentLimit() + ")");
+        }
+        long start = System.nanoTime();
+        boolean overload = false;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            overload = isOverload(e);
+            throw e;
+        } finally {
+            long rtt = System.nanoTime() - start;
+            if (limiterEnabled) {
+                limiter.release(rtt, overload);
+            }
+            (op.equals("read") ? readLatency : meterRegistry.timer("inventory.client.latency", "op", op))
+                    .record(rtt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> T hedged(Supplier<T> call) {
+        if (!hedgingEnabled) {
+            return limited("read", call);
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(
+                () -> withRequest(requestAttributes, () -> limited("read", call)), hedgeExecutor);
+        try {
+            return primary.get(hedgeDelayMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException slow) {
+            // fall through to hedge
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for inventory", e);
+        }
+
+        if (limiterEnabled && limiter.currentLimit() <= 1) {
+            return await(primary); // no headroom to spend on a duplicate
+        }
+        hedgesIssued.increment();
+        CompletableFuture<T> hedge = CompletableFuture.supplyAsync(
+                () -> withRequest(requestAttributes, () -> limited("read", call)), hedgeExecutor);
+
+        // First successful answer wins; fail only if both attempts fail
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                winner.complete(value);
+            } else if (hedge.isCompletedExceptionally()) {
+                winner.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((value, error) -> {
+            if (error == null) {
+                if (winner.complete(value)) {
+                    hedgesWon.increment();
+                }
+            } else if (primary.isCompletedExceptionally()) {
+                winner.completeExceptionally(error);
+            }
+        });
+        try {
+            return await(winner);
+        } finally {
+            primary.cancel(true);
+            hedge.cancel(true);
+        }
+    }
+
+    private long hedgeDelayMs() {
+        double p95Nanos = 0;
+        for (var percentile : readLatency.takeSnapshot().percentileValues()) {
+            p95Nanos = percentile.value(TimeUnit.NANOSECONDS);
+        }
+        long p95Ms = TimeUnit.NANOSECONDS.toMillis((long) p95Nanos);
+        return p95Ms > 0 ? Math.max(minHedgeDelayMs, p95Ms) : initialHedgeDelayMs;
+    }
+
+    private static <T> T withRequest(RequestAttributes attributes, Supplier<T> call) {
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            return call.get();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for inventory", e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause instanceof java.util.concurrent.CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+    }
+
+    /**
+     * Client errors mapped by FeignConfig mean inventory answered; anything else
+     * (timeouts, connection errors, 5xx) counts as overload.
+     */
+    private static boolean isOverload(RuntimeException e) {
+        return !(e instanceof IllegalArgumentException
+                || e instanceof IllegalStateException
+                || e instanceof ResourceNotFoundException
+                || e instanceof SecurityException);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,74 @@
+package ai.presight.orderservice.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the order id sequences past ids already in the tables.
+ * Databases created with BIGSERIAL ids get orders_seq / order_items_seq from ddl-auto
+ * starting at 1, which would collide with existing rows. Runs once per start, after
+ * Hibernate's schema update and before the web server and listeners take traffic; an
+ * advisory lock keeps replicas that start together from racing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderIdSequenceMigration implements SmartInitializingSingleton {
+
+    /** Must match the allocationSize of the entity sequence generators. */
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders", "orders_seq",
+            "order_items", "order_items_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("select pg_advisory_xact_lock(hashtext('order-id-sequences'))");
+            SEQUENCES.forEach(this::migrate);
+        });
+    }
+
+    void migrate(String table, String sequence) {
+        if (jdbcTemplate.queryForObject("select to_regclass(?) is null", Boolean.class, table)) {
+            return;
+        }
+        jdbcTemplate.execute("create sequence if not exists " + sequence
+                + " start with 1 increment by " + ALLOCATION_SIZE);
+        // With the pooled optimizer the next block starts right after the value set here
+        Long movedTo = jdbcTemplate.query("""
+                select setval('%s', m.max_id)
+                from (select coalesce(max(id), 0) as max_id from %s) m, %s s
+                where m.max_id >= s.last_value
+                """.formatted(sequence, table, sequence),
+                rs -> rs.next() ? rs.getLong(1) : null);
+        // Ids come from Hibernate only; a leftover BIGSERIAL default would hand out overlapping ids.
+        // Checked first, as the ALTER takes an ACCESS EXCLUSIVE lock that would block the table on every start
+        if (hasIdDefault(table)) {
+            jdbcTemplate.execute("alter table " + table + " alter column id drop default");
+            log.info("Dropped the id default of {}", table);
+        }
+        if (movedTo != null) {
+            log.info("Moved {} past existing {} ids to {}", sequence, table, movedTo);
+        }
+    }
+
+    private boolean hasIdDefault(String table) {
+        return jdbcTemplate.queryForObject("""
+                select exists (select 1 from information_schema.columns
+                               where table_schema = current_schema() and table_name = ? and column_name = 'id'
+                                 and column_default is not null)
+                """, Boolean.class, table);
+    }
+}
@@ -8,12 +8,13 @@
 package ai.presight.orderservice.config;
 
 import java.io.IOException;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.ResponseEntity;
+import java.util.Optional;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import ai.presight.common.security.IamTokenValidator;
 import ai.presight.common.security.JwtAuthFilter;
 import ai.presight.common.security.JwtUtil;
+import ai.presight.common.security.TrustedIdentityVerifier;
+import ai.presight.common.security.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,10 +25,12 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class OrderJwtAuthFilter extends JwtAuthFilter {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final IamTokenValidator iamTokenValidator;
 
-    public OrderJwtAuthFilter(JwtUtil jwtUtil) {
-        super(jwtUtil);
+    public OrderJwtAuthFilter(JwtUtil jwtUtil, TrustedIdentityVerifier trustedIdentityVerifier,
+                          IamTokenValidator iamTokenValidator) {
+        super(jwtUtil, trustedIdentityVerifier);
+        this.iamTokenValidator = iamTokenValidator;
     }
 
     @Override
@@ -36,6 +39,12 @@ public class OrderJwtAuthFilter extends JwtAuthFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
+        if (authenticateTrustedIdentity(request)) {
+            log.debug(" Gateway identity trusted → skipping IAM validation for {}", request.getRequestURI());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -48,17 +57,13 @@ public class OrderJwtAuthFilter extends JwtAuthFilter {
         log.info(" [OrderJwtAuthFilter] Validating token via IAM service...");
 
         try {
-            ResponseEntity<Void> validationResponse = restTemplate.postForEntity(
-                    "http://iam-service:8083/api/v1/auth/validate",
-                    new HttpEntity<>(token),
-                    Void.class
-            );
-
-            if (validationResponse.getStatusCode().is2xxSuccessful()) {
+            Optional<VerifiedToken> verified = iamTokenValidator.validate(token);
+            if (verified.isPresent()) {
                 log.info(" Token validated successfully via IAM. Continuing request...");
-                super.doFilterInternal(request, response, filterChain);
+                authenticate(verified.get(), request);
+                filterChain.doFilter(request, response);
             } else {
-                log.warn(" IAM validation failed. Status: {}", validationResponse.getStatusCode());
+                log.warn(" IAM validation failed");
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             }
 
@@ -7,18 +7,42 @@
  */
 package ai.presight.orderservice.controller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import ai.presight.orderservice.model.OrderRequest;
 import ai.presight.orderservice.model.OrderResponse;
+import ai.presight.orderservice.model.OrderSearchPage;
+import ai.presight.orderservice.service.IdempotencyService;
+import ai.presight.orderservice.service.OrderFulfillmentWorker;
+import ai.presight.orderservice.service.OrderImportService;
 import ai.presight.orderservice.service.OrderService;
+import ai.presight.orderservice.service.OrderStatusNotifier;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,12 +54,98 @@ import lombok.extern.slf4j.Slf4j;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderFulfillmentWorker fulfillmentWorker;
+    private final OrderStatusNotifier statusNotifier;
+    private final IdempotencyService idempotencyService;
+    private final OrderImportService orderImportService;
+
+    @Value("${order.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${order.async.max-wait-ms:30000}")
+    private long maxWaitMs;
 
+    @Value("${order.idempotency.max-key-length:64}")
+    private int maxIdempotencyKeyLength;
+
+    /**
+     * Place an order. With async mode enabled, clients sending {@code Prefer: respond-async}
+     * get 202 and a Location to poll while inventory work completes in the background.
+     * Requests with an {@code Idempotency-Key} run once per key and user; repeats get the stored response.
+     */
     @PostMapping
-    public ResponseEntity<OrderResponse> placeOrder(@RequestBody OrderRequest request) {
+    public ResponseEntity<OrderResponse> placeOrder(@RequestBody OrderRequest request,
+                                                    @RequestHeader(value = "Prefer", required = false) String prefer,
+                                                    @RequestHeader(value = "Authorization", required = false) String authorization,
+                                                    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                    Principal principal) {
         log.info("Received order placement request for {} items", request.getItems().size());
-        OrderResponse response = orderService.placeOrder(request);
-        return ResponseEntity.ok(response);
+        boolean async = asyncEnabled && prefer != null && prefer.contains("respond-async");
+        if (idempotencyKey == null) {
+            // Still key the inventory calls so internal retries cannot deduct twice
+            return placeOrder(request, async, authorization, UUID.randomUUID().toString());
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > maxIdempotencyKeyLength) {
+            throw new IllegalStateException("Idempotency-Key must be 1 to " + maxIdempotencyKeyLength + " characters");
+        }
+        String scopedKey = idempotencyService.scope(principal != null ? principal.getName() : null, idempotencyKey);
+        return idempotencyService.execute(scopedKey, request, OrderResponse.class,
+                response -> !"FAILED".equals(response.getStatus()),
+                () -> placeOrder(request, async, authorization, scopedKey));
+    }
+
+    private ResponseEntity<OrderResponse> placeOrder(OrderRequest request, boolean async,
+                                                     String authorization, String idempotencyKey) {
+        if (async) {
+            return acceptOrder(request, authorization);
+        }
+        return ResponseEntity.ok(orderService.placeOrder(request, idempotencyKey));
+    }
+
+    private ResponseEntity<OrderResponse> acceptOrder(OrderRequest request, String authorization) {
+        if (!fulfillmentWorker.hasCapacity()) {
+            return intakeSaturated();
+        }
+        OrderResponse accepted = orderService.acceptOrder(request);
+        if (!fulfillmentWorker.submit(accepted.getOrderNumber(), authorization)) {
+            orderService.failAcceptedOrder(accepted.getOrderNumber(), null);
+            return intakeSaturated();
+        }
+
+        URI statusUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{orderNumber}")
+                .buildAndExpand(accepted.getOrderNumber())
+                .toUri();
+        return ResponseEntity.accepted().location(statusUrl).body(accepted);
+    }
+
+    private ResponseEntity<OrderResponse> intakeSaturated() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(OrderResponse.builder()
+                        .orderNumber("N/A")
+                        .status("REJECTED")
+                        .message("Order intake is saturated. Please retry.")
+                        .build());
+    }
+
+    private static boolean isInFlight(OrderResponse order) {
+        return "PENDING".equals(order.getStatus()) || "PROCESSING".equals(order.getStatus());
+    }
+
+    /**
+     * Reporting search: filter by status, created range [from, to) and SKU, newest first.
+     * Returns order headers only; follow nextCursor for the next page.
+     */
+    @GetMapping
+    public ResponseEntity<OrderSearchPage> searchOrders(@RequestParam(required = false) String status,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                        @RequestParam(required = false) String sku,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "50") int size) {
+        log.info("Searching orders status={} from={} to={} sku={}", status, from, to, sku);
+        return ResponseEntity.ok(orderService.searchOrders(status, from, to, sku, cursor, size));
     }
 
     @GetMapping("/{orderNumber}")
@@ -44,7 +154,50 @@ public class OrderController {
         OrderResponse response = orderService.getOrder(orderNumber);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Long-poll variant: while the order is PENDING or PROCESSING, hold the request (without a servlet
+     * thread) until it completes or waitMs elapses, then return the current state.
+     */
+    @GetMapping(value = "/{orderNumber}", params = "waitMs")
+    public DeferredResult<ResponseEntity<OrderResponse>> awaitOrder(@PathVariable String orderNumber,
+                                                                    @RequestParam long waitMs) {
+        OrderResponse current = orderService.getOrder(orderNumber);
+        DeferredResult<ResponseEntity<OrderResponse>> result = new DeferredResult<>(
+                Math.max(1, Math.min(waitMs, maxWaitMs)),
+                () -> ResponseEntity.ok(orderService.getOrder(orderNumber)));
+        if (!isInFlight(current)) {
+            result.setResult(ResponseEntity.ok(current));
+            return result;
+        }
+
+        Runnable onCompleted = () -> result.setResult(ResponseEntity.ok(orderService.getOrder(orderNumber)));
+        statusNotifier.register(orderNumber, onCompleted);
+        result.onCompletion(() -> statusNotifier.unregister(orderNumber, onCompleted));
+
+        // Completion may have happened between the first read and registering
+        OrderResponse latest = orderService.getOrder(orderNumber);
+        if (!isInFlight(latest)) {
+            result.setResult(ResponseEntity.ok(latest));
+        }
+        return result;
+    }
     
+    /**
+     * Bulk import from NDJSON (one order per line) or CSV (header, then ref,skuCode,quantity,price rows).
+     * The upload is read as a stream and one NDJSON result per record is written back chunk by chunk.
+     */
+    @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" })
+    public void importOrders(HttpServletRequest request, HttpServletResponse response,
+                             @RequestHeader(value = "Authorization", required = false) String authorization) throws IOException {
+        boolean csv = request.getContentType().startsWith("text/csv");
+        log.info("Received bulk order import ({})", csv ? "CSV" : "NDJSON");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        BufferedReader body = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        orderImportService.importOrders(body, csv, authorization, response.getOutputStream());
+    }
+
     @PutMapping("/{orderNumber}")
     public ResponseEntity<OrderResponse> updateOrder(@PathVariable String orderNumber,
                                                      @RequestBody OrderRequest request) {
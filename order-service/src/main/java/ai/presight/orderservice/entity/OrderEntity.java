@@ -15,8 +15,10 @@ import java.util.List;
 @Builder
 public class OrderEntity {
 
+    // Pooled sequence (see DB-Design.sql): ids are handed out in blocks of 50, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false, length = 50)
@@ -25,6 +27,10 @@ public class OrderEntity {
     @Column(nullable = false)
     private String status = "PLACED";
 
+    // Partner reference of a bulk-imported order; unique so re-running an import does not duplicate it
+    @Column(unique = true, length = 100)
+    private String importRef;
+
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
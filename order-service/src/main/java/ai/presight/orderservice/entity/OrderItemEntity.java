@@ -12,8 +12,10 @@ import lombok.*;
 @Builder
 public class OrderItemEntity {
 
+    // Pooled sequence (see DB-Design.sql): ids are handed out in blocks of 50, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
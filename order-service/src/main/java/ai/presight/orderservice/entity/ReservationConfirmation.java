@@ -0,0 +1,32 @@
+package ai.presight.orderservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A placed order whose inventory hold still has to be confirmed. Written in the order
+ * transaction and deleted once inventory has turned the hold into a deduction.
+ */
+@Entity
+@Table(name = "reservation_confirmations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationConfirmation {
+
+    @Id
+    @Column(name = "reservation_id", length = 64)
+    private String reservationId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -9,19 +9,66 @@
 
 package ai.presight.orderservice.event;
 
+import java.util.List;
+import java.util.Map;
+
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 import ai.presight.common.event.LowStockEvent;
+import ai.presight.common.event.LowStockSummaryEvent;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
-public class LowStockEventListener {
+public class LowStockEventListener extends AbstractConsumerSeekAware {
+
+	private final LowStockWorkPool workPool;
+
+	@KafkaListener(id = LowStockWorkPool.LISTENER_ID, topics = "low-stock-topic", groupId = "low-stock-consumer")
+	public void handleLowStockEvents(List<ConsumerRecord<String, LowStockEvent>> records, Acknowledgment ack) {
+	    // Returns once queued; the pool acknowledges the batch when its workers are done
+	    workPool.submit(records, record -> {
+	        if (record.value() == null) {
+	            log.error(" Skipping undecodable record at {}-{}@{}", record.topic(), record.partition(), record.offset());
+	            return;
+	        }
+	        handleLowStockEvent(record.value());
+	    }, ack, this::rewind);
+	}
 
-	@KafkaListener(topics = "low-stock-topic", groupId = "low-stock-consumer")
-	public void handleLowStockEvent(LowStockEvent event) {
+	private void rewind(Map<TopicPartition, Long> offsets) {
+	    // Seeks from a worker thread are queued and performed by the consumer on its next poll
+	    offsets.forEach((partition, offset) -> {
+	        ConsumerSeekCallback callback = getSeekCallbackFor(partition);
+	        if (callback != null) {
+	            callback.seek(partition.topic(), partition.partition(), offset);
+	        }
+	    });
+	}
+
+	void handleLowStockEvent(LowStockEvent event) {
 	    log.warn(" Low stock alert for SKU={} (remaining={})",
 	             event.getSkuCode(), event.getRemainingQty());
 	}
+
+	@KafkaListener(topics = "low-stock-summary-topic", groupId = "low-stock-consumer")
+	public void handleLowStockSummaries(List<LowStockSummaryEvent> summaries, Acknowledgment ack) {
+	    for (LowStockSummaryEvent summary : summaries) {
+	        if (summary == null) {
+	            continue;
+	        }
+	        log.warn(" Low stock summary: {} SKUs still low, {} repeat alerts coalesced",
+	                 summary.getSkus().size(), summary.getSuppressedAlerts());
+	        summary.getSkus().forEach(sku -> log.debug("   SKU={} (remaining={})",
+	                 sku.getSkuCode(), sku.getRemainingQty()));
+	    }
+	    ack.acknowledge();
+	}
 }
@@ -0,0 +1,216 @@
+package ai.presight.orderservice.event;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded worker lanes behind the low-stock batch listener.
+ * - Records are routed to a single-threaded lane by key (SKU), so one SKU's records run in
+ *   offset order across batches while different SKUs run in parallel
+ * - The listener only enqueues and returns. A batch is acknowledged once it and every
+ *   earlier batch have finished, so committed offsets never pass an unprocessed record
+ * - A failed batch is not acknowledged: its partitions are rewound to where it started and
+ *   the batches queued behind it are dropped, so everything from there is redelivered
+ * - When the unfinished records reach the pause watermark the listener container is paused and
+ *   stays paused across polls (it keeps polling for heartbeats but fetches nothing) until
+ *   the workers drain it below the resume watermark
+ * - Batch processing time and lane saturation are exposed as metrics
+ */
+@Slf4j
+@Component
+public class LowStockWorkPool {
+
+    public static final String LISTENER_ID = "low-stock-listener";
+
+    private final List<ThreadPoolExecutor> lanes;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final Timer batchTimer;
+    private final Clock clock;
+    private final AtomicBoolean paused = new AtomicBoolean();
+
+    /** Records handed to the lanes and not finished yet. */
+    private final AtomicInteger queuedRecords = new AtomicInteger();
+
+    /** Batches not acknowledged yet, oldest first; guarded by this. */
+    private final Deque<Batch> pending = new ArrayDeque<>();
+
+    @Value("${order.kafka.low-stock.pause-watermark:800}")
+    private int pauseWatermark;
+
+    @Value("${order.kafka.low-stock.resume-watermark:200}")
+    private int resumeWatermark;
+
+    public LowStockWorkPool(
+            KafkaListenerEndpointRegistry listenerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${order.kafka.low-stock.workers:4}") int workers,
+            @Value("${order.kafka.low-stock.queue-capacity:1000}") int queueCapacity
+    ) {
+        this.listenerRegistry = listenerRegistry;
+        this.clock = meterRegistry.config().clock();
+        int laneCapacity = Math.max(1, queueCapacity / workers);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("low-stock-worker-");
+        this.lanes = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            // A full lane blocks the listener instead of running the task out of order
+            ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(laneCapacity), threadFactory, LowStockWorkPool::enqueueBlocking);
+            new ExecutorServiceMetrics(lane, "low-stock-workers", Tags.of("lane", String.valueOf(i))).bindTo(meterRegistry);
+            lanes.add(lane);
+        }
+        this.batchTimer = Timer.builder("order.low-stock.batch.processing")
+                .description("Time from receiving a low-stock batch to acknowledging it")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue one polled batch and return without waiting for it.
+     *
+     * @param ack    acknowledges the batch; called from a worker thread once it and all
+     *               earlier batches are done
+     * @param rewind seeks the given partitions back to the given offsets after a failure
+     */
+    public <V> void submit(List<ConsumerRecord<String, V>> records, Consumer<ConsumerRecord<String, V>> handler,
+                           Acknowledgment ack, Consumer<Map<TopicPartition, Long>> rewind) {
+        Map<Integer, List<ConsumerRecord<String, V>>> byLane = new LinkedHashMap<>();
+        Map<TopicPartition, Long> startOffsets = new HashMap<>();
+        for (ConsumerRecord<String, V> record : records) {
+            int lane = Math.floorMod(Objects.toString(record.key(), "").hashCode(), lanes.size());
+            byLane.computeIfAbsent(lane, k -> new ArrayList<>()).add(record);
+            startOffsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::min);
+        }
+
+        Batch batch = new Batch(ack, rewind, startOffsets, byLane.size(), Timer.start(clock));
+        synchronized (this) {
+            pending.addLast(batch);
+        }
+        if (byLane.isEmpty()) {
+            complete(batch, null);
+        }
+        queuedRecords.addAndGet(records.size());
+        byLane.forEach((lane, group) -> lanes.get(lane).execute(() -> {
+            RuntimeException failure = null;
+            try {
+                group.forEach(handler);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            queuedRecords.addAndGet(-group.size());
+            complete(batch, failure);
+        }));
+        applyBackpressure();
+    }
+
+    private void complete(Batch batch, RuntimeException failure) {
+        synchronized (this) {
+            if (failure != null && batch.failure == null) {
+                batch.failure = failure;
+            }
+            batch.remaining--;
+            while (!pending.isEmpty() && pending.peekFirst().remaining == 0) {
+                Batch head = pending.pollFirst();
+                head.sample.stop(batchTimer);
+                if (head.failure != null) {
+                    rewind(head);
+                    break;
+                }
+                head.ack.acknowledge();
+            }
+        }
+        applyBackpressure();
+    }
+
+    /**
+     * Seek back to the failed batch and drop the batches behind it; their records come again
+     * with the redelivery (the workers may still be running some of them).
+     */
+    private void rewind(Batch failed) {
+        Map<TopicPartition, Long> offsets = new HashMap<>(failed.startOffsets);
+        for (Batch dropped : pending) {
+            dropped.startOffsets.forEach((partition, offset) -> offsets.merge(partition, offset, Math::min));
+        }
+        pending.clear();
+        log.error("Low-stock batch failed, redelivering from {}: {}", offsets, failed.failure.getMessage());
+        failed.rewind.accept(offsets);
+    }
+
+    private void applyBackpressure() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (container == null) {
+            return;
+        }
+        int depth = queuedRecords.get();
+        if (depth >= pauseWatermark && paused.compareAndSet(false, true)) {
+            container.pause();
+            log.warn("Low-stock workers saturated (queue={}) → pausing consumption", depth);
+        } else if (depth <= resumeWatermark && paused.compareAndSet(true, false)) {
+            container.resume();
+            log.info("Low-stock workers drained (queue={}) → resuming consumption", depth);
+        }
+    }
+
+    private static void enqueueBlocking(Runnable task, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("Low-stock workers are shut down");
+        }
+        try {
+            lane.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing a low-stock batch", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    private static final class Batch {
+        private final Acknowledgment ack;
+        private final Consumer<Map<TopicPartition, Long>> rewind;
+        private final Map<TopicPartition, Long> startOffsets;
+        private final Timer.Sample sample;
+        private int remaining;
+        private RuntimeException failure;
+
+        private Batch(Acknowledgment ack, Consumer<Map<TopicPartition, Long>> rewind,
+                      Map<TopicPartition, Long> startOffsets, int remaining, Timer.Sample sample) {
+            this.ack = ack;
+            this.rewind = rewind;
+            this.startOffsets = startOffsets;
+            this.remaining = remaining;
+            this.sample = sample;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ai.presight.orderservice.exception;
+
+/**
+ * Thrown when a call to inventory-service is shed by the adaptive concurrency limiter.
+ */
+public class InventoryOverloadException extends RuntimeException {
+    public InventoryOverloadException(String message) {
+        super(message);
+    }
+}
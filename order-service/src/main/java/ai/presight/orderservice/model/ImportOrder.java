@@ -0,0 +1,14 @@
+package ai.presight.orderservice.model;
+
+import java.util.List;
+
+/**
+ * One order of a bulk import. {@code ref} is the partner's own identifier, stored with the
+ * order and echoed back in the per-record result next to the generated order number.
+ * {@code status} is optional and must be terminal (PLACED, CANCELLED or FAILED).
+ */
+public record ImportOrder(
+        String ref,
+        String status,
+        List<OrderItemRequest> items
+) {}
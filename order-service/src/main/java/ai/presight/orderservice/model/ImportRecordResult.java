@@ -0,0 +1,35 @@
+package ai.presight.orderservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one imported record, streamed back as one NDJSON line.
+ * Status is IMPORTED, DUPLICATE (ref imported before; orderNumber is the existing order),
+ * REJECTED (invalid or out of stock) or FAILED (could not be stored).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportRecordResult(
+        long record,
+        String ref,
+        String orderNumber,
+        String status,
+        Double totalAmount,
+        String message
+) {
+
+    public static ImportRecordResult imported(long record, String ref, String orderNumber, double totalAmount) {
+        return new ImportRecordResult(record, ref, orderNumber, "IMPORTED", totalAmount, null);
+    }
+
+    public static ImportRecordResult duplicate(long record, String ref, String orderNumber) {
+        return new ImportRecordResult(record, ref, orderNumber, "DUPLICATE", null, "Already imported");
+    }
+
+    public static ImportRecordResult rejected(long record, String ref, String message) {
+        return new ImportRecordResult(record, ref, null, "REJECTED", null, message);
+    }
+
+    public static ImportRecordResult failed(long record, String ref, String message) {
+        return new ImportRecordResult(record, ref, null, "FAILED", null, message);
+    }
+}
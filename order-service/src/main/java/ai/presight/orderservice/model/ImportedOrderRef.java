@@ -0,0 +1,9 @@
+package ai.presight.orderservice.model;
+
+/**
+ * Partner reference of an imported order and the order number it was stored under.
+ */
+public record ImportedOrderRef(
+        String ref,
+        String orderNumber
+) {}
@@ -0,0 +1,17 @@
+package ai.presight.orderservice.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat read-only projection of one order line joined with its order header.
+ * Item columns are null for an order that has no lines.
+ */
+public record OrderLineView(
+        String orderNumber,
+        String status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String skuCode,
+        Integer quantity,
+        Double price
+) {}
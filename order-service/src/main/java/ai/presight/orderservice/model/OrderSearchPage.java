@@ -0,0 +1,9 @@
+package ai.presight.orderservice.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of the order search, newest first.
+ * Pass nextCursor as cursor to fetch the following page; it is null on the last page.
+ */
+public record OrderSearchPage(List<OrderSummaryView> items, String nextCursor) {}
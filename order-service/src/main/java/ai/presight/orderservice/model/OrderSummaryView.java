@@ -0,0 +1,17 @@
+package ai.presight.orderservice.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Header-only projection of an order returned by the search endpoint.
+ * The id is only kept to build the keyset cursor and is not serialized.
+ */
+public record OrderSummaryView(
+        @JsonIgnore Long id,
+        String orderNumber,
+        String status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {}
@@ -0,0 +1,63 @@
+package ai.presight.orderservice.repository;
+
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ai.presight.orderservice.entity.IdempotencyRecord;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims a key as IN_PROGRESS until leaseUntil. An expired record (a completed one past
+     * its TTL, or a claim whose owner died mid-request) is taken over; a live one is left untouched.
+     *
+     * @param token identifies this claim; only its holder can complete or release it
+     * @return 1 if this caller owns the key, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (idempotency_key, request_hash, status, claim_token, created_at, expires_at)
+            VALUES (:key, :hash, 'IN_PROGRESS', :token, NOW(), :leaseUntil)
+            ON CONFLICT (idempotency_key) DO UPDATE
+                SET request_hash = EXCLUDED.request_hash, status = 'IN_PROGRESS', claim_token = EXCLUDED.claim_token,
+                    http_status = NULL, response = NULL, created_at = NOW(), expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.expires_at < NOW()
+            """, nativeQuery = true)
+    int claim(@Param("key") String key, @Param("hash") String hash, @Param("token") String token,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Stores the final response and keeps it until expiresAt.
+     *
+     * @return 0 if the claim was lost (lease expired and taken over) in the meantime
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update IdempotencyRecord r set r.status = 'COMPLETED', r.httpStatus = :httpStatus, r.response = :response,
+                r.expiresAt = :expiresAt
+            where r.idempotencyKey = :key and r.claimToken = :token and r.status = 'IN_PROGRESS'
+            """)
+    int complete(@Param("key") String key, @Param("token") String token, @Param("httpStatus") int httpStatus,
+                 @Param("response") String response, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Frees a key after a failed or non-storable outcome, unless the claim was taken over.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            delete from IdempotencyRecord r
+            where r.idempotencyKey = :key and r.claimToken = :token and r.status = 'IN_PROGRESS'
+            """)
+    int release(@Param("key") String key, @Param("token") String token);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
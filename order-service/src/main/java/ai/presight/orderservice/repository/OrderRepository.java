@@ -1,9 +1,63 @@
 package ai.presight.orderservice.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ai.presight.orderservice.entity.OrderEntity;
+import ai.presight.orderservice.model.ImportedOrderRef;
+import ai.presight.orderservice.model.OrderLineView;
 
-public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
+public interface OrderRepository extends JpaRepository<OrderEntity, Long>, OrderSearchRepository {
     Optional<OrderEntity> findByOrderNumber(String orderNumber);
+
+    /**
+     * Loads an order header and all its lines in one query as DTO rows, without
+     * creating managed entities. Returns no rows when the order does not exist.
+     */
+    @Query("""
+            select new ai.presight.orderservice.model.OrderLineView(
+                o.orderNumber, o.status, o.createdAt, o.updatedAt, i.skuCode, i.quantity, i.price)
+            from OrderEntity o left join o.items i
+            where o.orderNumber = :orderNumber
+            order by i.id
+            """)
+    List<OrderLineView> findLinesByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    /**
+     * Orders already imported under any of the given partner references.
+     */
+    @Query("""
+            select new ai.presight.orderservice.model.ImportedOrderRef(o.importRef, o.orderNumber)
+            from OrderEntity o
+            where o.importRef in :refs
+            """)
+    List<ImportedOrderRef> findImportedRefs(@Param("refs") Collection<String> refs);
+
+    /**
+     * Compare-and-set of the order status; returns 0 when the order is not in the expected state.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update OrderEntity o set o.status = :to, o.updatedAt = CURRENT_TIMESTAMP, o.version = o.version + 1
+            where o.orderNumber = :orderNumber and o.status = :from
+            """)
+    int transitionStatus(@Param("orderNumber") String orderNumber, @Param("from") String from, @Param("to") String to);
+
+    /**
+     * Fails every order still PENDING that was accepted before the given time.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update OrderEntity o set o.status = 'FAILED', o.updatedAt = CURRENT_TIMESTAMP, o.version = o.version + 1
+            where o.status = 'PENDING' and o.createdAt < :before
+            """)
+    int failPendingAcceptedBefore(@Param("before") LocalDateTime before);
 }
@@ -0,0 +1,16 @@
+package ai.presight.orderservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import ai.presight.orderservice.model.OrderSummaryView;
+
+public interface OrderSearchRepository {
+
+    /**
+     * Keyset page of order headers ordered by (createdAt, id) descending. Every filter is optional;
+     * pass a null beforeCreatedAt for the first page.
+     */
+    List<OrderSummaryView> search(String status, LocalDateTime from, LocalDateTime to, String skuCode,
+                                  LocalDateTime beforeCreatedAt, Long beforeId, int limit);
+}
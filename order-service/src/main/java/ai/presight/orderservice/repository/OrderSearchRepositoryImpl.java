@@ -0,0 +1,69 @@
+package ai.presight.orderservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import ai.presight.orderservice.model.OrderSummaryView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Builds the search JPQL from only the filters that are set, so each combination gets its own
+ * plan on the (status, created_at, id) / (created_at, id) / (lower(sku_code), order_id) indexes
+ * instead of a catch-all "(:p is null or ...)" query.
+ */
+class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderSummaryView> search(String status, LocalDateTime from, LocalDateTime to, String skuCode,
+                                         LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+                select new ai.presight.orderservice.model.OrderSummaryView(
+                    o.id, o.orderNumber, o.status, o.createdAt, o.updatedAt)
+                from OrderEntity o
+                where 1 = 1
+                """);
+        if (status != null) {
+            jpql.append(" and o.status = :status");
+        }
+        if (from != null) {
+            jpql.append(" and o.createdAt >= :from");
+        }
+        if (to != null) {
+            jpql.append(" and o.createdAt < :to");
+        }
+        if (skuCode != null) {
+            jpql.append(" and exists (select 1 from OrderItemEntity i where i.order = o and lower(i.skuCode) = :sku)");
+        }
+        if (beforeCreatedAt != null) {
+            // The leading bound gives the planner an index range on created_at; the OR alone is not sargable
+            jpql.append(" and o.createdAt <= :cursorAt"
+                    + " and (o.createdAt < :cursorAt or (o.createdAt = :cursorAt and o.id < :cursorId))");
+        }
+        jpql.append(" order by o.createdAt desc, o.id desc");
+
+        TypedQuery<OrderSummaryView> query = entityManager.createQuery(jpql.toString(), OrderSummaryView.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (skuCode != null) {
+            query.setParameter("sku", skuCode.toLowerCase(Locale.ROOT));
+        }
+        if (beforeCreatedAt != null) {
+            query.setParameter("cursorAt", beforeCreatedAt);
+            query.setParameter("cursorId", beforeId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,37 @@
+package ai.presight.orderservice.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import ai.presight.orderservice.entity.ReservationConfirmation;
+
+public interface ReservationConfirmationRepository extends JpaRepository<ReservationConfirmation, String> {
+
+    /**
+     * Claims a batch of due confirmations by pushing their next attempt out by a backoff that
+     * grows with the attempt count, capped at maxBackoffMs. SKIP LOCKED and the pushed-out
+     * time keep several order instances from retrying the same reservation.
+     *
+     * @return reservation ids to confirm now
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE reservation_confirmations
+               SET attempts = attempts + 1,
+                   next_attempt_at = NOW() + LEAST(:backoffMs * (attempts + 1), :maxBackoffMs) * INTERVAL '1 millisecond'
+             WHERE reservation_id IN (
+                   SELECT reservation_id FROM reservation_confirmations
+                    WHERE next_attempt_at <= NOW()
+                    ORDER BY next_attempt_at
+                    LIMIT :batchSize
+                      FOR UPDATE SKIP LOCKED)
+            RETURNING reservation_id
+            """, nativeQuery = true)
+    List<String> claimDue(@Param("batchSize") int batchSize,
+                          @Param("backoffMs") long backoffMs,
+                          @Param("maxBackoffMs") long maxBackoffMs);
+}
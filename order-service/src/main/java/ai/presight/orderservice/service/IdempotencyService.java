@@ -0,0 +1,182 @@
+package ai.presight.orderservice.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ai.presight.orderservice.entity.IdempotencyRecord;
+import ai.presight.orderservice.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dedupe store for requests carrying an Idempotency-Key.
+ * - Keys are scoped to the caller (see {@link #scope}), so two users never share one
+ * - The first request claims the key for a short in-progress lease and runs; its successful
+ *   response is stored and kept for ttl-hours
+ * - Duplicates with the same body get the stored response replayed, without running again;
+ *   a duplicate arriving while the first is still running waits for it (bounded), which
+ *   makes hedged requests safe
+ * - Reusing a key with a different body is rejected
+ * - Failed or non-storable outcomes free the key so the client can retry; a claim whose
+ *   owner died mid-request is taken over once its lease expires
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${order.idempotency.ttl-hours:24}")
+    private int ttlHours;
+
+    @Value("${order.idempotency.in-progress-wait-ms:5000}")
+    private long inProgressWaitMs;
+
+    @Value("${order.idempotency.in-progress-lease-ms:60000}")
+    private long inProgressLeaseMs;
+
+    /**
+     * Storage key for a client's Idempotency-Key: SHA-256 of the authenticated user and the key,
+     * so keys of different users never collide and any key length fits the column (and the
+     * "{key}:{lineIndex}" keys sent on to inventory).
+     *
+     * @param user authenticated user name, or null for anonymous callers
+     */
+    public String scope(String user, String key) {
+        return sha256((user == null ? "" : user) + "\n" + key);
+    }
+
+    /**
+     * @param key       client supplied Idempotency-Key
+     * @param request   request body, hashed to detect key reuse
+     * @param type      response body type, for replay
+     * @param storeIf   whether a successful response is final and may be replayed
+     * @param action    the work to run once per key
+     */
+    public <T> ResponseEntity<T> execute(String key, Object request, Class<T> type,
+                                         Predicate<T> storeIf, Supplier<ResponseEntity<T>> action) {
+        String hash = hash(request);
+        long deadline = System.currentTimeMillis() + inProgressWaitMs;
+
+        while (true) {
+            String token = UUID.randomUUID().toString();
+            LocalDateTime leaseUntil = LocalDateTime.now().plusNanos(inProgressLeaseMs * 1_000_000);
+            if (idempotencyRecordRepository.claim(key, hash, token, leaseUntil) == 1) {
+                return runClaimed(key, token, storeIf, action);
+            }
+
+            Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (!record.getRequestHash().equals(hash)) {
+                    throw new IllegalStateException("Idempotency-Key " + key + " was already used with a different request");
+                }
+                if (IdempotencyRecord.COMPLETED.equals(record.getStatus())) {
+                    log.info(" Replaying stored response for Idempotency-Key {}", key);
+                    return ResponseEntity.status(record.getHttpStatus())
+                            .header(REPLAYED_HEADER, "true")
+                            .body(read(record.getResponse(), type));
+                }
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("A request with Idempotency-Key " + key + " is still in progress");
+            }
+            pause();
+        }
+    }
+
+    private <T> ResponseEntity<T> runClaimed(String key, String token, Predicate<T> storeIf,
+                                             Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyRecordRepository.release(key, token);
+            throw e;
+        }
+
+        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null && storeIf.test(response.getBody())) {
+            int stored = idempotencyRecordRepository.complete(key, token, response.getStatusCode().value(),
+                    write(response.getBody()), LocalDateTime.now().plusHours(ttlHours));
+            if (stored == 0) {
+                log.warn(" Idempotency-Key {} outlived its in-progress lease and was taken over", key);
+            }
+        } else {
+            idempotencyRecordRepository.release(key, token);
+        }
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        int purged = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            return sha256(objectMapper.writeValueAsBytes(request));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not hash request", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        return sha256(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not store response", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not replay stored response", e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-progress request", e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ai.presight.orderservice.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import ai.presight.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Completes orders accepted in async mode.
+ * - A bounded queue feeds a fixed set of workers, so slow inventory calls never hold
+ *   servlet threads; a full queue makes intake reject instead of piling up
+ * - Each order gets up to maxAttempts tries with linear backoff; client errors from
+ *   inventory (bad request, not found, auth) fail the order immediately
+ * - An order is claimed (PENDING to PROCESSING) before inventory is called, so the
+ *   stale-order sweeper cannot fail it while its stock is being taken
+ * - Waiters long-polling the order are woken once it is PLACED or FAILED
+ */
+@Slf4j
+@Component
+public class OrderFulfillmentWorker {
+
+    private final OrderService orderService;
+    private final OrderStatusNotifier statusNotifier;
+    private final ThreadPoolExecutor executor;
+
+    @Value("${order.async.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${order.async.backoff-ms:1000}")
+    private long backoffMs;
+
+    public OrderFulfillmentWorker(
+            OrderService orderService,
+            OrderStatusNotifier statusNotifier,
+            MeterRegistry meterRegistry,
+            @Value("${order.async.workers:16}") int workers,
+            @Value("${order.async.queue-capacity:1000}") int queueCapacity
+    ) {
+        this.orderService = orderService;
+        this.statusNotifier = statusNotifier;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("order-fulfillment-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "order-fulfillment", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public boolean hasCapacity() {
+        return executor.getQueue().remainingCapacity() > 0;
+    }
+
+    /**
+     * Queue an accepted order for completion.
+     *
+     * @param token Authorization header of the accepting request, used for inventory calls
+     * @return false if the queue is full
+     */
+    public boolean submit(String orderNumber, String token) {
+        try {
+            executor.execute(() -> fulfil(orderNumber, token));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn(" Fulfillment queue full, rejecting order {}", orderNumber);
+            return false;
+        }
+    }
+
+    private void fulfil(String orderNumber, String token) {
+        try {
+            if (!orderService.claimAcceptedOrder(orderNumber)) {
+                log.warn(" Order {} left PENDING before a worker claimed it, skipping", orderNumber);
+                return;
+            }
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                try {
+                    orderService.fulfilAcceptedOrder(orderNumber, token);
+                    return;
+                } catch (IllegalArgumentException | ResourceNotFoundException | SecurityException e) {
+                    log.warn(" Order {} rejected by inventory: {}", orderNumber, e.getMessage());
+                    break;
+                } catch (RuntimeException e) {
+                    log.warn(" Order {} attempt {}/{} failed: {}", orderNumber, attempt, maxAttempts, e.getMessage());
+                    if (attempt < maxAttempts) {
+                        Thread.sleep(backoffMs * attempt);
+                    }
+                }
+            }
+            orderService.failAcceptedOrder(orderNumber, token);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error(" Could not finish order {}: {}", orderNumber, e.getMessage(), e);
+        } finally {
+            statusNotifier.notifyCompleted(orderNumber);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,441 @@
+package ai.presight.orderservice.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.common.dto.StockCheckResponse;
+import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.orderservice.client.InventoryClient;
+import ai.presight.orderservice.entity.OrderEntity;
+import ai.presight.orderservice.entity.OrderItemEntity;
+import ai.presight.orderservice.model.ImportOrder;
+import ai.presight.orderservice.model.ImportRecordResult;
+import ai.presight.orderservice.model.ImportedOrderRef;
+import ai.presight.orderservice.model.OrderItemRequest;
+import ai.presight.orderservice.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streaming bulk import for partner backfills.
+ * - Input is read one record at a time (NDJSON: one order per line; CSV: rows of
+ *   {@code ref,skuCode,quantity,price}, consecutive rows with the same ref form one order)
+ * - Records are processed in chunks: one multi-SKU inventory check per chunk, then one
+ *   transaction inserting the chunk's accepted orders (JDBC-batched)
+ * - One result line per record is written and flushed per chunk, so memory stays bounded
+ *   by the chunk size whatever the size of the upload
+ *
+ * Imported orders are historical: stock is validated but not deducted, and only terminal
+ * statuses are accepted. The partner ref is stored with the order, and a ref imported
+ * before is answered as DUPLICATE instead of being inserted again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderImportService {
+
+    /** Imported orders never enter the async flow, so PENDING / PROCESSING would only be swept to FAILED. */
+    private static final Set<String> IMPORTABLE_STATUSES = Set.of("PLACED", "CANCELLED", "FAILED");
+
+    private final OrderRepository orderRepository;
+    private final InventoryClient inventoryClient;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${order.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${order.import.max-items-per-order:1000}")
+    private int maxItemsPerOrder;
+
+    /**
+     * Import all records from {@code body}, writing one NDJSON result per record to {@code out}.
+     */
+    public void importOrders(BufferedReader body, boolean csv, String token, OutputStream out) throws IOException {
+        ObjectWriter resultWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        RecordReader reader = csv ? new CsvRecordReader(body) : new NdjsonRecordReader(body);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        long start = System.currentTimeMillis();
+
+        List<ParsedRecord> chunk = new ArrayList<>(chunkSize);
+        ParsedRecord parsed;
+        do {
+            parsed = reader.next();
+            if (parsed != null) {
+                chunk.add(parsed);
+            }
+            if (chunk.size() >= chunkSize || (parsed == null && !chunk.isEmpty())) {
+                for (ImportRecordResult result : processChunk(chunk, token)) {
+                    counts.merge(result.status(), 1L, Long::sum);
+                    out.write(resultWriter.writeValueAsBytes(result));
+                    out.write('\n');
+                }
+                out.flush();
+                chunk.clear();
+            }
+        } while (parsed != null);
+
+        log.info("📥 Import finished in {} ms: {}", System.currentTimeMillis() - start, counts);
+    }
+
+    private List<ImportRecordResult> processChunk(List<ParsedRecord> chunk, String token) {
+        ImportRecordResult[] results = new ImportRecordResult[chunk.size()];
+
+        // Structural validation
+        List<Integer> valid = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ParsedRecord record = chunk.get(i);
+            String error = record.error() != null ? record.error() : validate(record.order());
+            if (error != null) {
+                results[i] = ImportRecordResult.rejected(record.record(), record.ref(), error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        valid = dropDuplicates(chunk, valid, results);
+
+        // One availability lookup for every SKU in the chunk, then allocate in record order
+        List<Integer> accepted = new ArrayList<>(valid.size());
+        if (!valid.isEmpty()) {
+            Map<String, Integer> available = new HashMap<>();
+            Set<String> missing = new HashSet<>();
+            try {
+                lookUpAvailability(chunkLines(chunk, valid), token, available, missing);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Inventory check failed for import chunk: {}", e.getMessage());
+                for (int i : valid) {
+                    ParsedRecord record = chunk.get(i);
+                    results[i] = ImportRecordResult.failed(record.record(), record.ref(),
+                            "Inventory check failed: " + e.getMessage());
+                }
+                valid = List.of();
+            }
+
+            for (int i : valid) {
+                ParsedRecord record = chunk.get(i);
+                String error = allocate(record.order(), available, missing);
+                if (error != null) {
+                    results[i] = ImportRecordResult.rejected(record.record(), record.ref(), error);
+                } else {
+                    accepted.add(i);
+                }
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            persist(chunk, accepted, results);
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Answer records whose ref was imported before, or appears earlier in this chunk, as
+     * duplicates; returns the remaining record indexes.
+     */
+    private List<Integer> dropDuplicates(List<ParsedRecord> chunk, List<Integer> valid, ImportRecordResult[] results) {
+        Set<String> refs = new HashSet<>();
+        for (int i : valid) {
+            if (importRef(chunk.get(i)) != null) {
+                refs.add(importRef(chunk.get(i)));
+            }
+        }
+        if (refs.isEmpty()) {
+            return valid;
+        }
+        Map<String, String> imported = new HashMap<>();
+        for (ImportedOrderRef existing : orderRepository.findImportedRefs(refs)) {
+            imported.put(existing.ref(), existing.orderNumber());
+        }
+
+        List<Integer> remaining = new ArrayList<>(valid.size());
+        Set<String> seen = new HashSet<>();
+        for (int i : valid) {
+            ParsedRecord record = chunk.get(i);
+            String ref = importRef(record);
+            if (ref != null && imported.containsKey(ref)) {
+                results[i] = ImportRecordResult.duplicate(record.record(), record.ref(), imported.get(ref));
+            } else if (ref != null && !seen.add(ref)) {
+                results[i] = ImportRecordResult.rejected(record.record(), record.ref(), "Duplicate ref in this import");
+            } else {
+                remaining.add(i);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Insert the accepted orders of a chunk in one transaction. The persistence context is
+     * cleared afterwards so entities do not pile up across chunks.
+     */
+    private void persist(List<ParsedRecord> chunk, List<Integer> accepted, ImportRecordResult[] results) {
+        List<OrderEntity> orders = new ArrayList<>(accepted.size());
+        for (int i : accepted) {
+            orders.add(toEntity(chunk.get(i)));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                orderRepository.saveAll(orders);
+                entityManager.flush();
+            });
+            for (int n = 0; n < accepted.size(); n++) {
+                ParsedRecord record = chunk.get(accepted.get(n));
+                results[accepted.get(n)] = ImportRecordResult.imported(record.record(), record.ref(),
+                        orders.get(n).getOrderNumber(), totalAmount(record.order()));
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to store import chunk of {} orders: {}", orders.size(), e.getMessage());
+            for (int i : accepted) {
+                ParsedRecord record = chunk.get(i);
+                results[i] = ImportRecordResult.failed(record.record(), record.ref(), "Could not store order");
+            }
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private static List<StockCheckRequest> chunkLines(List<ParsedRecord> chunk, List<Integer> valid) {
+        Map<String, StockCheckRequest> lines = new LinkedHashMap<>();
+        for (int i : valid) {
+            for (OrderItemRequest item : chunk.get(i).order().items()) {
+                lines.merge(skuKey(item.getSkuCode()), new StockCheckRequest(item.getSkuCode(), item.getQuantity()),
+                        (a, b) -> new StockCheckRequest(a.skuCode(), a.qty() + b.qty()));
+            }
+        }
+        return new ArrayList<>(lines.values());
+    }
+
+    /**
+     * Inventory answers 404 for the whole batch when any SKU is unknown, so on 404 the SKU
+     * list is split in halves until the unknown SKUs are isolated.
+     */
+    private void lookUpAvailability(List<StockCheckRequest> lines, String token,
+                                    Map<String, Integer> available, Set<String> missing) {
+        try {
+            for (StockCheckResponse response : inventoryClient.checkStockBatch(lines, token)) {
+                available.put(skuKey(response.skuCode()), response.availableQty());
+            }
+        } catch (ResourceNotFoundException e) {
+            if (lines.size() == 1) {
+                missing.add(skuKey(lines.get(0).skuCode()));
+                return;
+            }
+            int mid = lines.size() / 2;
+            lookUpAvailability(lines.subList(0, mid), token, available, missing);
+            lookUpAvailability(lines.subList(mid, lines.size()), token, available, missing);
+        }
+    }
+
+    /**
+     * Reserve the order's quantities against what is left of the chunk's availability.
+     * Returns the rejection reason, or null when the order fits.
+     */
+    private static String allocate(ImportOrder order, Map<String, Integer> available, Set<String> missing) {
+        Map<String, Integer> needed = new LinkedHashMap<>();
+        for (OrderItemRequest item : order.items()) {
+            needed.merge(skuKey(item.getSkuCode()), item.getQuantity(), Integer::sum);
+        }
+        for (var entry : needed.entrySet()) {
+            if (missing.contains(entry.getKey()) || !available.containsKey(entry.getKey())) {
+                return "Product not found (SKU=" + entry.getKey() + ")";
+            }
+            if (available.get(entry.getKey()) < entry.getValue()) {
+                return "Insufficient stock for SKU: " + entry.getKey();
+            }
+        }
+        needed.forEach((sku, qty) -> available.merge(sku, -qty, Integer::sum));
+        return null;
+    }
+
+    private String validate(ImportOrder order) {
+        if (order.items() == null || order.items().isEmpty()) {
+            return "Order must contain at least one item";
+        }
+        if (order.status() != null && !order.status().isBlank()
+                && !IMPORTABLE_STATUSES.contains(order.status().toUpperCase(Locale.ROOT))) {
+            return "Status must be one of " + IMPORTABLE_STATUSES + ": " + order.status();
+        }
+        if (order.ref() != null && order.ref().length() > 100) {
+            return "Ref longer than 100 characters";
+        }
+        if (order.items().size() > maxItemsPerOrder) {
+            return "Order exceeds " + maxItemsPerOrder + " items";
+        }
+        for (OrderItemRequest item : order.items()) {
+            if (item == null || item.getSkuCode() == null || item.getSkuCode().isBlank()
+                    || item.getQuantity() == null || item.getQuantity() <= 0
+                    || item.getPrice() == null || item.getPrice() <= 0) {
+                return "Invalid order item: " + (item == null ? null : item.getSkuCode());
+            }
+        }
+        return null;
+    }
+
+    private static OrderEntity toEntity(ParsedRecord record) {
+        ImportOrder importOrder = record.order();
+        OrderEntity order = new OrderEntity();
+        order.setOrderNumber(UUID.randomUUID().toString());
+        order.setImportRef(importRef(record));
+        order.setStatus(importOrder.status() == null || importOrder.status().isBlank()
+                ? "PLACED" : importOrder.status().toUpperCase(Locale.ROOT));
+        for (OrderItemRequest itemReq : importOrder.items()) {
+            order.getItems().add(OrderItemEntity.builder()
+                    .skuCode(itemReq.getSkuCode())
+                    .quantity(itemReq.getQuantity())
+                    .price(itemReq.getPrice())
+                    .order(order)
+                    .build());
+        }
+        return order;
+    }
+
+    private static String importRef(ParsedRecord record) {
+        return record.ref() == null || record.ref().isBlank() ? null : record.ref();
+    }
+
+    private static double totalAmount(ImportOrder order) {
+        return order.items().stream().mapToDouble(item -> item.getPrice() * item.getQuantity()).sum();
+    }
+
+    private static String skuKey(String skuCode) {
+        return skuCode.toLowerCase(Locale.ROOT);
+    }
+
+    // ------------------------------------------------------------------ input formats
+
+    /** One parsed input record; {@code error} is set when it could not be parsed. */
+    private record ParsedRecord(long record, String ref, ImportOrder order, String error) {}
+
+    private interface RecordReader {
+        /** Next record, or null at end of input. */
+        ParsedRecord next() throws IOException;
+    }
+
+    /** One JSON order per line; the record number is the line number. */
+    private final class NdjsonRecordReader implements RecordReader {
+
+        private final BufferedReader reader;
+        private long lineNo;
+
+        NdjsonRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRecord next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    ImportOrder order = objectMapper.readValue(line, ImportOrder.class);
+                    return new ParsedRecord(lineNo, order.ref(), order, null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRecord(lineNo, null, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Header line, then {@code ref,skuCode,quantity,price} rows (plain comma separated, no quoting).
+     * Consecutive rows sharing a ref are one order; the record number is its first line.
+     */
+    private final class CsvRecordReader implements RecordReader {
+
+        private final BufferedReader reader;
+        private long lineNo;
+        private String[] lookahead;
+        private long lookaheadLine;
+
+        CsvRecordReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            if (reader.readLine() != null) {
+                lineNo++;
+            }
+        }
+
+        @Override
+        public ParsedRecord next() throws IOException {
+            String[] row = lookahead != null ? lookahead : readRow();
+            long record = lookahead != null ? lookaheadLine : lineNo;
+            lookahead = null;
+            if (row == null) {
+                return null;
+            }
+
+            String ref = row[0];
+            List<OrderItemRequest> items = new ArrayList<>();
+            String error = null;
+            while (row != null && row[0].equals(ref)) {
+                if (error == null) {
+                    error = addItem(row, items);
+                }
+                row = readRow();
+            }
+            if (row != null) {
+                lookahead = row;
+                lookaheadLine = lineNo;
+            }
+
+            return error != null
+                    ? new ParsedRecord(record, ref, null, error)
+                    : new ParsedRecord(record, ref, new ImportOrder(ref, null, items), null);
+        }
+
+        private String addItem(String[] row, List<OrderItemRequest> items) {
+            if (row.length < 4) {
+                return "Line " + lineNo + ": expected ref,skuCode,quantity,price";
+            }
+            if (items.size() >= maxItemsPerOrder) {
+                return "Order exceeds " + maxItemsPerOrder + " items";
+            }
+            try {
+                items.add(new OrderItemRequest(row[1], Integer.parseInt(row[2]), Double.parseDouble(row[3])));
+                return null;
+            } catch (NumberFormatException e) {
+                return "Line " + lineNo + ": invalid number";
+            }
+        }
+
+        private String[] readRow() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (!line.isBlank()) {
+                    String[] columns = line.split(",", -1);
+                    for (int i = 0; i < columns.length; i++) {
+                        columns[i] = columns[i].trim();
+                    }
+                    return columns;
+                }
+            }
+            return null;
+        }
+    }
+}
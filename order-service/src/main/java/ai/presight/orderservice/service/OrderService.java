@@ -9,20 +9,36 @@
 
 package ai.presight.orderservice.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import ai.presight.common.dto.ReservationRequest;
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.common.dto.StockCheckResponse;
 import ai.presight.orderservice.client.InventoryClient;
+import ai.presight.orderservice.client.InventoryFanOutExecutor;
 import ai.presight.orderservice.entity.OrderEntity;
 import ai.presight.orderservice.entity.OrderItemEntity;
+import ai.presight.orderservice.exception.InventoryOverloadException;
 import ai.presight.orderservice.model.OrderItemResponse;
+import ai.presight.orderservice.model.OrderLineView;
 import ai.presight.orderservice.model.OrderRequest;
 import ai.presight.orderservice.model.OrderResponse;
+import ai.presight.orderservice.model.OrderSearchPage;
+import ai.presight.orderservice.model.OrderSummaryView;
 import ai.presight.orderservice.repository.OrderRepository;
 import ai.presight.common.util.UtilFunction;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -37,6 +53,17 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final InventoryClient inventoryClient;
+    private final InventoryFanOutExecutor inventoryFanOut;
+    private final ReservationConfirmer reservationConfirmer;
+
+    @Value("${order.inventory.reservations-enabled:true}")
+    private boolean reservationsEnabled;
+
+    @Value("${order.inventory.parallel.enabled:false}")
+    private boolean parallelEnabled;
+
+    @Value("${order.search.max-page-size:200}")
+    private int maxSearchPageSize;
 
     // ============================================================
     // PLACE ORDER
@@ -44,11 +71,12 @@ public class OrderService {
     @Transactional
     @Retryable(
         retryFor = { RuntimeException.class },
+        noRetryFor = { InventoryOverloadException.class },
         maxAttempts = 3,
         backoff = @Backoff(delay = 1000)
     )
     @CircuitBreaker(name = "inventoryService", fallbackMethod = "fallbackPlaceOrder")
-    public OrderResponse placeOrder(OrderRequest request) {
+    public OrderResponse placeOrder(OrderRequest request, String idempotencyKey) {
         String orderNumber = UUID.randomUUID().toString();
         log.info("🟢 Placing multi-item order: {}", orderNumber);
         log.info("📦 Incoming request: {}", UtilFunction.objectToJSON(request));
@@ -71,74 +99,315 @@ public class OrderService {
 
         double totalAmount = 0.0;
 
-        // Validate and prepare items
-        for (var itemReq : request.getItems()) {
-            boolean available = inventoryClient.isInStock(itemReq.getSkuCode(), itemReq.getQuantity(), token);
-            if (!available) {
-                throw new RuntimeException("Insufficient stock for SKU: " + itemReq.getSkuCode());
+        List<StockCheckRequest> lines = request.getItems().stream()
+                .map(itemReq -> new StockCheckRequest(itemReq.getSkuCode(), itemReq.getQuantity()))
+                .toList();
+
+        String reservationId = null;
+        if (reservationsEnabled) {
+            // Validate and hold all items in a single round trip; the order number doubles as reservation id
+            reservationId = inventoryClient.reserve(new ReservationRequest(orderNumber, null, lines), token)
+                    .reservationId();
+        } else {
+            checkStock(lines, token);
+        }
+
+        try {
+            // Prepare items
+            for (var itemReq : request.getItems()) {
+                double lineTotal = itemReq.getPrice() * itemReq.getQuantity();
+                totalAmount += lineTotal;
+
+                OrderItemEntity item = OrderItemEntity.builder()
+                        .skuCode(itemReq.getSkuCode())
+                        .quantity(itemReq.getQuantity())
+                        .price(itemReq.getPrice())
+                        .order(order)
+                        .build();
+
+                order.getItems().add(item);
+            }
+
+            order.setStatus("PLACED");
+            orderRepository.save(order);
+            log.info(" Order {} saved successfully. TotalAmount={}", orderNumber, totalAmount);
+
+            if (reservationId != null) {
+                // The hold is turned into a deduction once the order has committed, off the request path
+                reservationConfirmer.enqueue(reservationId);
+            } else {
+                deductStock(lines, token, idempotencyKey);
+            }
+        } catch (RuntimeException e) {
+            if (reservationId != null) {
+                releaseQuietly(reservationId, token);
+            }
+            throw e;
+        }
+
+        return OrderResponse.builder()
+                .orderNumber(orderNumber)
+                .message("Order placed successfully")
+                .status("PLACED")
+                .totalAmount(totalAmount)
+                .build();
+    }
+
+    /**
+     * Validate all items with a single batch call to inventory.
+     */
+    private void checkStock(List<StockCheckRequest> lines, String token) {
+        for (StockCheckResponse availability : inventoryClient.checkStockBatch(lines, token)) {
+            if (!availability.inStock()) {
+                throw new RuntimeException("Insufficient stock for SKU: " + availability.skuCode());
             }
+        }
+    }
+
+    /**
+     * Deduct stock after successful save, one call per item; fanned out concurrently
+     * when parallel mode is enabled, so latency approaches the slowest item.
+     * Each line carries the key "{idempotencyKey}:{lineIndex}", so a retried attempt
+     * never deducts a line twice.
+     */
+    private void deductStock(List<StockCheckRequest> lines, String token, String idempotencyKey) {
+        if (parallelEnabled && lines.size() > 1) {
+            inventoryFanOut.invokeAll(IntStream.range(0, lines.size()).boxed().toList(),
+                    i -> deductLine(lines.get(i), token, idempotencyKey + ":" + i));
+            return;
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            deductLine(lines.get(i), token, idempotencyKey + ":" + i);
+        }
+    }
+
+    private void deductLine(StockCheckRequest line, String token, String lineKey) {
+        inventoryClient.deductStock(line.skuCode(), line.qty(), token, lineKey);
+    }
+
+    /**
+     * Best-effort release of a hold after a failed placement; the inventory sweeper
+     * expires it anyway if this call does not get through.
+     */
+    private void releaseQuietly(String reservationId, String token) {
+        try {
+            inventoryClient.releaseReservation(reservationId, token);
+            log.info(" Reservation {} released after failed placement", reservationId);
+        } catch (Exception e) {
+            log.warn(" Could not release reservation {}: {}", reservationId, e.getMessage());
+        }
+    }
+
+    // ============================================================
+    // ASYNC ACCEPTANCE
+    // ============================================================
+    /**
+     * Validate the request and persist the order as PENDING without calling inventory.
+     * The inventory part is completed later by {@link OrderFulfillmentWorker}.
+     */
+    @Transactional
+    public OrderResponse acceptOrder(OrderRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalStateException("Order must contain at least one item");
+        }
 
-            double lineTotal = itemReq.getPrice() * itemReq.getQuantity();
-            totalAmount += lineTotal;
+        String orderNumber = UUID.randomUUID().toString();
+        OrderEntity order = new OrderEntity();
+        order.setOrderNumber(orderNumber);
+        order.setStatus("PENDING");
 
-            OrderItemEntity item = OrderItemEntity.builder()
+        double totalAmount = 0.0;
+        for (var itemReq : request.getItems()) {
+            if (itemReq.getSkuCode() == null || itemReq.getQuantity() == null || itemReq.getQuantity() <= 0
+                    || itemReq.getPrice() == null) {
+                throw new IllegalStateException("Invalid order item: " + itemReq.getSkuCode());
+            }
+            totalAmount += itemReq.getPrice() * itemReq.getQuantity();
+            order.getItems().add(OrderItemEntity.builder()
                     .skuCode(itemReq.getSkuCode())
                     .quantity(itemReq.getQuantity())
                     .price(itemReq.getPrice())
                     .order(order)
-                    .build();
-
-            order.getItems().add(item);
+                    .build());
         }
 
-        order.setStatus("PLACED");
         orderRepository.save(order);
-        log.info(" Order {} saved successfully. TotalAmount={}", orderNumber, totalAmount);
-
-        // Deduct stock after successful save
-        for (var itemReq : request.getItems()) {
-            inventoryClient.deductStock(itemReq.getSkuCode(), itemReq.getQuantity(), token);
-        }
+        log.info(" Order {} accepted as PENDING. TotalAmount={}", orderNumber, totalAmount);
 
         return OrderResponse.builder()
                 .orderNumber(orderNumber)
-                .message("Order placed successfully")
-                .status("PLACED")
+                .message("Order accepted for processing")
+                .status("PENDING")
                 .totalAmount(totalAmount)
                 .build();
     }
 
+    /**
+     * Take an accepted order for processing (PENDING to PROCESSING) before any inventory call.
+     * The stale-order sweeper only fails PENDING orders, so once claimed an order can no
+     * longer be failed behind the worker's back after its stock was taken.
+     *
+     * @return false if the order already left PENDING, e.g. the sweeper failed it first
+     */
+    public boolean claimAcceptedOrder(String orderNumber) {
+        return orderRepository.transitionStatus(orderNumber, "PENDING", "PROCESSING") == 1;
+    }
+
+    /**
+     * Run the inventory work of a claimed order and mark it PLACED.
+     * Safe to repeat in reservation mode: the order number is the reservation id, and
+     * reserving or confirming the same reservation twice is a no-op in inventory-service.
+     */
+    public void fulfilAcceptedOrder(String orderNumber, String token) {
+        List<StockCheckRequest> lines = orderRepository.findLinesByOrderNumber(orderNumber).stream()
+                .filter(row -> row.skuCode() != null)
+                .map(row -> new StockCheckRequest(row.skuCode(), row.quantity()))
+                .toList();
+
+        if (reservationsEnabled) {
+            String reservationId = inventoryClient.reserve(new ReservationRequest(orderNumber, null, lines), token)
+                    .reservationId();
+            inventoryClient.confirmReservation(reservationId, token);
+        } else {
+            checkStock(lines, token);
+            deductStock(lines, token, orderNumber);
+        }
+
+        if (orderRepository.transitionStatus(orderNumber, "PROCESSING", "PLACED") == 0) {
+            log.error(" Order {} was no longer PROCESSING after its stock was taken", orderNumber);
+            return;
+        }
+        log.info(" Order {} placed asynchronously", orderNumber);
+    }
+
+    /**
+     * Give up on a claimed order: release any hold and mark it FAILED.
+     */
+    public void failAcceptedOrder(String orderNumber, String token) {
+        if (reservationsEnabled && token != null) {
+            releaseQuietly(orderNumber, token);
+        }
+        orderRepository.transitionStatus(orderNumber, "PROCESSING", "FAILED");
+        log.warn(" Order {} marked FAILED", orderNumber);
+    }
+
+    /**
+     * Fail orders that stayed PENDING too long, e.g. because the instance that
+     * accepted them restarted before a worker picked them up. Claimed (PROCESSING)
+     * orders are left alone, as inventory may already have taken their stock.
+     *
+     * @return number of orders failed
+     */
+    public int failStalePendingOrders(LocalDateTime acceptedBefore) {
+        return orderRepository.failPendingAcceptedBefore(acceptedBefore);
+    }
+
     // ============================================================
     // GET ORDER
     // ============================================================
+    /**
+     * Read path: one joined query projected straight into DTO rows (no managed
+     * entities), folded into the response in a single pass.
+     */
+    @Transactional(readOnly = true)
     public OrderResponse getOrder(String orderNumber) {
-        var order = orderRepository.findByOrderNumber(orderNumber)
-                .orElseThrow(() -> new RuntimeException("Order not found: " + orderNumber));
+        List<OrderLineView> rows = orderRepository.findLinesByOrderNumber(orderNumber);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Order not found: " + orderNumber);
+        }
 
-        double totalAmount = order.getItems().stream()
-                .mapToDouble(i -> i.getPrice() * i.getQuantity())
-                .sum();
-
-        var itemResponses = order.getItems().stream()
-                .map(i -> OrderItemResponse.builder()
-                        .skuCode(i.getSkuCode())
-                        .quantity(i.getQuantity())
-                        .price(i.getPrice())
-                        .lineTotal(i.getPrice() * i.getQuantity())
-                        .build())
-                .toList();
+        List<OrderItemResponse> itemResponses = new ArrayList<>(rows.size());
+        double totalAmount = 0.0;
+        for (OrderLineView row : rows) {
+            if (row.skuCode() == null) {
+                continue; // order without lines (left join)
+            }
+            OrderItemResponse item = toItemResponse(row.skuCode(), row.quantity(), row.price());
+            totalAmount += item.getLineTotal();
+            itemResponses.add(item);
+        }
 
+        OrderLineView header = rows.get(0);
         return OrderResponse.builder()
-                .orderNumber(order.getOrderNumber())
+                .orderNumber(header.orderNumber())
                 .message("Fetched successfully")
-                .status(order.getStatus())
+                .status(header.status())
                 .totalAmount(totalAmount)
                 .items(itemResponses)
-                .createdAt(order.getCreatedAt())
-                .updatedAt(order.getUpdatedAt())
+                .createdAt(header.createdAt())
+                .updatedAt(header.updatedAt())
+                .build();
+    }
+
+    private static OrderItemResponse toItemResponse(String skuCode, int quantity, double price) {
+        return OrderItemResponse.builder()
+                .skuCode(skuCode)
+                .quantity(quantity)
+                .price(price)
+                .lineTotal(price * quantity)
                 .build();
     }
 
+    // ============================================================
+    // SEARCH ORDERS
+    // ============================================================
+    /**
+     * Reporting search over order headers, newest first. Filters are optional; the created
+     * range is [from, to). Pages are keyset-based on (createdAt, id), so deep pages cost the
+     * same as the first one.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public OrderSearchPage searchOrders(String status, LocalDateTime from, LocalDateTime to,
+                                        String skuCode, String cursor, int size) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalStateException("'from' must be before 'to'");
+        }
+        int limit = Math.min(Math.max(size, 1), maxSearchPageSize);
+        LocalDateTime beforeCreatedAt = null;
+        Long beforeId = null;
+        if (cursor != null) {
+            String[] position = decodeCursor(cursor);
+            beforeCreatedAt = LocalDateTime.parse(position[0]);
+            beforeId = Long.valueOf(position[1]);
+        }
+
+        String statusFilter = blankToNull(status);
+        List<OrderSummaryView> items = orderRepository.search(
+                statusFilter != null ? statusFilter.toUpperCase(Locale.ROOT) : null, from, to,
+                blankToNull(skuCode), beforeCreatedAt, beforeId, limit);
+        String nextCursor = null;
+        if (items.size() == limit) {
+            OrderSummaryView last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.createdAt(), last.id());
+        }
+        return new OrderSearchPage(items, nextCursor);
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, long id) {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length == 2) {
+                LocalDateTime.parse(position[0]);
+                Long.parseLong(position[1]);
+                return position;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // fall through to the error below
+        }
+        throw new IllegalStateException("Invalid search cursor");
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     // ============================================================
     // UPDATE ORDER
     // ============================================================
@@ -174,18 +443,13 @@ public class OrderService {
         orderRepository.save(order);
         log.info("💾 Order {} updated successfully in DB", order.getOrderNumber());
 
-        double totalAmount = order.getItems().stream()
-                .mapToDouble(i -> i.getPrice() * i.getQuantity())
-                .sum();
-
-        var itemResponses = order.getItems().stream()
-                .map(i -> OrderItemResponse.builder()
-                        .skuCode(i.getSkuCode())
-                        .quantity(i.getQuantity())
-                        .price(i.getPrice())
-                        .lineTotal(i.getPrice() * i.getQuantity())
-                        .build())
-                .toList();
+        List<OrderItemResponse> itemResponses = new ArrayList<>(order.getItems().size());
+        double totalAmount = 0.0;
+        for (OrderItemEntity i : order.getItems()) {
+            OrderItemResponse item = toItemResponse(i.getSkuCode(), i.getQuantity(), i.getPrice());
+            totalAmount += item.getLineTotal();
+            itemResponses.add(item);
+        }
 
         return OrderResponse.builder()
                 .orderNumber(order.getOrderNumber())
@@ -201,7 +465,7 @@ public class OrderService {
     // ============================================================
     // FALLBACK
     // ============================================================
-    public OrderResponse fallbackPlaceOrder(OrderRequest request, Throwable ex) {
+    public OrderResponse fallbackPlaceOrder(OrderRequest request, String idempotencyKey, Throwable ex) {
         log.error(" Inventory service unavailable, fallback triggered: {}", ex.getMessage());
         return OrderResponse.builder()
                 .orderNumber("N/A")
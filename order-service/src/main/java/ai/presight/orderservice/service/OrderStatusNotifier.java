@@ -0,0 +1,35 @@
+package ai.presight.orderservice.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process registry of long-poll waiters per order number.
+ * Only waiters on the instance that runs the fulfillment are woken early; others
+ * see the final status when their long-poll times out.
+ */
+@Component
+public class OrderStatusNotifier {
+
+    private final ConcurrentHashMap<String, Set<Runnable>> waiters = new ConcurrentHashMap<>();
+
+    public void register(String orderNumber, Runnable callback) {
+        waiters.computeIfAbsent(orderNumber, k -> ConcurrentHashMap.newKeySet()).add(callback);
+    }
+
+    public void unregister(String orderNumber, Runnable callback) {
+        waiters.computeIfPresent(orderNumber, (k, callbacks) -> {
+            callbacks.remove(callback);
+            return callbacks.isEmpty() ? null : callbacks;
+        });
+    }
+
+    public void notifyCompleted(String orderNumber) {
+        Set<Runnable> callbacks = waiters.remove(orderNumber);
+        if (callbacks != null) {
+            callbacks.forEach(Runnable::run);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ai.presight.orderservice.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fails async orders stuck in PENDING, e.g. after a restart dropped the in-memory queue.
+ * Their inventory holds expire on the inventory side. Orders a worker already claimed
+ * (PROCESSING) are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PendingOrderSweeper {
+
+    private final OrderService orderService;
+
+    @Value("${order.async.stale-after-ms:600000}")
+    private long staleAfterMs;
+
+    @Scheduled(fixedDelayString = "${order.async.sweep-interval-ms:60000}")
+    public void failStalePendingOrders() {
+        int failed = orderService.failStalePendingOrders(LocalDateTime.now().minus(Duration.ofMillis(staleAfterMs)));
+        if (failed > 0) {
+            log.warn("Marked {} stale PENDING orders as FAILED", failed);
+        }
+    }
+}
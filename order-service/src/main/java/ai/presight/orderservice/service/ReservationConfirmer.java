@@ -0,0 +1,153 @@
+package ai.presight.orderservice.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.common.security.JwtUtil;
+import ai.presight.orderservice.client.InventoryClient;
+import ai.presight.orderservice.entity.ReservationConfirmation;
+import ai.presight.orderservice.repository.OrderRepository;
+import ai.presight.orderservice.repository.ReservationConfirmationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Confirms inventory holds of placed orders off the request path.
+ * - enqueue() records the reservation in the order transaction; after commit it is
+ *   confirmed on a small worker pool, so the client does not wait for the second round trip
+ * - Failed or dropped attempts stay in reservation_confirmations and are retried by a
+ *   scheduled sweep with growing backoff until inventory answers
+ * - A hold inventory no longer has (expired or unknown) fails the order
+ * Background calls carry a service token, since the client's token may be gone by then.
+ */
+@Slf4j
+@Component
+public class ReservationConfirmer {
+
+    static final String SERVICE_SUBJECT = "order-service";
+
+    private final InventoryClient inventoryClient;
+    private final ReservationConfirmationRepository confirmationRepository;
+    private final OrderRepository orderRepository;
+    private final JwtUtil jwtUtil;
+    private final ThreadPoolExecutor executor;
+
+    @Value("${order.inventory.confirm.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${order.inventory.confirm.max-backoff-ms:60000}")
+    private long maxBackoffMs;
+
+    @Value("${order.inventory.confirm.batch-size:100}")
+    private int batchSize;
+
+    public ReservationConfirmer(
+            InventoryClient inventoryClient,
+            ReservationConfirmationRepository confirmationRepository,
+            OrderRepository orderRepository,
+            JwtUtil jwtUtil,
+            MeterRegistry meterRegistry,
+            @Value("${order.inventory.confirm.workers:4}") int workers,
+            @Value("${order.inventory.confirm.queue-capacity:1000}") int queueCapacity
+    ) {
+        this.inventoryClient = inventoryClient;
+        this.confirmationRepository = confirmationRepository;
+        this.orderRepository = orderRepository;
+        this.jwtUtil = jwtUtil;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("reservation-confirm-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "reservation-confirm", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Record that a reservation must be confirmed. Joins the caller's transaction; the first
+     * attempt starts once it commits, and nothing is recorded if it rolls back.
+     */
+    public void enqueue(String reservationId) {
+        LocalDateTime now = LocalDateTime.now();
+        confirmationRepository.save(ReservationConfirmation.builder()
+                .reservationId(reservationId)
+                .attempts(0)
+                .nextAttemptAt(now.plusNanos(retryDelayMs * 1_000_000))
+                .createdAt(now)
+                .build());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(reservationId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(reservationId);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${order.inventory.confirm.sweep-interval-ms:5000}")
+    public void retryDue() {
+        int claimed;
+        do {
+            var due = confirmationRepository.claimDue(batchSize, retryDelayMs, maxBackoffMs);
+            due.forEach(this::confirm);
+            claimed = due.size();
+        } while (claimed == batchSize);
+    }
+
+    private void submit(String reservationId) {
+        try {
+            executor.execute(() -> confirm(reservationId));
+        } catch (RejectedExecutionException e) {
+            log.warn(" Confirm queue full, reservation {} left for the retry sweep", reservationId);
+        }
+    }
+
+    /**
+     * One confirm attempt. Confirming twice is a no-op in inventory-service, so a sweep
+     * overlapping the first attempt is harmless.
+     */
+    void confirm(String reservationId) {
+        try {
+            inventoryClient.confirmReservation(reservationId, "Bearer " + jwtUtil.generateToken(SERVICE_SUBJECT));
+            confirmationRepository.deleteById(reservationId);
+            log.info(" Reservation {} confirmed", reservationId);
+        } catch (IllegalArgumentException | ResourceNotFoundException e) {
+            // The hold expired or is unknown: the stock was never taken, so the order cannot stand
+            log.warn(" Reservation {} rejected by inventory, failing order: {}", reservationId, e.getMessage());
+            releaseQuietly(reservationId);
+            orderRepository.transitionStatus(reservationId, "PLACED", "FAILED");
+            confirmationRepository.deleteById(reservationId);
+        } catch (RuntimeException e) {
+            log.warn(" Confirm of reservation {} failed, will retry: {}", reservationId, e.getMessage());
+        }
+    }
+
+    private void releaseQuietly(String reservationId) {
+        try {
+            inventoryClient.releaseReservation(reservationId, "Bearer " + jwtUtil.generateToken(SERVICE_SUBJECT));
+        } catch (RuntimeException e) {
+            log.debug(" Could not release reservation {}: {}", reservationId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,76 @@
+package ai.presight.orderservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void shedsCallsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 60_000);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(FAST, false);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void fastCallsGrowTheLimitAndOverloadShrinksIt() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 60_000);
+        for (int i = 0; i < 100; i++) {
+            call(limiter, FAST, false);
+        }
+        int grown = limiter.currentLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        call(limiter, FAST, true);
+
+        assertThat(limiter.currentLimit()).isLessThan(grown);
+        assertThat(limiter.baselineRttMillis()).isEqualTo(10);
+    }
+
+    @Test
+    void baselineFollowsALastingLatencyShiftInsteadOfPinningTheLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 100);
+        for (int i = 0; i < 20; i++) {
+            call(limiter, FAST, false);
+        }
+        for (int i = 0; i < 50; i++) {
+            call(limiter, SLOW, false);
+        }
+        assertThat(limiter.currentLimit()).isEqualTo(2);
+
+        // Two windows of only slow samples age the fast minimum out
+        for (int window = 0; window < 3; window++) {
+            Thread.sleep(120);
+            call(limiter, SLOW, false);
+        }
+        assertThat(limiter.baselineRttMillis()).isEqualTo(50);
+
+        for (int i = 0; i < 50; i++) {
+            call(limiter, SLOW, false);
+        }
+        assertThat(limiter.currentLimit()).isGreaterThan(2);
+    }
+
+    private static void call(AdaptiveConcurrencyLimiter limiter, long rttNanos, boolean overload) {
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(rttNanos, overload);
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit, long baselineWindowMs) {
+        return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), initialLimit, 2, 200, 0.9, 2.0,
+                baselineWindowMs);
+    }
+}
@@ -0,0 +1,61 @@
+package ai.presight.orderservice.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import ai.presight.common.security.TrustedIdentityVerifier;
+
+class InventoryFanOutExecutorTest {
+
+    private final InventoryFanOutExecutor fanOut = new InventoryFanOutExecutor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fanOut, "maxConcurrency", 4);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer user-token");
+        request.addHeader(TrustedIdentityVerifier.IDENTITY_HEADER, "identity");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        fanOut.shutdown();
+    }
+
+    @Test
+    void tasksSeeTheCallersRequestHeaders() {
+        Map<Integer, String> seen = new ConcurrentHashMap<>();
+
+        fanOut.invokeAll(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), i -> {
+            var attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+            seen.put(i, attributes.getRequest().getHeader("Authorization") + "|"
+                    + attributes.getRequest().getHeader(TrustedIdentityVerifier.IDENTITY_HEADER));
+        });
+
+        assertThat(seen).hasSize(10).allSatisfy((i, headers) -> assertThat(headers).isEqualTo("Bearer user-token|identity"));
+        assertThat(RequestContextHolder.getRequestAttributes()).isNotNull();
+    }
+
+    @Test
+    void firstFailureIsRethrown() {
+        assertThatThrownBy(() -> fanOut.invokeAll(List.of(1, 2, 3), i -> {
+            if (i == 2) {
+                throw new IllegalArgumentException("Bad request to Inventory Service");
+            }
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+}
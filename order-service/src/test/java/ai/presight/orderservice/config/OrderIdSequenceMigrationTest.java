@@ -0,0 +1,74 @@
+package ai.presight.orderservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ai.presight.orderservice.support.PostgresIntegrationTest;
+
+class OrderIdSequenceMigrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private OrderIdSequenceMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void legacySerialTableGetsItsSequenceMovedPastExistingIds() {
+        jdbcTemplate.execute("drop table if exists legacy_orders");
+        jdbcTemplate.execute("drop sequence if exists legacy_orders_seq");
+        jdbcTemplate.execute("create table legacy_orders (id bigserial primary key, note text)");
+        jdbcTemplate.execute("insert into legacy_orders (note) select 'row ' || g from generate_series(1, 120) g");
+        jdbcTemplate.execute("create sequence legacy_orders_seq start with 1 increment by 50");
+
+        migration.migrate("legacy_orders", "legacy_orders_seq");
+
+        long next = jdbcTemplate.queryForObject("select nextval('legacy_orders_seq')", Long.class);
+        // The pooled optimizer hands out (next - 49 .. next)
+        assertThat(next - OrderIdSequenceMigration.ALLOCATION_SIZE + 1).isGreaterThan(120);
+        assertThat(jdbcTemplate.queryForObject("""
+                select column_default from information_schema.columns
+                where table_name = 'legacy_orders' and column_name = 'id'
+                """, String.class)).isNull();
+    }
+
+    @Test
+    void sequenceAlreadyAheadIsLeftAlone() {
+        jdbcTemplate.execute("drop table if exists ahead_orders");
+        jdbcTemplate.execute("drop sequence if exists ahead_orders_seq");
+        jdbcTemplate.execute("create table ahead_orders (id bigint primary key)");
+        jdbcTemplate.execute("insert into ahead_orders values (10)");
+        jdbcTemplate.execute("create sequence ahead_orders_seq start with 1 increment by 50");
+        jdbcTemplate.execute("select setval('ahead_orders_seq', 1000)");
+
+        migration.migrate("ahead_orders", "ahead_orders_seq");
+
+        assertThat(jdbcTemplate.queryForObject("select nextval('ahead_orders_seq')", Long.class)).isEqualTo(1050);
+    }
+
+    @Test
+    void tableWithoutAnIdDefaultIsNotLocked() {
+        jdbcTemplate.execute("drop table if exists migrated_orders");
+        jdbcTemplate.execute("drop sequence if exists migrated_orders_seq");
+        jdbcTemplate.execute("create table migrated_orders (id bigint primary key)");
+        jdbcTemplate.execute("create sequence migrated_orders_seq start with 1 increment by 50");
+
+        Integer exclusiveLocks = transactionTemplate.execute(status -> {
+            migration.migrate("migrated_orders", "migrated_orders_seq");
+            return jdbcTemplate.queryForObject("""
+                    select count(*) from pg_locks
+                    where pid = pg_backend_pid() and relation = 'migrated_orders'::regclass
+                      and mode = 'AccessExclusiveLock'
+                    """, Integer.class);
+        });
+
+        assertThat(exclusiveLocks).isZero();
+    }
+}
@@ -0,0 +1,159 @@
+package ai.presight.orderservice.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LowStockWorkPoolTest {
+
+    private static final String TOPIC = "low-stock-topic";
+
+    private final KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+    private final MessageListenerContainer container = mock(MessageListenerContainer.class);
+    @SuppressWarnings("unchecked")
+    private final Consumer<Map<TopicPartition, Long>> rewind = mock(Consumer.class);
+    private LowStockWorkPool pool;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void recordsOfOneKeyKeepOffsetOrderAcrossBatches() {
+        pool = newPool(4, 100, 80, 20);
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+        Consumer<ConsumerRecord<String, String>> handler = r -> {
+            sleep(1);
+            seen.computeIfAbsent(r.key(), k -> Collections.synchronizedList(new ArrayList<>())).add(r.offset());
+        };
+        Acknowledgment first = mock(Acknowledgment.class);
+        Acknowledgment second = mock(Acknowledgment.class);
+
+        pool.submit(records(0, 30, 3), handler, first, rewind);
+        pool.submit(records(30, 60, 3), handler, second, rewind);
+
+        verify(second, timeout(5000)).acknowledge();
+        verify(first).acknowledge();
+        assertThat(seen).hasSize(3);
+        seen.values().forEach(offsets -> assertThat(offsets).hasSize(20).isSorted());
+    }
+
+    @Test
+    void batchIsAcknowledgedOnlyAfterEveryEarlierBatch() throws InterruptedException {
+        pool = newPool(2, 100, 80, 20);
+        CountDownLatch release = new CountDownLatch(1);
+        Acknowledgment slow = mock(Acknowledgment.class);
+        Acknowledgment fast = mock(Acknowledgment.class);
+
+        pool.submit(List.of(record(0, "SKU-SLOW")), r -> await(release), slow, rewind);
+        pool.submit(List.of(record(1, "SKU-FAST")), r -> { }, fast, rewind);
+
+        Thread.sleep(100);
+        verify(fast, never()).acknowledge();
+
+        release.countDown();
+        InOrder order = inOrder(slow, fast);
+        order.verify(slow, timeout(5000)).acknowledge();
+        order.verify(fast, timeout(5000)).acknowledge();
+    }
+
+    @Test
+    void failedBatchIsRewoundAndLaterBatchesAreDropped() {
+        pool = newPool(2, 100, 80, 20);
+        Acknowledgment failing = mock(Acknowledgment.class);
+        Acknowledgment later = mock(Acknowledgment.class);
+        Consumer<ConsumerRecord<String, String>> handler = r -> {
+            if (r.value().equals("bad")) {
+                throw new IllegalStateException("handler failed");
+            }
+        };
+
+        pool.submit(List.of(record(5, "SKU-1"), new ConsumerRecord<>(TOPIC, 0, 6, "SKU-2", "bad")), handler, failing, rewind);
+        pool.submit(List.of(record(7, "SKU-1")), handler, later, rewind);
+
+        verify(rewind, timeout(5000)).accept(Map.of(new TopicPartition(TOPIC, 0), 5L));
+        verify(failing, never()).acknowledge();
+        verify(later, never()).acknowledge();
+    }
+
+    @Test
+    void staysPausedAcrossPollsUntilTheQueueDrains() {
+        when(registry.getListenerContainer(LowStockWorkPool.LISTENER_ID)).thenReturn(container);
+        pool = newPool(1, 100, 5, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        // submit returns right away, so the container is left paused for the next polls
+        pool.submit(records(0, 10, 10), r -> await(release), ack, rewind);
+
+        verify(container).pause();
+        verify(container, never()).resume();
+
+        release.countDown();
+        verify(container, timeout(5000)).resume();
+        verify(ack, timeout(5000)).acknowledge();
+        verify(rewind, never()).accept(any());
+    }
+
+    private LowStockWorkPool newPool(int workers, int capacity, int pauseWatermark, int resumeWatermark) {
+        LowStockWorkPool workPool = new LowStockWorkPool(registry, new SimpleMeterRegistry(), workers, capacity);
+        ReflectionTestUtils.setField(workPool, "pauseWatermark", pauseWatermark);
+        ReflectionTestUtils.setField(workPool, "resumeWatermark", resumeWatermark);
+        return workPool;
+    }
+
+    private static List<ConsumerRecord<String, String>> records(int fromOffset, int toOffset, int keys) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int offset = fromOffset; offset < toOffset; offset++) {
+            records.add(record(offset, "SKU-" + offset % keys));
+        }
+        return records;
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String key) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, key, "v" + offset);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
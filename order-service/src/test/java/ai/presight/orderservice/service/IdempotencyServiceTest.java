@@ -0,0 +1,130 @@
+package ai.presight.orderservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import ai.presight.orderservice.entity.IdempotencyRecord;
+import ai.presight.orderservice.model.OrderResponse;
+import ai.presight.orderservice.repository.IdempotencyRecordRepository;
+import ai.presight.orderservice.support.PostgresIntegrationTest;
+
+@TestPropertySource(properties = "order.idempotency.in-progress-wait-ms=300")
+class IdempotencyServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void replaysStoredResponseWithoutRunningAgain() {
+        String key = newKey();
+
+        ResponseEntity<OrderResponse> first = execute(key, "order-1", "PLACED");
+        ResponseEntity<OrderResponse> second = execute(key, "order-1", "PLACED");
+
+        assertThat(runs).hasValue(1);
+        assertThat(second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(second.getBody().getOrderNumber()).isEqualTo(first.getBody().getOrderNumber());
+        IdempotencyRecord record = idempotencyRecordRepository.findById(key).orElseThrow();
+        assertThat(record.getStatus()).isEqualTo(IdempotencyRecord.COMPLETED);
+        assertThat(record.getExpiresAt()).isAfter(LocalDateTime.now().plusHours(23));
+    }
+
+    @Test
+    void rejectsKeyReusedForDifferentRequest() {
+        String key = newKey();
+        execute(key, "order-1", "PLACED");
+
+        assertThatThrownBy(() -> execute(key, "order-2", "PLACED"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("different request");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void freesKeyWhenOutcomeIsNotFinal() {
+        String key = newKey();
+
+        execute(key, "order-1", "FAILED");
+        execute(key, "order-1", "PLACED");
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void freesKeyWhenActionThrows() {
+        String key = newKey();
+
+        assertThatThrownBy(() -> idempotencyService.execute(key, "order-1", OrderResponse.class, r -> true, () -> {
+            throw new IllegalStateException("inventory down");
+        })).hasMessage("inventory down");
+
+        assertThat(idempotencyRecordRepository.findById(key)).isEmpty();
+    }
+
+    @Test
+    void waitsOutLiveClaimThenGivesUp() {
+        String key = newKey();
+        idempotencyRecordRepository.claim(key, "other", UUID.randomUUID().toString(), LocalDateTime.now().plusMinutes(1));
+
+        assertThatThrownBy(() -> execute(key, "order-1", "PLACED"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void takesOverClaimOfCrashedOwnerOnceLeaseExpires() {
+        String key = newKey();
+        String deadOwner = UUID.randomUUID().toString();
+        idempotencyRecordRepository.claim(key, "other", deadOwner, LocalDateTime.now().minusSeconds(1));
+
+        execute(key, "order-1", "PLACED");
+
+        assertThat(runs).hasValue(1);
+        // The late owner can neither overwrite nor free the new claim's result
+        assertThat(idempotencyRecordRepository.complete(key, deadOwner, 200, "{}", LocalDateTime.now())).isZero();
+        assertThat(idempotencyRecordRepository.release(key, deadOwner)).isZero();
+        assertThat(idempotencyRecordRepository.findById(key).orElseThrow().getStatus())
+                .isEqualTo(IdempotencyRecord.COMPLETED);
+    }
+
+    @Test
+    void scopesKeysPerUser() {
+        String alice = idempotencyService.scope("alice", "checkout-1");
+
+        assertThat(alice).isEqualTo(idempotencyService.scope("alice", "checkout-1"));
+        assertThat(alice).isNotEqualTo(idempotencyService.scope("bob", "checkout-1"));
+        assertThat(alice).isNotEqualTo(idempotencyService.scope(null, "checkout-1"));
+        // Fits the key column together with the ":{lineIndex}" suffix sent to inventory
+        assertThat(alice).hasSize(64);
+    }
+
+    private ResponseEntity<OrderResponse> execute(String key, Object request, String status) {
+        return idempotencyService.execute(key, request, OrderResponse.class,
+                response -> !"FAILED".equals(response.getStatus()),
+                () -> {
+                    runs.incrementAndGet();
+                    return ResponseEntity.ok(OrderResponse.builder()
+                            .orderNumber(UUID.randomUUID().toString())
+                            .status(status)
+                            .build());
+                });
+    }
+
+    private static String newKey() {
+        return UUID.randomUUID().toString();
+    }
+}
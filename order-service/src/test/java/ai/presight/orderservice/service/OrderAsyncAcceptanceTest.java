@@ -0,0 +1,116 @@
+package ai.presight.orderservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+
+import ai.presight.common.dto.ReservationRequest;
+import ai.presight.common.dto.ReservationResponse;
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.orderservice.client.InventoryClient;
+import ai.presight.orderservice.model.OrderItemRequest;
+import ai.presight.orderservice.model.OrderRequest;
+import ai.presight.orderservice.model.OrderResponse;
+import ai.presight.orderservice.repository.OrderRepository;
+import ai.presight.orderservice.support.PostgresIntegrationTest;
+
+@TestPropertySource(properties = "order.async.sweep-interval-ms=3600000")
+class OrderAsyncAcceptanceTest extends PostgresIntegrationTest {
+
+    @MockBean
+    private InventoryClient inventoryClient;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void acceptedOrderIsPendingUntilItsStockIsTaken() {
+        OrderResponse accepted = orderService.acceptOrder(request(line("SKU-A", 2, 10.0), line("SKU-B", 1, 4.0)));
+        String orderNumber = accepted.getOrderNumber();
+        assertThat(accepted.getStatus()).isEqualTo("PENDING");
+        assertThat(accepted.getTotalAmount()).isEqualTo(24.0);
+        when(inventoryClient.reserve(any(), eq("Bearer t")))
+                .thenReturn(new ReservationResponse(orderNumber, "HELD", null, List.of()));
+
+        assertThat(orderService.claimAcceptedOrder(orderNumber)).isTrue();
+        orderService.fulfilAcceptedOrder(orderNumber, "Bearer t");
+
+        ArgumentCaptor<ReservationRequest> reserved = ArgumentCaptor.forClass(ReservationRequest.class);
+        verify(inventoryClient).reserve(reserved.capture(), eq("Bearer t"));
+        assertThat(reserved.getValue().reservationId()).isEqualTo(orderNumber);
+        assertThat(reserved.getValue().items()).extracting(StockCheckRequest::skuCode)
+                .containsExactlyInAnyOrder("SKU-A", "SKU-B");
+        verify(inventoryClient).confirmReservation(orderNumber, "Bearer t");
+        assertThat(orderService.getOrder(orderNumber).getStatus()).isEqualTo("PLACED");
+    }
+
+    @Test
+    void failedOrderReleasesItsHoldAndIsNotRevived() {
+        String orderNumber = orderService.acceptOrder(request(line("SKU-C", 1, 1.0))).getOrderNumber();
+        orderService.claimAcceptedOrder(orderNumber);
+
+        orderService.failAcceptedOrder(orderNumber, "Bearer t");
+
+        verify(inventoryClient).releaseReservation(orderNumber, "Bearer t");
+        assertThat(orderService.getOrder(orderNumber).getStatus()).isEqualTo("FAILED");
+        assertThat(orderRepository.transitionStatus(orderNumber, "PROCESSING", "PLACED")).isZero();
+    }
+
+    @Test
+    void stalePendingOrdersAreFailed() {
+        String orderNumber = orderService.acceptOrder(request(line("SKU-D", 1, 1.0))).getOrderNumber();
+
+        assertThat(orderService.failStalePendingOrders(LocalDateTime.now().minusHours(1))).isZero();
+        assertThat(orderService.failStalePendingOrders(LocalDateTime.now().plusSeconds(1))).isPositive();
+        assertThat(orderService.getOrder(orderNumber).getStatus()).isEqualTo("FAILED");
+    }
+
+    @Test
+    void claimedOrdersAreSkippedByTheSweep() {
+        String orderNumber = orderService.acceptOrder(request(line("SKU-F", 1, 1.0))).getOrderNumber();
+        assertThat(orderService.claimAcceptedOrder(orderNumber)).isTrue();
+
+        orderService.failStalePendingOrders(LocalDateTime.now().plusSeconds(1));
+
+        assertThat(orderService.getOrder(orderNumber).getStatus()).isEqualTo("PROCESSING");
+    }
+
+    @Test
+    void sweptOrderCannotBeClaimed() {
+        String orderNumber = orderService.acceptOrder(request(line("SKU-G", 1, 1.0))).getOrderNumber();
+        orderService.failStalePendingOrders(LocalDateTime.now().plusSeconds(1));
+
+        assertThat(orderService.claimAcceptedOrder(orderNumber)).isFalse();
+    }
+
+    @Test
+    void invalidLinesAreRejectedBeforeAnythingIsStored() {
+        assertThatThrownBy(() -> orderService.acceptOrder(request(line("SKU-E", 0, 1.0))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> orderService.acceptOrder(request()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static OrderRequest request(OrderItemRequest... lines) {
+        return OrderRequest.builder().items(List.of(lines)).build();
+    }
+
+    private static OrderItemRequest line(String sku, int quantity, double price) {
+        return OrderItemRequest.builder().skuCode(sku).quantity(quantity).price(price).build();
+    }
+}
@@ -0,0 +1,122 @@
+package ai.presight.orderservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ai.presight.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderFulfillmentWorkerTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderStatusNotifier statusNotifier = new OrderStatusNotifier();
+    private OrderFulfillmentWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        when(orderService.claimAcceptedOrder(anyString())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    void retriesTransientFailuresThenWakesWaiters() throws InterruptedException {
+        worker = newWorker(1, 10);
+        doThrow(new RuntimeException("timeout")).doNothing()
+                .when(orderService).fulfilAcceptedOrder("order-1", "Bearer t");
+        CountDownLatch woken = new CountDownLatch(1);
+        statusNotifier.register("order-1", woken::countDown);
+
+        assertThat(worker.submit("order-1", "Bearer t")).isTrue();
+
+        assertThat(woken.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(orderService, times(2)).fulfilAcceptedOrder("order-1", "Bearer t");
+        verify(orderService, never()).failAcceptedOrder("order-1", "Bearer t");
+    }
+
+    @Test
+    void inventoryRejectionFailsTheOrderWithoutRetrying() {
+        worker = newWorker(1, 10);
+        doThrow(new ResourceNotFoundException("Product not found"))
+                .when(orderService).fulfilAcceptedOrder("order-2", "Bearer t");
+
+        worker.submit("order-2", "Bearer t");
+
+        verify(orderService, timeout(5000)).failAcceptedOrder("order-2", "Bearer t");
+        verify(orderService, times(1)).fulfilAcceptedOrder("order-2", "Bearer t");
+    }
+
+    @Test
+    void exhaustedAttemptsFailTheOrder() {
+        worker = newWorker(1, 10);
+        doThrow(new RuntimeException("down")).when(orderService).fulfilAcceptedOrder("order-3", null);
+
+        worker.submit("order-3", null);
+
+        verify(orderService, timeout(5000)).failAcceptedOrder("order-3", null);
+        verify(orderService, times(3)).fulfilAcceptedOrder("order-3", null);
+    }
+
+    @Test
+    void orderFailedBeforeItsClaimIsLeftAlone() throws InterruptedException {
+        worker = newWorker(1, 10);
+        when(orderService.claimAcceptedOrder("order-4")).thenReturn(false);
+        CountDownLatch woken = new CountDownLatch(1);
+        statusNotifier.register("order-4", woken::countDown);
+
+        worker.submit("order-4", null);
+
+        assertThat(woken.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(orderService, never()).fulfilAcceptedOrder("order-4", null);
+        verify(orderService, never()).failAcceptedOrder("order-4", null);
+    }
+
+    @Test
+    void fullQueueRejectsIntake() throws InterruptedException {
+        worker = newWorker(1, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return null;
+        }).when(orderService).fulfilAcceptedOrder("busy", null);
+        doNothing().when(orderService).fulfilAcceptedOrder("queued", null);
+
+        assertThat(worker.submit("busy", null)).isTrue();
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(worker.submit("queued", null)).isTrue();
+
+        assertThat(worker.hasCapacity()).isFalse();
+        assertThat(worker.submit("rejected", null)).isFalse();
+        release.countDown();
+    }
+
+    private OrderFulfillmentWorker newWorker(int workers, int queueCapacity) {
+        OrderFulfillmentWorker fulfillmentWorker =
+                new OrderFulfillmentWorker(orderService, statusNotifier, new SimpleMeterRegistry(), workers, queueCapacity);
+        ReflectionTestUtils.setField(fulfillmentWorker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(fulfillmentWorker, "backoffMs", 10L);
+        return fulfillmentWorker;
+    }
+}
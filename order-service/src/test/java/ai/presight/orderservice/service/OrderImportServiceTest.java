@@ -0,0 +1,188 @@
+package ai.presight.orderservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ai.presight.common.dto.StockCheckRequest;
+import ai.presight.common.dto.StockCheckResponse;
+import ai.presight.common.exception.ResourceNotFoundException;
+import ai.presight.orderservice.client.InventoryClient;
+import ai.presight.orderservice.model.ImportRecordResult;
+import ai.presight.orderservice.support.PostgresIntegrationTest;
+
+class OrderImportServiceTest extends PostgresIntegrationTest {
+
+    private static final Map<String, Integer> STOCK = Map.of("sku-a", 5, "sku-b", 100);
+
+    @MockBean
+    private InventoryClient inventoryClient;
+
+    @Autowired
+    private OrderImportService importService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void stubInventory() {
+        // Like inventory-service: 404 for the whole batch when any SKU is unknown
+        when(inventoryClient.checkStockBatch(anyList(), eq("Bearer t"))).thenAnswer(invocation -> {
+            List<StockCheckRequest> lines = invocation.getArgument(0);
+            return lines.stream().map(line -> {
+                Integer available = STOCK.get(line.skuCode().toLowerCase());
+                if (available == null) {
+                    throw new ResourceNotFoundException("Product not found (SKU=" + line.skuCode() + ")");
+                }
+                return new StockCheckResponse(line.skuCode(), line.qty(), available, available >= line.qty());
+            }).toList();
+        });
+    }
+
+    @Test
+    void ndjsonRecordsAreAnsweredOneLineEachInInputOrder() throws IOException {
+        String body = """
+                {"ref":"p-1","items":[{"skuCode":"SKU-A","quantity":3,"price":2.0}]}
+                {"ref":"p-2","items":[{"skuCode":"SKU-A","quantity":3,"price":2.0}]}
+                not json
+
+                {"ref":"p-4","items":[{"skuCode":"SKU-B","quantity":1,"price":1.5},{"skuCode":"SKU-X","quantity":1,"price":1.0}]}
+                {"ref":"p-5","items":[]}
+                """;
+
+        List<ImportRecordResult> results = importOrders(body, false);
+
+        assertThat(results).extracting(ImportRecordResult::record, ImportRecordResult::ref, ImportRecordResult::status)
+                .containsExactly(
+                        tuple(1L, "p-1", "IMPORTED"),
+                        tuple(2L, "p-2", "REJECTED"),
+                        tuple(3L, null, "REJECTED"),
+                        tuple(5L, "p-4", "REJECTED"),
+                        tuple(6L, "p-5", "REJECTED"));
+        assertThat(results.get(1).message()).startsWith("Insufficient stock");
+        assertThat(results.get(2).message()).startsWith("Malformed JSON");
+        assertThat(results.get(3).message()).contains("sku-x");
+        assertThat(results.get(0).totalAmount()).isEqualTo(6.0);
+        assertThat(orderService.getOrder(results.get(0).orderNumber()).getItems()).hasSize(1);
+    }
+
+    @Test
+    void csvRowsWithTheSameRefFormOneOrder() throws IOException {
+        String body = """
+                ref,skuCode,quantity,price
+                c-1,SKU-B,2,1.0
+                c-1,SKU-A,1,4.0
+                c-2,SKU-B,x,1.0
+                c-3,SKU-B,1,1.0
+                """;
+
+        List<ImportRecordResult> results = importOrders(body, true);
+
+        assertThat(results).extracting(ImportRecordResult::record, ImportRecordResult::ref, ImportRecordResult::status)
+                .containsExactly(
+                        tuple(2L, "c-1", "IMPORTED"),
+                        tuple(4L, "c-2", "REJECTED"),
+                        tuple(5L, "c-3", "IMPORTED"));
+        assertThat(results.get(0).totalAmount()).isEqualTo(6.0);
+        assertThat(orderService.getOrder(results.get(0).orderNumber()).getItems()).hasSize(2);
+    }
+
+    @Test
+    void eachChunkChecksInventoryOnce() throws IOException {
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        try {
+            StringBuilder body = new StringBuilder();
+            for (int i = 0; i < 5; i++) {
+                body.append("{\"ref\":\"r-").append(i).append("\",\"items\":[{\"skuCode\":\"SKU-B\",\"quantity\":1,\"price\":1.0}]}\n");
+            }
+
+            List<ImportRecordResult> results = importOrders(body.toString(), false);
+
+            assertThat(results).extracting(ImportRecordResult::status).containsOnly("IMPORTED").hasSize(5);
+            verify(inventoryClient, times(3)).checkStockBatch(anyList(), eq("Bearer t"));
+        } finally {
+            ReflectionTestUtils.setField(importService, "chunkSize", 500);
+        }
+    }
+
+    @Test
+    void unknownSkusAreIsolatedWithoutRejectingTheRestOfTheChunk() throws IOException {
+        String body = """
+                {"ref":"u-1","items":[{"skuCode":"SKU-Y","quantity":1,"price":1.0}]}
+                {"ref":"u-2","items":[{"skuCode":"SKU-B","quantity":1,"price":1.0}]}
+                {"ref":"u-3","items":[{"skuCode":"SKU-Z","quantity":1,"price":1.0}]}
+                """;
+
+        List<ImportRecordResult> results = importOrders(body, false);
+
+        assertThat(results).extracting(ImportRecordResult::status).containsExactly("REJECTED", "IMPORTED", "REJECTED");
+        verify(inventoryClient, atLeast(3)).checkStockBatch(anyList(), eq("Bearer t"));
+    }
+
+    @Test
+    void nonTerminalStatusesAreRejectedPerRecord() throws IOException {
+        String body = """
+                {"ref":"s-1","status":"PENDING","items":[{"skuCode":"SKU-B","quantity":1,"price":1.0}]}
+                {"ref":"s-2","status":"cancelled","items":[{"skuCode":"SKU-B","quantity":1,"price":1.0}]}
+                """;
+
+        List<ImportRecordResult> results = importOrders(body, false);
+
+        assertThat(results).extracting(ImportRecordResult::status).containsExactly("REJECTED", "IMPORTED");
+        assertThat(results.get(0).message()).startsWith("Status must be one of");
+        assertThat(orderService.getOrder(results.get(1).orderNumber()).getStatus()).isEqualTo("CANCELLED");
+    }
+
+    @Test
+    void reimportedRefsAreAnsweredAsDuplicates() throws IOException {
+        String body = """
+                {"ref":"d-1","items":[{"skuCode":"SKU-B","quantity":1,"price":1.0}]}
+                {"ref":"d-1","items":[{"skuCode":"SKU-B","quantity":1,"price":1.0}]}
+                """;
+
+        List<ImportRecordResult> first = importOrders(body, false);
+        List<ImportRecordResult> second = importOrders(body.lines().findFirst().orElseThrow(), false);
+
+        assertThat(first).extracting(ImportRecordResult::status).containsExactly("IMPORTED", "REJECTED");
+        assertThat(second).extracting(ImportRecordResult::status, ImportRecordResult::orderNumber)
+                .containsExactly(tuple("DUPLICATE", first.get(0).orderNumber()));
+    }
+
+    private List<ImportRecordResult> importOrders(String body, boolean csv) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importService.importOrders(new BufferedReader(new StringReader(body)), csv, "Bearer t", out);
+        return out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, ImportRecordResult.class);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,120 @@
+package ai.presight.orderservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ai.presight.orderservice.entity.OrderEntity;
+import ai.presight.orderservice.entity.OrderItemEntity;
+import ai.presight.orderservice.repository.OrderRepository;
+import ai.presight.orderservice.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inserts of orders with many lines: one statement per row with the id read back (what
+ * IDENTITY forces) against the pooled-sequence, JDBC-batched Hibernate path.
+ * Round trips per order are asserted; wall-clock numbers are only logged, since on a local
+ * database a round trip costs little next to the commit of each order.
+ */
+@Slf4j
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class OrderInsertBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final int ORDERS = 200;
+    private static final int ITEMS_PER_ORDER = 20;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchedInsertsOfPooledIdsVersusRowAtATime() {
+        // Warm up both paths so the comparison is not dominated by class loading
+        insertRowAtATime(ORDERS);
+        insertBatched(ORDERS);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long started = System.nanoTime();
+        List<String> rowAtATime = insertRowAtATime(ORDERS);
+        double rowSeconds = (System.nanoTime() - started) / 1e9;
+
+        statistics.clear();
+        started = System.nanoTime();
+        List<String> batched = insertBatched(ORDERS);
+        double batchedSeconds = (System.nanoTime() - started) / 1e9;
+        double batchedStatements = (double) statistics.getPrepareStatementCount() / ORDERS;
+
+        log.info("{} orders x {} lines: row-at-a-time {} statements/order, {} orders/s; batched {} statements/order, {} orders/s",
+                ORDERS, ITEMS_PER_ORDER, 1 + ITEMS_PER_ORDER, Math.round(ORDERS / rowSeconds),
+                String.format("%.2f", batchedStatements), Math.round(ORDERS / batchedSeconds));
+        // One batch per table plus the odd sequence fetch, instead of one statement per row
+        assertThat(batchedStatements).isLessThan(3);
+        assertThat(itemCount(rowAtATime)).isEqualTo(ORDERS * ITEMS_PER_ORDER);
+        assertThat(itemCount(batched)).isEqualTo(ORDERS * ITEMS_PER_ORDER);
+    }
+
+    private List<String> insertRowAtATime(int orders) {
+        List<String> orderNumbers = new ArrayList<>(orders);
+        for (int o = 0; o < orders; o++) {
+            String orderNumber = UUID.randomUUID().toString();
+            transactionTemplate.executeWithoutResult(status -> {
+                Long orderId = jdbcTemplate.queryForObject("""
+                        insert into orders (id, order_number, status, created_at, updated_at, version)
+                        values (nextval('orders_seq'), ?, 'PLACED', now(), now(), 0) returning id
+                        """, Long.class, orderNumber);
+                for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                    jdbcTemplate.queryForObject("""
+                            insert into order_items (id, sku_code, quantity, price, order_id)
+                            values (nextval('order_items_seq'), ?, 1, 9.99, ?) returning id
+                            """, Long.class, "SKU-" + i, orderId);
+                }
+            });
+            orderNumbers.add(orderNumber);
+        }
+        return orderNumbers;
+    }
+
+    private List<String> insertBatched(int orders) {
+        List<String> orderNumbers = new ArrayList<>(orders);
+        for (int o = 0; o < orders; o++) {
+            OrderEntity order = new OrderEntity();
+            order.setOrderNumber(UUID.randomUUID().toString());
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                order.getItems().add(OrderItemEntity.builder()
+                        .skuCode("SKU-" + i).quantity(1).price(9.99).order(order).build());
+            }
+            transactionTemplate.executeWithoutResult(status -> orderRepository.save(order));
+            orderNumbers.add(order.getOrderNumber());
+        }
+        return orderNumbers;
+    }
+
+    private int itemCount(List<String> orderNumbers) {
+        return jdbcTemplate.queryForObject("""
+                select count(*) from order_items i join orders o on o.id = i.order_id
+                where o.order_number = any (?)
+                """, Integer.class, (Object) orderNumbers.toArray(String[]::new));
+    }
+}
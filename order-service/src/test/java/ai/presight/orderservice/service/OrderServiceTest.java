@@ -0,0 +1,131 @@
+package ai.presight.orderservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ai.presight.orderservice.entity.OrderEntity;
+import ai.presight.orderservice.entity.OrderItemEntity;
+import ai.presight.orderservice.model.OrderItemResponse;
+import ai.presight.orderservice.model.OrderResponse;
+import ai.presight.orderservice.model.OrderSearchPage;
+import ai.presight.orderservice.model.OrderSummaryView;
+import ai.presight.orderservice.repository.OrderRepository;
+import ai.presight.orderservice.support.PostgresIntegrationTest;
+
+class OrderServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void getOrderFoldsJoinedRowsIntoOneResponse() {
+        String orderNumber = saveOrder("PLACED", item("SKU-A", 2, 10.0), item("SKU-B", 1, 5.5));
+
+        OrderResponse response = orderService.getOrder(orderNumber);
+
+        assertThat(response.getOrderNumber()).isEqualTo(orderNumber);
+        assertThat(response.getStatus()).isEqualTo("PLACED");
+        assertThat(response.getItems()).extracting(OrderItemResponse::getSkuCode)
+                .containsExactlyInAnyOrder("SKU-A", "SKU-B");
+        assertThat(response.getTotalAmount()).isEqualTo(25.5);
+        assertThat(response.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void getOrderWithoutLinesHasNoItems() {
+        String orderNumber = saveOrder("PENDING");
+
+        assertThat(orderService.getOrder(orderNumber).getItems()).isEmpty();
+    }
+
+    @Test
+    void unknownOrderIsReported() {
+        assertThatThrownBy(() -> orderService.getOrder("missing-order"))
+                .hasMessageContaining("Order not found");
+    }
+
+    @Test
+    void searchPagesNewestFirstWithoutGapsOrRepeats() {
+        String sku = "SEARCH-" + UUID.randomUUID();
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 12, 0);
+        String oldest = saveOrder("PLACED", base, item(sku, 1, 1.0));
+        String tieFirst = saveOrder("PLACED", base.plusHours(1), item(sku, 1, 1.0));
+        String tieSecond = saveOrder("PLACED", base.plusHours(1), item(sku, 1, 1.0));
+        String newest = saveOrder("PLACED", base.plusHours(2), item(sku, 1, 1.0));
+        String other = saveOrder("PLACED", base.plusHours(3), item(sku + "-X", 1, 1.0));
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderSearchPage page = orderService.searchOrders(null, null, null, sku.toLowerCase(), cursor, 3);
+            page.items().forEach(view -> seen.add(view.orderNumber()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Same created_at: the id breaks the tie, newer id first
+        assertThat(seen).containsExactly(newest, tieSecond, tieFirst, oldest).doesNotContain(other);
+        assertThat(pages).isEqualTo(2);
+    }
+
+    @Test
+    void searchCombinesStatusAndHalfOpenDateRange() {
+        String sku = "SEARCH-" + UUID.randomUUID();
+        LocalDateTime from = LocalDateTime.of(2021, 3, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        saveOrder("PLACED", from.minusSeconds(1), item(sku, 1, 1.0));
+        String atFrom = saveOrder("PLACED", from, item(sku, 1, 1.0));
+        saveOrder("CANCELLED", from.plusHours(1), item(sku, 1, 1.0));
+        saveOrder("PLACED", to, item(sku, 1, 1.0));
+
+        OrderSearchPage page = orderService.searchOrders("placed", from, to, sku, null, 10);
+
+        assertThat(page.items()).extracting(OrderSummaryView::orderNumber).containsExactly(atFrom);
+        assertThat(page.items()).extracting(OrderSummaryView::status).containsExactly("PLACED");
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void searchRejectsBadCursorAndEmptyRange() {
+        LocalDateTime at = LocalDateTime.of(2021, 3, 1, 0, 0);
+
+        assertThatThrownBy(() -> orderService.searchOrders(null, null, null, null, "not-a-cursor", 10))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Invalid search cursor");
+        assertThatThrownBy(() -> orderService.searchOrders(null, at, at, null, null, 10))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private String saveOrder(String status, OrderItemEntity... items) {
+        return saveOrder(status, LocalDateTime.now(), items);
+    }
+
+    private String saveOrder(String status, LocalDateTime createdAt, OrderItemEntity... items) {
+        OrderEntity order = new OrderEntity();
+        order.setOrderNumber(UUID.randomUUID().toString());
+        order.setStatus(status);
+        order.setCreatedAt(createdAt);
+        for (OrderItemEntity item : items) {
+            item.setOrder(order);
+            order.getItems().add(item);
+        }
+        orderRepository.save(order);
+        return order.getOrderNumber();
+    }
+
+    private static OrderItemEntity item(String sku, int quantity, double price) {
+        return OrderItemEntity.builder().skuCode(sku).quantity(quantity).price(price).build();
+    }
+}
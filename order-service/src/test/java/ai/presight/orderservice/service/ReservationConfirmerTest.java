@@ -0,0 +1,122 @@
+package ai.presight.orderservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ai.presight.orderservice.client.InventoryClient;
+import ai.presight.orderservice.entity.OrderEntity;
+import ai.presight.orderservice.entity.ReservationConfirmation;
+import ai.presight.orderservice.repository.OrderRepository;
+import ai.presight.orderservice.repository.ReservationConfirmationRepository;
+import ai.presight.orderservice.support.PostgresIntegrationTest;
+
+@TestPropertySource(properties = "order.inventory.confirm.sweep-interval-ms=3600000")
+class ReservationConfirmerTest extends PostgresIntegrationTest {
+
+    @MockBean
+    private InventoryClient inventoryClient;
+
+    @Autowired
+    private ReservationConfirmer reservationConfirmer;
+
+    @Autowired
+    private ReservationConfirmationRepository confirmationRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void confirmsAfterCommitWithServiceToken() throws InterruptedException {
+        String id = placedOrder();
+
+        transactionTemplate.executeWithoutResult(status -> reservationConfirmer.enqueue(id));
+
+        verify(inventoryClient, timeout(5000)).confirmReservation(eq(id), startsWith("Bearer "));
+        awaitGone(id);
+    }
+
+    @Test
+    void rolledBackOrderIsNeitherRecordedNorConfirmed() throws InterruptedException {
+        String id = UUID.randomUUID().toString();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            reservationConfirmer.enqueue(id);
+            status.setRollbackOnly();
+        });
+
+        Thread.sleep(200);
+        verify(inventoryClient, never()).confirmReservation(eq(id), anyString());
+        assertThat(confirmationRepository.findById(id)).isEmpty();
+    }
+
+    @Test
+    void failedConfirmStaysQueuedUntilRetrySucceeds() throws InterruptedException {
+        String id = placedOrder();
+        when(inventoryClient.confirmReservation(eq(id), anyString()))
+                .thenThrow(new RuntimeException("Unexpected error from Inventory Service: 503"))
+                .thenReturn(null);
+
+        transactionTemplate.executeWithoutResult(status -> reservationConfirmer.enqueue(id));
+        verify(inventoryClient, timeout(5000)).confirmReservation(eq(id), anyString());
+        Thread.sleep(200);
+        assertThat(confirmationRepository.findById(id)).isPresent();
+
+        makeDue(id);
+        reservationConfirmer.retryDue();
+
+        assertThat(confirmationRepository.findById(id)).isEmpty();
+        assertThat(orderRepository.findByOrderNumber(id).orElseThrow().getStatus()).isEqualTo("PLACED");
+    }
+
+    @Test
+    void rejectedHoldFailsTheOrder() throws InterruptedException {
+        String id = placedOrder();
+        when(inventoryClient.confirmReservation(eq(id), anyString()))
+                .thenThrow(new IllegalArgumentException("Bad request to Inventory Service"));
+
+        transactionTemplate.executeWithoutResult(status -> reservationConfirmer.enqueue(id));
+
+        awaitGone(id);
+        assertThat(orderRepository.findByOrderNumber(id).orElseThrow().getStatus()).isEqualTo("FAILED");
+    }
+
+    private String placedOrder() {
+        String orderNumber = UUID.randomUUID().toString();
+        OrderEntity order = new OrderEntity();
+        order.setOrderNumber(orderNumber);
+        order.setStatus("PLACED");
+        orderRepository.save(order);
+        return orderNumber;
+    }
+
+    private void makeDue(String id) {
+        ReservationConfirmation confirmation = confirmationRepository.findById(id).orElseThrow();
+        confirmation.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        confirmationRepository.save(confirmation);
+    }
+
+    private void awaitGone(String id) throws InterruptedException {
+        for (int i = 0; i < 50 && confirmationRepository.existsById(id); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(confirmationRepository.existsById(id)).isFalse();
+    }
+}